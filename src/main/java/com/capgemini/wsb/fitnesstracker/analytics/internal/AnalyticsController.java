@@ -0,0 +1,50 @@
+package com.capgemini.wsb.fitnesstracker.analytics.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import jakarta.annotation.Nullable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Controller for ad-hoc analytics over all trainings, served from the {@link ColumnarTrainingStore}.
+ */
+@RestController
+@RequestMapping("/v1/analytics/trainings")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "analytics.columnar.enabled", havingValue = "true")
+class AnalyticsController {
+
+    private final ColumnarTrainingStore columnarTrainingStore;
+
+    /**
+     * Aggregates a metric over the trainings started within the time range.
+     *
+     * @param metric       The metric to be aggregated.
+     * @param activityType The activity type of the trainings, all activities if not given.
+     * @param from         The inclusive lower bound of the start time, unbounded if not given.
+     * @param to           The exclusive upper bound of the start time, unbounded if not given.
+     * @param percentiles  The percentiles to be computed, e.g. {@code 50,90,99}.
+     * @return The {@link TrainingAggregateDto} with the count, sum, average and requested percentiles of the metric.
+     */
+    @GetMapping("/aggregate")
+    public TrainingAggregateDto aggregate(@RequestParam AnalyticsMetric metric,
+                                          @RequestParam(required = false) @Nullable ActivityType activityType,
+                                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) @Nullable Date from,
+                                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) @Nullable Date to,
+                                          @RequestParam(defaultValue = "") List<Double> percentiles) {
+        return columnarTrainingStore.aggregate(metric,
+                                               activityType,
+                                               from == null ? Long.MIN_VALUE : from.getTime(),
+                                               to == null ? Long.MAX_VALUE : to.getTime(),
+                                               percentiles);
+    }
+
+}
@@ -0,0 +1,23 @@
+package com.capgemini.wsb.fitnesstracker.analytics.internal;
+
+/**
+ * Numeric attribute of a training which can be aggregated by the {@link ColumnarTrainingStore}.
+ */
+public enum AnalyticsMetric {
+
+    /**
+     * Distance of the training.
+     */
+    DISTANCE,
+
+    /**
+     * Average speed of the training.
+     */
+    AVERAGE_SPEED,
+
+    /**
+     * Duration of the training in milliseconds.
+     */
+    DURATION
+
+}
@@ -0,0 +1,344 @@
+package com.capgemini.wsb.fitnesstracker.analytics.internal;
+
+import com.capgemini.wsb.fitnesstracker.exception.api.BusinessException;
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingDistanceChangedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingMetrics;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingProvider;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingsCreatedEvent;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import jakarta.annotation.Nullable;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory column store of the numeric attributes of all trainings, used for ad-hoc analytics.
+ * Trainings are partitioned by activity type; every partition keeps its attributes in primitive arrays
+ * (epoch millis of start and end, distance, average speed), so filters and aggregates run as plain loops
+ * without boxing or entity hydration.
+ * The store is loaded on application startup and afterwards maintained from committed training writes.
+ * Distance changes committed during a load are applied at once and replayed after it, as the load may have read
+ * their trainings before the change and appended them only afterwards.
+ * Active with {@code analytics.columnar.enabled=true}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "analytics.columnar.enabled", havingValue = "true")
+class ColumnarTrainingStore {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final TrainingProvider trainingProvider;
+
+    private final Partition[] partitions = createPartitions();
+
+    /**
+     * Distance changes received during the running load, in the order of arrival, or {@code null} if no load is running.
+     * Guarded by the monitor of the store.
+     */
+    @Nullable
+    private volatile List<TrainingDistanceChangedEvent> changedDuringLoad = new ArrayList<>();
+
+    /**
+     * Loads the metrics of all trainings stored in the database.
+     * Trainings already appended from a concurrent write are skipped.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        synchronized (this) {
+            if (changedDuringLoad == null) {
+                changedDuringLoad = new ArrayList<>();
+            }
+        }
+        trainingProvider.streamTrainingMetrics(this::append);
+        synchronized (this) {
+            // changes arriving from now on wait for the replay, so an older distance never overwrites a newer one
+            changedDuringLoad.forEach(this::setDistance);
+            changedDuringLoad = null;
+        }
+        log.info("Loaded {} trainings into the columnar store", Arrays.stream(partitions).mapToInt(Partition::size).sum());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTrainingsCreated(TrainingsCreatedEvent event) {
+        for (Training training : event.trainings()) {
+            append(TrainingMetrics.of(training));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTrainingDistanceChanged(TrainingDistanceChangedEvent event) {
+        if (changedDuringLoad != null) {
+            synchronized (this) {
+                List<TrainingDistanceChangedEvent> changes = changedDuringLoad;
+                if (changes != null) {
+                    changes.add(event);
+                    setDistance(event);
+                    return;
+                }
+            }
+        }
+        setDistance(event);
+    }
+
+    /**
+     * Aggregates the metric over the trainings started within the time range.
+     *
+     * @param metric       the metric to be aggregated
+     * @param activityType the activity type of the trainings, {@code null} for all activities
+     * @param from         the inclusive lower bound of the start time in epoch millis
+     * @param to           the exclusive upper bound of the start time in epoch millis
+     * @param percentiles  the percentiles to be computed, each within {@code (0, 100]}
+     * @return the aggregate of the metric
+     * @throws BusinessException if any of the percentiles is out of range
+     */
+    TrainingAggregateDto aggregate(AnalyticsMetric metric,
+                                   @Nullable ActivityType activityType,
+                                   long from,
+                                   long to,
+                                   List<Double> percentiles) {
+        for (double percentile : percentiles) {
+            if (!(percentile > 0 && percentile <= 100)) {
+                throw new BusinessException("Percentile has to be within (0, 100], was %s".formatted(percentile));
+            }
+        }
+        List<Partition> selected = activityType == null
+                ? Arrays.asList(partitions)
+                : List.of(partitions[activityType.ordinal()]);
+
+        if (percentiles.isEmpty()) {
+            long count = 0;
+            double sum = 0;
+            for (Partition partition : selected) {
+                double[] countAndSum = partition.sum(metric, from, to);
+                count += (long) countAndSum[0];
+                sum += countAndSum[1];
+            }
+            return new TrainingAggregateDto(metric, activityType, count, sum, count == 0 ? 0 : sum / count, Map.of());
+        }
+
+        List<double[]> selections = new ArrayList<>(selected.size());
+        int count = 0;
+        for (Partition partition : selected) {
+            double[] values = partition.select(metric, from, to);
+            selections.add(values);
+            count += values.length;
+        }
+        double[] values = new double[count];
+        int offset = 0;
+        double sum = 0;
+        for (double[] selection : selections) {
+            System.arraycopy(selection, 0, values, offset, selection.length);
+            offset += selection.length;
+        }
+        for (double value : values) {
+            sum += value;
+        }
+        Arrays.sort(values);
+        Map<Double, Double> percentileValues = new LinkedHashMap<>();
+        for (double percentile : percentiles) {
+            // nearest-rank method
+            percentileValues.put(percentile, count == 0 ? 0 : values[(int) Math.ceil(percentile / 100 * count) - 1]);
+        }
+        return new TrainingAggregateDto(metric, activityType, count, sum, count == 0 ? 0 : sum / count, percentileValues);
+    }
+
+    private void setDistance(TrainingDistanceChangedEvent event) {
+        Training training = event.training();
+        partitions[training.getActivityType().ordinal()].setDistance(training.getId(), training.getDistance());
+    }
+
+    private void append(TrainingMetrics metrics) {
+        partitions[metrics.activityType().ordinal()].append(metrics);
+    }
+
+    private static Partition[] createPartitions() {
+        Partition[] partitions = new Partition[ActivityType.values().length];
+        for (int i = 0; i < partitions.length; i++) {
+            partitions[i] = new Partition();
+        }
+        return partitions;
+    }
+
+    /**
+     * Columns of the trainings of a single activity type.
+     * Rows are appended in the order of arrival, which is not the order of IDs; the row of a training is located
+     * through an open-addressing index of the IDs column, kept at most half full, so no row is boxed.
+     */
+    private static final class Partition {
+
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+        private long[] ids = new long[INITIAL_CAPACITY];
+
+        /**
+         * Slots of the ID index holding the row number plus one, {@code 0} marks a free slot.
+         */
+        private int[] rowIndex = new int[INITIAL_CAPACITY * 2];
+
+        private long[] startTimes = new long[INITIAL_CAPACITY];
+
+        private long[] endTimes = new long[INITIAL_CAPACITY];
+
+        private double[] distances = new double[INITIAL_CAPACITY];
+
+        private double[] averageSpeeds = new double[INITIAL_CAPACITY];
+
+        private int size;
+
+        void append(TrainingMetrics metrics) {
+            lock.writeLock().lock();
+            try {
+                if (findRow(metrics.id()) >= 0) {
+                    return;
+                }
+                if (size == startTimes.length) {
+                    int capacity = size * 2;
+                    ids = Arrays.copyOf(ids, capacity);
+                    startTimes = Arrays.copyOf(startTimes, capacity);
+                    endTimes = Arrays.copyOf(endTimes, capacity);
+                    distances = Arrays.copyOf(distances, capacity);
+                    averageSpeeds = Arrays.copyOf(averageSpeeds, capacity);
+                    rowIndex = new int[capacity * 2];
+                    for (int row = 0; row < size; row++) {
+                        indexRow(row);
+                    }
+                }
+                ids[size] = metrics.id();
+                indexRow(size);
+                startTimes[size] = metrics.startTime().getTime();
+                endTimes[size] = metrics.endTime().getTime();
+                distances[size] = metrics.distance();
+                averageSpeeds[size] = metrics.averageSpeed();
+                size++;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void setDistance(long id, double distance) {
+            lock.writeLock().lock();
+            try {
+                int row = findRow(id);
+                if (row >= 0) {
+                    distances[row] = distance;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private int findRow(long id) {
+            int mask = rowIndex.length - 1;
+            for (int slot = slot(id, mask); rowIndex[slot] != 0; slot = (slot + 1) & mask) {
+                int row = rowIndex[slot] - 1;
+                if (ids[row] == id) {
+                    return row;
+                }
+            }
+            return -1;
+        }
+
+        private void indexRow(int row) {
+            int mask = rowIndex.length - 1;
+            int slot = slot(ids[row], mask);
+            while (rowIndex[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            rowIndex[slot] = row + 1;
+        }
+
+        /**
+         * Spreads the sequential IDs over the slots by Fibonacci hashing.
+         */
+        private static int slot(long id, int mask) {
+            return (int) ((id * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+        }
+
+        int size() {
+            lock.readLock().lock();
+            try {
+                return size;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        /**
+         * Counts and sums the metric of the rows started within the time range.
+         *
+         * @return two-element array of the count and the sum
+         */
+        double[] sum(AnalyticsMetric metric, long from, long to) {
+            lock.readLock().lock();
+            try {
+                long count = 0;
+                double sum = 0;
+                if (metric == AnalyticsMetric.DURATION) {
+                    for (int i = 0; i < size; i++) {
+                        if (startTimes[i] >= from && startTimes[i] < to) {
+                            count++;
+                            sum += endTimes[i] - startTimes[i];
+                        }
+                    }
+                } else {
+                    double[] column = metric == AnalyticsMetric.DISTANCE ? distances : averageSpeeds;
+                    for (int i = 0; i < size; i++) {
+                        if (startTimes[i] >= from && startTimes[i] < to) {
+                            count++;
+                            sum += column[i];
+                        }
+                    }
+                }
+                return new double[]{count, sum};
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        /**
+         * Copies the metric of the rows started within the time range.
+         *
+         * @return the values of the metric, in row order
+         */
+        double[] select(AnalyticsMetric metric, long from, long to) {
+            lock.readLock().lock();
+            try {
+                double[] values = new double[size];
+                int count = 0;
+                if (metric == AnalyticsMetric.DURATION) {
+                    for (int i = 0; i < size; i++) {
+                        if (startTimes[i] >= from && startTimes[i] < to) {
+                            values[count++] = endTimes[i] - startTimes[i];
+                        }
+                    }
+                } else {
+                    double[] column = metric == AnalyticsMetric.DISTANCE ? distances : averageSpeeds;
+                    for (int i = 0; i < size; i++) {
+                        if (startTimes[i] >= from && startTimes[i] < to) {
+                            values[count++] = column[i];
+                        }
+                    }
+                }
+                return Arrays.copyOf(values, count);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+    }
+
+}
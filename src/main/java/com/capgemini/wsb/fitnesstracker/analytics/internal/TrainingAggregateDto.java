@@ -0,0 +1,25 @@
+package com.capgemini.wsb.fitnesstracker.analytics.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import jakarta.annotation.Nullable;
+
+import java.util.Map;
+
+/**
+ * Record representing a DTO (Data Transfer Object) for an aggregate of a single metric over the matching trainings.
+ *
+ * @param metric       the aggregated metric
+ * @param activityType the activity type of the aggregated trainings, {@code null} for all activities
+ * @param count        the number of matching trainings
+ * @param sum          the sum of the metric
+ * @param average      the average of the metric, {@code 0} if no training matched
+ * @param percentiles  the requested percentiles of the metric, keyed by the percentile
+ */
+record TrainingAggregateDto(AnalyticsMetric metric,
+                            @Nullable ActivityType activityType,
+                            long count,
+                            double sum,
+                            double average,
+                            Map<Double, Double> percentiles) {
+
+}
@@ -0,0 +1,20 @@
+package com.capgemini.wsb.fitnesstracker.mail.api;
+
+import java.util.Collection;
+
+/**
+ * API interface of the transactional outbox of emails.
+ * Emails are written to the outbox within the transaction of the change that triggers them, so they are sent if and only if the change is committed.
+ * The outbox is drained asynchronously, with retries, by any number of application nodes.
+ */
+public interface EmailOutbox {
+
+    /**
+     * Writes the emails to the outbox within the current transaction.
+     *
+     * @param emails information on emails to be sent
+     * @throws org.springframework.transaction.IllegalTransactionStateException if there is no active transaction
+     */
+    void enqueue(Collection<EmailDto> emails);
+
+}
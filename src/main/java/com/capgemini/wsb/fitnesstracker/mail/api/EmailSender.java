@@ -1,5 +1,7 @@
 package com.capgemini.wsb.fitnesstracker.mail.api;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * API interface for component responsible for sending emails.
  */
@@ -7,9 +9,18 @@ public interface EmailSender {
 
     /**
      * Sends the email message to the recipient from the provided {@link EmailDto}.
+     * Implementations may send the email asynchronously, in which case delivery failures are not reported to the caller.
      *
      * @param email information on email to be sent
      */
     void send(EmailDto email);
 
+    /**
+     * Sends the email message to the recipient from the provided {@link EmailDto} asynchronously.
+     *
+     * @param email information on email to be sent
+     * @return a future completed once the email has been accepted by the mail server, or completed exceptionally if sending failed
+     */
+    CompletableFuture<Void> sendAsync(EmailDto email);
+
 }
@@ -0,0 +1,89 @@
+package com.capgemini.wsb.fitnesstracker.mail.internal;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Concurrency limit adjusted by additive increase and multiplicative decrease (AIMD).
+ * Every send completed within the target latency grows the limit by {@code 1 / limit}, i.e. by about one per round
+ * of sends; a slow or failed send shrinks it by the backoff ratio, at most once per target latency, so a single
+ * burst of slow sends counts as one congestion signal.
+ */
+final class AdaptiveConcurrencyLimit {
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final long targetLatencyNanos;
+
+    private final double backoffRatio;
+
+    private final LongSupplier nanoClock;
+
+    private double limit;
+
+    private long decreasedAt;
+
+    AdaptiveConcurrencyLimit(final int minLimit,
+                             final int maxLimit,
+                             final int initialLimit,
+                             final long targetLatencyNanos,
+                             final double backoffRatio) {
+        this(minLimit, maxLimit, initialLimit, targetLatencyNanos, backoffRatio, System::nanoTime);
+    }
+
+    AdaptiveConcurrencyLimit(final int minLimit,
+                             final int maxLimit,
+                             final int initialLimit,
+                             final long targetLatencyNanos,
+                             final double backoffRatio,
+                             final LongSupplier nanoClock) {
+        if (minLimit < 1 || maxLimit < minLimit || backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("Concurrency limit needs 1 <= min <= max and a backoff ratio between 0 and 1");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetLatencyNanos = targetLatencyNanos;
+        this.backoffRatio = backoffRatio;
+        this.nanoClock = nanoClock;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.decreasedAt = nanoClock.getAsLong() - targetLatencyNanos;
+    }
+
+    /**
+     * @return the current number of sends allowed to be in flight
+     */
+    synchronized int limit() {
+        return (int) limit;
+    }
+
+    /**
+     * Adjusts the limit after a successful send.
+     *
+     * @param latencyNanos the time between handing the email off and its acceptance by the mail server
+     */
+    synchronized void onSuccess(final long latencyNanos) {
+        if (latencyNanos > targetLatencyNanos) {
+            decrease();
+        } else {
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+    }
+
+    /**
+     * Shrinks the limit after a send failed because the mail server is unavailable or overloaded.
+     */
+    synchronized void onOverload() {
+        decrease();
+    }
+
+    private void decrease() {
+        long now = nanoClock.getAsLong();
+        if (now - decreasedAt < targetLatencyNanos) {
+            return;
+        }
+        decreasedAt = now;
+        limit = Math.max(minLimit, limit * backoffRatio);
+    }
+
+}
@@ -0,0 +1,211 @@
+package com.capgemini.wsb.fitnesstracker.mail.internal;
+
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailDto;
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailSender;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Implementation of the {@link EmailSender} handing the emails off to a bounded queue, drained by a single background thread.
+ * The drainer sends the queued emails in batches of up to {@link AsyncMailProperties#batchSize()} messages,
+ * each batch over a single SMTP connection. Callers are blocked while the queue is full, up to {@link AsyncMailProperties#offerTimeout()}.
+ * Queue depth ({@code mail.queue.depth}), send latency ({@code mail.send.latency}), sent ({@code mail.sent})
+ * and failed ({@code mail.send.failures}) emails are published as metrics.
+ */
+@Component
+@Slf4j
+class AsyncEmailSender implements EmailSender {
+
+    private final JavaMailSender javaMailSender;
+
+    private final MailProperties mailProperties;
+
+    private final AsyncMailProperties asyncMailProperties;
+
+    private final BlockingQueue<PendingEmail> queue;
+
+    private final Timer sendLatency;
+
+    private final Counter sentCounter;
+
+    private final Counter failureCounter;
+
+    private final Thread drainer = new Thread(this::drain, "email-sender");
+
+    private volatile boolean running = true;
+
+    AsyncEmailSender(JavaMailSender javaMailSender,
+                     MailProperties mailProperties,
+                     AsyncMailProperties asyncMailProperties,
+                     MeterRegistry meterRegistry) {
+        this.javaMailSender = javaMailSender;
+        this.mailProperties = mailProperties;
+        this.asyncMailProperties = asyncMailProperties;
+        this.queue = new ArrayBlockingQueue<>(asyncMailProperties.queueCapacity());
+        this.sendLatency = meterRegistry.timer("mail.send.latency");
+        this.sentCounter = meterRegistry.counter("mail.sent");
+        this.failureCounter = meterRegistry.counter("mail.send.failures");
+        meterRegistry.gauge("mail.queue.depth", queue, BlockingQueue::size);
+    }
+
+    @PostConstruct
+    void start() {
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+
+    /**
+     * Stops accepting new emails and sends the queued ones before the application context is closed.
+     * Emails still queued once the drainer has not finished within {@link AsyncMailProperties#offerTimeout()} are failed.
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        drainer.interrupt();
+        drainer.join(asyncMailProperties.offerTimeout().toMillis());
+        List<PendingEmail> leftovers = new ArrayList<>();
+        queue.drainTo(leftovers);
+        if (!leftovers.isEmpty()) {
+            log.warn("Email sender stopped with {} emails not sent", leftovers.size());
+            leftovers.forEach(pending -> fail(pending, new IllegalStateException("Email sender has been stopped")));
+        }
+    }
+
+    @Override
+    public void send(EmailDto email) {
+        sendAsync(email).exceptionally(e -> {
+            log.warn("Email to {} could not be sent", email.toAddress(), e);
+            return null;
+        });
+    }
+
+    /**
+     * Queues the email for sending, waiting for a free slot while the queue is full.
+     *
+     * @param email information on email to be sent
+     * @return a future completed once the email has been accepted by the mail server
+     * @throws EmailQueueFullException if the queue stays full for the whole offer timeout
+     */
+    @Override
+    public CompletableFuture<Void> sendAsync(EmailDto email) {
+        if (!running) {
+            throw new IllegalStateException("Email sender has been stopped");
+        }
+        PendingEmail pending = new PendingEmail(email, new CompletableFuture<>(), System.nanoTime());
+        try {
+            if (!queue.offer(pending, asyncMailProperties.offerTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new EmailQueueFullException("Email queue is full, email to %s rejected".formatted(email.toAddress()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new EmailQueueFullException("Interrupted while queueing email to %s".formatted(email.toAddress()));
+        }
+        if (!running && queue.remove(pending)) {
+            // stopped while queueing, the drainer may have exited already
+            throw new IllegalStateException("Email sender has been stopped");
+        }
+        return pending.future();
+    }
+
+    private void drain() {
+        List<PendingEmail> batch = new ArrayList<>(asyncMailProperties.batchSize());
+        while (running || !queue.isEmpty()) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                // stop() interrupts the blocked drainer, the remaining emails are sent by the loop condition
+                continue;
+            }
+            queue.drainTo(batch, asyncMailProperties.batchSize() - 1);
+            try {
+                sendBatch(batch);
+            } catch (RuntimeException e) {
+                // the drainer must survive any failure, emails of the batch not completed yet are failed
+                batch.stream().filter(pending -> !pending.future().isDone()).forEach(pending -> fail(pending, e));
+            }
+            batch.clear();
+        }
+    }
+
+    private void sendBatch(List<PendingEmail> batch) {
+        List<PendingEmail> prepared = new ArrayList<>(batch.size());
+        List<MimeMessage> messages = new ArrayList<>(batch.size());
+        for (PendingEmail pending : batch) {
+            try {
+                messages.add(toMimeMessage(pending.email()));
+                prepared.add(pending);
+            } catch (MessagingException | RuntimeException e) {
+                fail(pending, e);
+            }
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+        Map<Object, Exception> failedMessages = Map.of();
+        try {
+            // a single call opens one connection for all messages of the batch
+            javaMailSender.send(messages.toArray(MimeMessage[]::new));
+        } catch (MailSendException e) {
+            failedMessages = e.getFailedMessages();
+            if (failedMessages.isEmpty()) {
+                prepared.forEach(pending -> fail(pending, e));
+                return;
+            }
+        } catch (RuntimeException e) {
+            prepared.forEach(pending -> fail(pending, e));
+            return;
+        }
+        for (int i = 0; i < prepared.size(); i++) {
+            PendingEmail pending = prepared.get(i);
+            Exception failure = failedMessages.get(messages.get(i));
+            if (failure != null) {
+                fail(pending, failure);
+            } else {
+                sendLatency.record(System.nanoTime() - pending.queuedAt(), TimeUnit.NANOSECONDS);
+                sentCounter.increment();
+                pending.future().complete(null);
+            }
+        }
+    }
+
+    private MimeMessage toMimeMessage(EmailDto email) throws MessagingException {
+        MimeMessage message = javaMailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, "UTF-8");
+        helper.setFrom(mailProperties.getFrom());
+        helper.setTo(email.toAddress());
+        helper.setSubject(email.subject());
+        helper.setText(email.content());
+        return message;
+    }
+
+    private void fail(PendingEmail pending, Exception e) {
+        failureCounter.increment();
+        pending.future().completeExceptionally(e);
+    }
+
+    /**
+     * Email waiting in the queue, with the future completed once it is sent.
+     */
+    private record PendingEmail(EmailDto email, CompletableFuture<Void> future, long queuedAt) {
+
+    }
+
+}
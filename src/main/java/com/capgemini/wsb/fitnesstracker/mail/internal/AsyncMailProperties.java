@@ -0,0 +1,20 @@
+package com.capgemini.wsb.fitnesstracker.mail.internal;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the {@link AsyncEmailSender}.
+ *
+ * @param queueCapacity maximal number of emails waiting to be sent
+ * @param batchSize     maximal number of emails sent over a single SMTP connection
+ * @param offerTimeout  time the caller waits for a free slot when the queue is full, before the email is rejected
+ */
+@ConfigurationProperties(prefix = "mail.async")
+record AsyncMailProperties(@DefaultValue("10000") int queueCapacity,
+                           @DefaultValue("100") int batchSize,
+                           @DefaultValue("5s") Duration offerTimeout) {
+
+}
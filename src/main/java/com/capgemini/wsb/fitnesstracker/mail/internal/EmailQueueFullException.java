@@ -0,0 +1,17 @@
+package com.capgemini.wsb.fitnesstracker.mail.internal;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception indicating that the email could not be queued for sending, because the queue stayed full for the whole offer timeout.
+ * Will resolve to the {@link HttpStatus#SERVICE_UNAVAILABLE} if handled by the Spring's exception handler.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+class EmailQueueFullException extends RuntimeException {
+
+    EmailQueueFullException(String message) {
+        super(message);
+    }
+
+}
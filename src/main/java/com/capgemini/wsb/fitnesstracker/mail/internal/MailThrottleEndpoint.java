@@ -0,0 +1,25 @@
+package com.capgemini.wsb.fitnesstracker.mail.internal;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint ({@code /actuator/mailthrottle}) reporting the current rate, concurrency and backlog of outgoing emails.
+ */
+@Component
+@Endpoint(id = "mailthrottle")
+@ConditionalOnProperty(prefix = "mail.throttle", name = "enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class MailThrottleEndpoint {
+
+    private final ThrottlingEmailSender throttlingEmailSender;
+
+    @ReadOperation
+    public MailThrottleStatus status() {
+        return throttlingEmailSender.status();
+    }
+
+}
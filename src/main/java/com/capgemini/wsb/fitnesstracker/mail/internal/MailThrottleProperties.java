@@ -0,0 +1,56 @@
+package com.capgemini.wsb.fitnesstracker.mail.internal;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the {@link ThrottlingEmailSender}, the limits of the SMTP relay configured by {@code spring.mail}.
+ * The rate and burst are the limits of the relay shared by the whole cluster; every node enforces only its share
+ * of them, so the nodes together never exceed the limits of the relay.
+ *
+ * @param enabled            whether outgoing emails are throttled at all
+ * @param permitsPerSecond   sustained number of emails per second accepted by the relay from the whole cluster
+ * @param burst              maximal number of emails sent at once by the whole cluster after an idle period
+ * @param nodes              number of nodes sending emails through the relay, each of them enforcing an equal share of the limits
+ * @param backlogCapacity    maximal number of emails waiting for a permit
+ * @param initialConcurrency number of emails allowed to be in flight at startup
+ * @param minConcurrency     lower bound of the adaptive number of emails in flight
+ * @param maxConcurrency     upper bound of the adaptive number of emails in flight
+ * @param targetLatency      send latency above which the number of emails in flight is reduced
+ * @param backoffRatio       factor the number of emails in flight is multiplied by on slow or failed sends
+ */
+@ConfigurationProperties(prefix = "mail.throttle")
+record MailThrottleProperties(@DefaultValue("true") boolean enabled,
+                              @DefaultValue("10") double permitsPerSecond,
+                              @DefaultValue("20") int burst,
+                              @DefaultValue("1") int nodes,
+                              @DefaultValue("10000") int backlogCapacity,
+                              @DefaultValue("20") int initialConcurrency,
+                              @DefaultValue("1") int minConcurrency,
+                              @DefaultValue("200") int maxConcurrency,
+                              @DefaultValue("2s") Duration targetLatency,
+                              @DefaultValue("0.75") double backoffRatio) {
+
+    MailThrottleProperties {
+        if (nodes < 1) {
+            throw new IllegalArgumentException("Email throttling needs at least one node sharing the relay");
+        }
+    }
+
+    /**
+     * @return the sustained number of emails per second this node may send
+     */
+    double nodePermitsPerSecond() {
+        return permitsPerSecond / nodes;
+    }
+
+    /**
+     * @return the number of emails this node may send at once, at least one so every node can make progress
+     */
+    int nodeBurst() {
+        return Math.max(1, burst / nodes);
+    }
+
+}
@@ -0,0 +1,24 @@
+package com.capgemini.wsb.fitnesstracker.mail.internal;
+
+/**
+ * Current state of the {@link ThrottlingEmailSender}, exposed by the {@link MailThrottleEndpoint}.
+ *
+ * @param permitsPerSecond sustained rate enforced by this node, its share of the rate of the relay
+ * @param burst            capacity of the token bucket of this node, its share of the burst of the relay
+ * @param nodes            number of nodes sharing the relay
+ * @param availableTokens  tokens currently available for immediate sends
+ * @param dispatchRate     emails handed off per second, measured over the last second
+ * @param concurrencyLimit current adaptive number of emails allowed in flight
+ * @param inFlight         emails handed off and not yet accepted or rejected by the relay
+ * @param backlog          emails waiting for a permit
+ */
+public record MailThrottleStatus(double permitsPerSecond,
+                                 int burst,
+                                 int nodes,
+                                 double availableTokens,
+                                 double dispatchRate,
+                                 int concurrencyLimit,
+                                 int inFlight,
+                                 int backlog) {
+
+}
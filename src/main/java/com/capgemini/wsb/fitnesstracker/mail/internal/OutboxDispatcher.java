@@ -0,0 +1,216 @@
+package com.capgemini.wsb.fitnesstracker.mail.internal;
+
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailSender;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.Nullable;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Drains the transactional outbox of emails.
+ * Every poll claims a batch of due emails with {@code SELECT ... FOR UPDATE SKIP LOCKED} and leases them to this node
+ * by a conditional update, sending only the emails it has actually leased, so any number of nodes drain the outbox
+ * in parallel without sending an email twice, even where the database waits for locked rows instead of skipping them.
+ * A poll claims at most a single batch, and only as many emails as the emails still in flight leave room for, so the send queues
+ * never hold more than {@link OutboxProperties#batchSize()} emails of this node. Deliveries are recorded once they complete,
+ * without the poll waiting for them; the leases of the emails in flight are extended by the polls, so an email waiting in the
+ * send queues is never claimed again. Results are recorded only while this node still holds the lease.
+ * Polls and results run on a thread of the dispatcher, so slow deliveries never hold up the shared scheduler thread.
+ * Failed emails are retried with exponential backoff and dead-lettered after {@link OutboxProperties#maxAttempts()} attempts.
+ */
+@Component
+@Slf4j
+class OutboxDispatcher {
+
+    private final OutboxEmailRepository outboxEmailRepository;
+
+    private final EmailSender emailSender;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final OutboxProperties properties;
+
+    private final String node = UUID.randomUUID().toString();
+
+    private final Counter sentCounter;
+
+    private final Counter retriedCounter;
+
+    private final Counter deadCounter;
+
+    /**
+     * Emails handed off to the sender whose delivery has not been recorded yet, by ID.
+     */
+    private final Map<Long, OutboxEmail> inFlight = new ConcurrentHashMap<>();
+
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "mail-outbox");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicBoolean pollQueued = new AtomicBoolean();
+
+    private long leaseRenewedAt = System.nanoTime();
+
+    OutboxDispatcher(OutboxEmailRepository outboxEmailRepository,
+                     EmailSender emailSender,
+                     TransactionTemplate transactionTemplate,
+                     OutboxProperties properties,
+                     MeterRegistry meterRegistry) {
+        this.outboxEmailRepository = outboxEmailRepository;
+        this.emailSender = emailSender;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.sentCounter = meterRegistry.counter("mail.outbox.sent");
+        this.retriedCounter = meterRegistry.counter("mail.outbox.retried");
+        this.deadCounter = meterRegistry.counter("mail.outbox.dead");
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        worker.shutdown();
+        // results not recorded in time are left to the lease expiry
+        worker.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Hands a poll off to the thread of the dispatcher, unless one is already waiting for it.
+     */
+    @Scheduled(fixedDelayString = "${mail.outbox.poll-interval:PT1S}")
+    public void dispatch() {
+        if (pollQueued.compareAndSet(false, true)) {
+            worker.execute(() -> {
+                pollQueued.set(false);
+                poll();
+            });
+        }
+    }
+
+    /**
+     * Extends the leases of the emails in flight when due, then claims and sends a single batch of due emails.
+     */
+    void poll() {
+        try {
+            renewLeasesIfDue();
+            int free = properties.batchSize() - inFlight.size();
+            if (free > 0) {
+                send(claim(free));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Polling the email outbox failed", e);
+        }
+    }
+
+    private List<OutboxEmail> claim(int limit) {
+        return transactionTemplate.execute(status -> {
+            Instant now = Instant.now();
+            List<Long> ids = outboxEmailRepository.findClaimable(now, PageRequest.ofSize(limit))
+                                                  .stream()
+                                                  .map(OutboxEmail::getId)
+                                                  .filter(id -> !inFlight.containsKey(id))
+                                                  .toList();
+            if (ids.isEmpty() || outboxEmailRepository.lease(ids, node, now, now.plus(properties.lease())) == 0) {
+                return List.of();
+            }
+            // only the emails whose lease has actually been taken by this node are sent
+            return outboxEmailRepository.findByIdInAndLockedByOrderByIdAsc(ids, node);
+        });
+    }
+
+    private void send(List<OutboxEmail> emails) {
+        for (OutboxEmail email : emails) {
+            inFlight.put(email.getId(), email);
+            CompletableFuture<Void> delivery;
+            try {
+                delivery = emailSender.sendAsync(email.toEmailDto());
+            } catch (RuntimeException e) {
+                delivery = CompletableFuture.failedFuture(e);
+            }
+            delivery.whenCompleteAsync((ignored, failure) -> record(email, failure), worker);
+        }
+    }
+
+    private void record(OutboxEmail email, @Nullable Throwable failure) {
+        try {
+            if (failure == null) {
+                recordSent(email);
+            } else {
+                recordFailure(email, failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Result of email {} not recorded, it is claimed again once its lease expires", email.getId(), e);
+        } finally {
+            inFlight.remove(email.getId());
+        }
+    }
+
+    private void renewLeasesIfDue() {
+        if (inFlight.isEmpty() || System.nanoTime() - leaseRenewedAt < properties.lease().toNanos() / 2) {
+            return;
+        }
+        // the emails may still be sent from the queues, so they stay leased instead of being retried
+        List<Long> ids = List.copyOf(inFlight.keySet());
+        Integer renewed = transactionTemplate.execute(status -> outboxEmailRepository.renewLease(ids, node, Instant.now().plus(properties.lease())));
+        leaseRenewedAt = System.nanoTime();
+        if (renewed == null || renewed < ids.size()) {
+            log.warn("Lease of {} of {} pending emails has been lost", ids.size() - (renewed == null ? 0 : renewed), ids.size());
+        }
+    }
+
+    private void recordSent(OutboxEmail email) {
+        Integer updated = transactionTemplate.execute(status -> outboxEmailRepository.markSent(email.getId(), node));
+        if (updated == null || updated == 0) {
+            log.warn("Email {} to {} was sent after its lease had been lost", email.getId(), email.getToAddress());
+            return;
+        }
+        sentCounter.increment();
+    }
+
+    private void recordFailure(OutboxEmail email, Throwable cause) {
+        int attempts = email.getAttempts() + 1;
+        boolean dead = attempts >= properties.maxAttempts();
+        Instant nextAttemptAt = Instant.now().plus(backoff(attempts));
+        String error = String.valueOf(cause.getMessage());
+        Integer updated = transactionTemplate.execute(status -> outboxEmailRepository.markFailed(email.getId(),
+                                                                                                node,
+                                                                                                dead ? OutboxEmailStatus.DEAD : OutboxEmailStatus.PENDING,
+                                                                                                nextAttemptAt,
+                                                                                                error.length() > 1000 ? error.substring(0, 1000) : error));
+        if (updated == null || updated == 0) {
+            log.warn("Failure of email {} to {} not recorded, its lease has been lost", email.getId(), email.getToAddress(), cause);
+            return;
+        }
+        if (dead) {
+            deadCounter.increment();
+            log.error("Email {} to {} dead-lettered after {} attempts", email.getId(), email.getToAddress(), attempts, cause);
+        } else {
+            retriedCounter.increment();
+            log.warn("Email {} to {} failed (attempt {}), retrying at {}", email.getId(), email.getToAddress(), attempts, nextAttemptAt, cause);
+        }
+    }
+
+    private Duration backoff(int attempts) {
+        Duration backoff = properties.initialBackoff().multipliedBy(1L << Math.min(attempts - 1, 30));
+        return backoff.compareTo(properties.maxBackoff()) > 0 ? properties.maxBackoff() : backoff;
+    }
+
+}
@@ -0,0 +1,134 @@
+package com.capgemini.wsb.fitnesstracker.mail.internal;
+
+import jakarta.annotation.Nullable;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+import static org.hibernate.cfg.AvailableSettings.JAKARTA_LOCK_TIMEOUT;
+
+/**
+ * Repository interface for {@link OutboxEmail} entities.
+ */
+interface OutboxEmailRepository extends JpaRepository<OutboxEmail, Long> {
+
+    /**
+     * Finds and locks pending emails due for delivery and not leased by any node, ordered by ID.
+     * Rows locked by concurrent claims are skipped ({@code FOR UPDATE SKIP LOCKED}) instead of waited for.
+     *
+     * @param now      the current time
+     * @param pageable page size of the result, only the first page is expected
+     * @return a list of locked emails
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = JAKARTA_LOCK_TIMEOUT, value = "-2"))
+    @Query("""
+            select e from OutboxEmail e
+            where e.status = com.capgemini.wsb.fitnesstracker.mail.internal.OutboxEmailStatus.PENDING
+              and e.nextAttemptAt <= :now
+              and (e.lockedUntil is null or e.lockedUntil < :now)
+            order by e.id
+            """)
+    List<OutboxEmail> findClaimable(@Param("now") Instant now, Pageable pageable);
+
+    /**
+     * Leases the emails to the node, unless they have been leased by another node or completed in the meantime.
+     * The conditions are checked again by the update itself, as not every database skips the rows locked by concurrent claims.
+     *
+     * @param ids         the IDs of the emails
+     * @param node        the identifier of the node
+     * @param now         the current time
+     * @param lockedUntil the expiration of the lease
+     * @return the number of leased emails
+     */
+    @Modifying
+    @Query("""
+            update OutboxEmail e
+            set e.lockedBy = :node, e.lockedUntil = :lockedUntil
+            where e.id in :ids
+              and e.status = com.capgemini.wsb.fitnesstracker.mail.internal.OutboxEmailStatus.PENDING
+              and (e.lockedUntil is null or e.lockedUntil < :now)
+            """)
+    int lease(@Param("ids") Collection<Long> ids,
+              @Param("node") String node,
+              @Param("now") Instant now,
+              @Param("lockedUntil") Instant lockedUntil);
+
+    /**
+     * Finds the emails among the given ones which are leased by the node, ordered by ID.
+     *
+     * @param ids  the IDs of the emails
+     * @param node the identifier of the node
+     * @return a list of emails leased by the node
+     */
+    List<OutboxEmail> findByIdInAndLockedByOrderByIdAsc(Collection<Long> ids, String node);
+
+    /**
+     * Extends the lease of the emails still leased by the node.
+     *
+     * @param ids         the IDs of the emails
+     * @param node        the identifier of the node holding the lease
+     * @param lockedUntil the new expiration of the lease
+     * @return the number of emails whose lease was extended
+     */
+    @Modifying
+    @Query("update OutboxEmail e set e.lockedUntil = :lockedUntil where e.id in :ids and e.lockedBy = :node")
+    int renewLease(@Param("ids") Collection<Long> ids, @Param("node") String node, @Param("lockedUntil") Instant lockedUntil);
+
+    /**
+     * Marks the email leased by the node as sent.
+     *
+     * @param id   the ID of the email
+     * @param node the identifier of the node holding the lease
+     * @return {@code 1} if the email was updated, {@code 0} if the lease has been lost
+     */
+    @Modifying
+    @Query("""
+            update OutboxEmail e
+            set e.status = com.capgemini.wsb.fitnesstracker.mail.internal.OutboxEmailStatus.SENT,
+                e.attempts = e.attempts + 1,
+                e.lockedBy = null,
+                e.lockedUntil = null,
+                e.lastError = null
+            where e.id = :id and e.lockedBy = :node
+            """)
+    int markSent(@Param("id") Long id, @Param("node") String node);
+
+    /**
+     * Records a failed delivery attempt of the email leased by the node and releases the lease.
+     *
+     * @param id            the ID of the email
+     * @param node          the identifier of the node holding the lease
+     * @param status        the new status, {@link OutboxEmailStatus#DEAD} once the attempts are exhausted
+     * @param nextAttemptAt the time of the next attempt
+     * @param error         the description of the failure
+     * @return {@code 1} if the email was updated, {@code 0} if the lease has been lost
+     */
+    @Modifying
+    @Query("""
+            update OutboxEmail e
+            set e.status = :status,
+                e.attempts = e.attempts + 1,
+                e.nextAttemptAt = :nextAttemptAt,
+                e.lockedBy = null,
+                e.lockedUntil = null,
+                e.lastError = :error
+            where e.id = :id and e.lockedBy = :node
+            """)
+    int markFailed(@Param("id") Long id,
+                   @Param("node") String node,
+                   @Param("status") OutboxEmailStatus status,
+                   @Param("nextAttemptAt") Instant nextAttemptAt,
+                   @Param("error") @Nullable String error);
+
+}
@@ -0,0 +1,23 @@
+package com.capgemini.wsb.fitnesstracker.mail.internal;
+
+/**
+ * Delivery status of an {@link OutboxEmail}.
+ */
+public enum OutboxEmailStatus {
+
+    /**
+     * Waiting for its (next) delivery attempt.
+     */
+    PENDING,
+
+    /**
+     * Accepted by the mail server.
+     */
+    SENT,
+
+    /**
+     * Given up after the maximal number of delivery attempts.
+     */
+    DEAD
+
+}
@@ -0,0 +1,29 @@
+package com.capgemini.wsb.fitnesstracker.mail.internal;
+
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailDto;
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailOutbox;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Collection;
+
+/**
+ * Implementation of the {@link EmailOutbox} storing the emails in the {@code email_outbox} table, drained by the {@link OutboxDispatcher}.
+ */
+@Service
+@RequiredArgsConstructor
+class OutboxEmailStore implements EmailOutbox {
+
+    private final OutboxEmailRepository outboxEmailRepository;
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(Collection<EmailDto> emails) {
+        Instant now = Instant.now();
+        outboxEmailRepository.saveAll(emails.stream().map(email -> new OutboxEmail(email, now)).toList());
+    }
+
+}
@@ -0,0 +1,24 @@
+package com.capgemini.wsb.fitnesstracker.mail.internal;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the {@link OutboxDispatcher}.
+ *
+ * @param batchSize      maximal number of emails claimed by a single poll, and of emails of the node in flight at once
+ * @param lease          time for which the claimed emails are reserved for the claiming node, extended while their delivery is pending
+ * @param maxAttempts    number of failed delivery attempts after which the email is dead-lettered
+ * @param initialBackoff delay of the first retry, doubled by every following failure
+ * @param maxBackoff     upper bound of the retry delay
+ */
+@ConfigurationProperties(prefix = "mail.outbox")
+record OutboxProperties(@DefaultValue("100") int batchSize,
+                        @DefaultValue("5m") Duration lease,
+                        @DefaultValue("8") int maxAttempts,
+                        @DefaultValue("30s") Duration initialBackoff,
+                        @DefaultValue("1h") Duration maxBackoff) {
+
+}
@@ -0,0 +1,259 @@
+package com.capgemini.wsb.fitnesstracker.mail.internal;
+
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailDto;
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailSender;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.internet.ParseException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.mail.MailParseException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Implementation of the {@link EmailSender} limiting the emails handed off to the {@link AsyncEmailSender}, so the SMTP relay
+ * is not flooded by bursts such as the weekly reports.
+ * Emails wait in a bounded backlog until both a token of the {@link TokenBucket} and a slot of the
+ * {@link AdaptiveConcurrencyLimit} are available. The bucket enforces only this node's share of the sustained rate and burst
+ * of the relay ({@link MailThrottleProperties#nodes()}), so the whole cluster stays within the limits of the relay.
+ * The concurrency limit grows while emails are accepted within the target latency and shrinks when the latency rises
+ * or the relay fails.
+ * Backlog ({@code mail.throttle.backlog}), emails in flight ({@code mail.throttle.in.flight}), the concurrency limit
+ * ({@code mail.throttle.concurrency.limit}) and available tokens ({@code mail.throttle.tokens}) are published as metrics
+ * and by the {@link MailThrottleEndpoint}.
+ */
+@Component
+@Primary
+@ConditionalOnProperty(prefix = "mail.throttle", name = "enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+class ThrottlingEmailSender implements EmailSender {
+
+    private static final long RATE_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final AsyncEmailSender delegate;
+
+    private final MailThrottleProperties properties;
+
+    private final AsyncMailProperties asyncMailProperties;
+
+    private final TokenBucket tokenBucket;
+
+    private final AdaptiveConcurrencyLimit concurrencyLimit;
+
+    private final BlockingQueue<PendingEmail> backlog;
+
+    private final Object slots = new Object();
+
+    private final Thread dispatcher = new Thread(this::dispatch, "email-throttle");
+
+    private int inFlight;
+
+    private volatile boolean running = true;
+
+    private long windowStartedAt = System.nanoTime();
+
+    private int windowDispatched;
+
+    private volatile long lastWindowEndedAt = windowStartedAt;
+
+    private volatile double dispatchRate;
+
+    ThrottlingEmailSender(AsyncEmailSender delegate,
+                          MailThrottleProperties properties,
+                          AsyncMailProperties asyncMailProperties,
+                          MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.properties = properties;
+        this.asyncMailProperties = asyncMailProperties;
+        this.tokenBucket = new TokenBucket(properties.nodePermitsPerSecond(), properties.nodeBurst());
+        this.concurrencyLimit = new AdaptiveConcurrencyLimit(properties.minConcurrency(),
+                                                             properties.maxConcurrency(),
+                                                             properties.initialConcurrency(),
+                                                             properties.targetLatency().toNanos(),
+                                                             properties.backoffRatio());
+        this.backlog = new ArrayBlockingQueue<>(properties.backlogCapacity());
+        meterRegistry.gauge("mail.throttle.backlog", backlog, BlockingQueue::size);
+        meterRegistry.gauge("mail.throttle.in.flight", this, ThrottlingEmailSender::currentInFlight);
+        meterRegistry.gauge("mail.throttle.concurrency.limit", concurrencyLimit, AdaptiveConcurrencyLimit::limit);
+        meterRegistry.gauge("mail.throttle.tokens", tokenBucket, TokenBucket::availableTokens);
+    }
+
+    @PostConstruct
+    void start() {
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    /**
+     * Stops accepting new emails and hands the backlog off before the application context is closed.
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        dispatcher.interrupt();
+        dispatcher.join(asyncMailProperties.offerTimeout().toMillis());
+    }
+
+    @Override
+    public void send(EmailDto email) {
+        sendAsync(email).exceptionally(e -> {
+            log.warn("Email to {} could not be sent", email.toAddress(), e);
+            return null;
+        });
+    }
+
+    /**
+     * Puts the email to the backlog, waiting for a free slot while the backlog is full.
+     *
+     * @param email information on email to be sent
+     * @return a future completed once the email has been accepted by the mail server
+     * @throws EmailQueueFullException if the backlog stays full for the whole offer timeout
+     */
+    @Override
+    public CompletableFuture<Void> sendAsync(EmailDto email) {
+        if (!running) {
+            throw new IllegalStateException("Email sender has been stopped");
+        }
+        PendingEmail pending = new PendingEmail(email, new CompletableFuture<>());
+        try {
+            if (!backlog.offer(pending, asyncMailProperties.offerTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new EmailQueueFullException("Email backlog is full, email to %s rejected".formatted(email.toAddress()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new EmailQueueFullException("Interrupted while queueing email to %s".formatted(email.toAddress()));
+        }
+        return pending.future();
+    }
+
+    /**
+     * @return the current rate, concurrency and backlog of the sender
+     */
+    MailThrottleStatus status() {
+        // a rate measured before an idle period is no longer current
+        double rate = System.nanoTime() - lastWindowEndedAt > 2 * RATE_WINDOW_NANOS ? 0 : dispatchRate;
+        return new MailThrottleStatus(properties.nodePermitsPerSecond(),
+                                      properties.nodeBurst(),
+                                      properties.nodes(),
+                                      tokenBucket.availableTokens(),
+                                      rate,
+                                      concurrencyLimit.limit(),
+                                      currentInFlight(),
+                                      backlog.size());
+    }
+
+    private void dispatch() {
+        while (running || !backlog.isEmpty()) {
+            PendingEmail pending;
+            try {
+                pending = backlog.take();
+            } catch (InterruptedException e) {
+                // stop() interrupts the blocked dispatcher, the remaining emails are handed off by the loop condition
+                continue;
+            }
+            acquireSlot();
+            acquireToken();
+            handOff(pending);
+        }
+    }
+
+    private void handOff(PendingEmail pending) {
+        recordDispatch();
+        long handedOffAt = System.nanoTime();
+        CompletableFuture<Void> delivery;
+        try {
+            delivery = delegate.sendAsync(pending.email());
+        } catch (RuntimeException e) {
+            concurrencyLimit.onOverload();
+            releaseSlot();
+            pending.future().completeExceptionally(e);
+            return;
+        }
+        delivery.whenComplete((ignored, failure) -> {
+            if (failure == null) {
+                concurrencyLimit.onSuccess(System.nanoTime() - handedOffAt);
+            } else if (isOverload(failure)) {
+                concurrencyLimit.onOverload();
+            }
+            releaseSlot();
+            if (failure == null) {
+                pending.future().complete(null);
+            } else {
+                pending.future().completeExceptionally(failure);
+            }
+        });
+    }
+
+    private void acquireSlot() {
+        synchronized (slots) {
+            while (inFlight >= concurrencyLimit.limit()) {
+                try {
+                    // the limit may shrink while waiting, so it is re-read after every completed send
+                    slots.wait(RATE_WINDOW_NANOS / 1_000_000);
+                } catch (InterruptedException e) {
+                    // stop() only hurries the dispatcher, the email still waits for its slot
+                }
+            }
+            inFlight++;
+        }
+    }
+
+    private void releaseSlot() {
+        synchronized (slots) {
+            inFlight--;
+            slots.notifyAll();
+        }
+    }
+
+    private void acquireToken() {
+        long wait;
+        while ((wait = tokenBucket.tryAcquire()) > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(wait);
+            } catch (InterruptedException e) {
+                // stop() only hurries the dispatcher, the email still waits for its token
+            }
+        }
+    }
+
+    private void recordDispatch() {
+        long now = System.nanoTime();
+        if (now - windowStartedAt >= RATE_WINDOW_NANOS) {
+            dispatchRate = windowDispatched * (double) RATE_WINDOW_NANOS / (now - windowStartedAt);
+            lastWindowEndedAt = now;
+            windowStartedAt = now;
+            windowDispatched = 0;
+        }
+        windowDispatched++;
+    }
+
+    private int currentInFlight() {
+        synchronized (slots) {
+            return inFlight;
+        }
+    }
+
+    /**
+     * Checks whether the failure signals an unavailable or overloaded relay, rather than an invalid email.
+     */
+    private static boolean isOverload(Throwable failure) {
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+        return !(cause instanceof ParseException || cause instanceof MailParseException);
+    }
+
+    /**
+     * Email waiting in the backlog, with the future completed once it is sent.
+     */
+    private record PendingEmail(EmailDto email, CompletableFuture<Void> future) {
+
+    }
+
+}
@@ -0,0 +1,23 @@
+package com.capgemini.wsb.fitnesstracker.notification;
+
+/**
+ * Policy of sending weekly reports of users who recorded no training in the week.
+ */
+enum EmptyWeekPolicy {
+
+    /**
+     * Empty reports are always sent.
+     */
+    SEND,
+
+    /**
+     * The first empty report after an active week is sent, the following ones are skipped until the user trains again.
+     */
+    SEND_ONCE,
+
+    /**
+     * Empty reports are never sent.
+     */
+    SKIP
+
+}
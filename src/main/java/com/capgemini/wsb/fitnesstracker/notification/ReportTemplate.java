@@ -0,0 +1,186 @@
+package com.capgemini.wsb.fitnesstracker.notification;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Report template compiled once into a list of segments, so rendering is a plain sequence of appends without
+ * re-parsing the template or going through {@link java.util.Formatter}.
+ * Placeholders have the form {@code {name}} and are resolved against the writers given at compile time.
+ *
+ * @param <T> the type of the model the template is rendered from
+ */
+final class ReportTemplate<T> {
+
+    private static final int INITIAL_BUFFER_CAPACITY = 2048;
+
+    private static final int MAX_RETAINED_BUFFER_CAPACITY = 64 * 1024;
+
+    private static final double TIE_TOLERANCE = 1e-6;
+
+    /**
+     * Bound of the values whose scaled binary value is precise enough to tell a tie apart within the {@link #TIE_TOLERANCE}.
+     */
+    private static final double FAST_ROUNDING_LIMIT = 1e7;
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(INITIAL_BUFFER_CAPACITY));
+
+    private final SegmentWriter<T>[] segments;
+
+    private ReportTemplate(final SegmentWriter<T>[] segments) {
+        this.segments = segments;
+    }
+
+    /**
+     * Parses the template source into its segments.
+     *
+     * @param source       the template source
+     * @param placeholders the writers of the placeholders allowed within the template, by placeholder name
+     * @param <T>          the type of the model the template is rendered from
+     * @return the compiled template
+     * @throws IllegalArgumentException if the source contains an unclosed or unknown placeholder
+     */
+    @SuppressWarnings("unchecked")
+    static <T> ReportTemplate<T> compile(final String source, final Map<String, SegmentWriter<T>> placeholders) {
+        List<SegmentWriter<T>> segments = new ArrayList<>();
+        int position = 0;
+        while (position < source.length()) {
+            int start = source.indexOf('{', position);
+            if (start < 0) {
+                segments.add(literal(source.substring(position)));
+                break;
+            }
+            if (start > position) {
+                segments.add(literal(source.substring(position, start)));
+            }
+            int end = source.indexOf('}', start);
+            if (end < 0) {
+                throw new IllegalArgumentException("Unclosed placeholder at position " + start + " of the template");
+            }
+            String name = source.substring(start + 1, end);
+            SegmentWriter<T> writer = placeholders.get(name);
+            if (writer == null) {
+                throw new IllegalArgumentException("Unknown placeholder {" + name + "} in the template");
+            }
+            segments.add(writer);
+            position = end + 1;
+        }
+        return new ReportTemplate<>(segments.toArray(SegmentWriter[]::new));
+    }
+
+    /**
+     * Renders the template into a buffer reused by the calling thread.
+     *
+     * @param model the model to be rendered
+     * @return the rendered text
+     */
+    String render(final T model) {
+        StringBuilder buffer = BUFFER.get();
+        buffer.setLength(0);
+        renderTo(buffer, model);
+        String result = buffer.toString();
+        if (buffer.capacity() > MAX_RETAINED_BUFFER_CAPACITY) {
+            BUFFER.remove();
+        }
+        return result;
+    }
+
+    /**
+     * Appends the rendered template to the given builder.
+     *
+     * @param out   the builder to append to
+     * @param model the model to be rendered
+     */
+    void renderTo(final StringBuilder out, final T model) {
+        for (SegmentWriter<T> segment : segments) {
+            segment.write(out, model);
+        }
+    }
+
+    /**
+     * Appends the value with exactly two fraction digits, rounded half up on its decimal representation as
+     * {@code String.format("%.2f")} does, so {@code 1.005} is written as {@code 1.01}.
+     * Intermediate objects are only allocated for values close to a tie or above {@value #FAST_ROUNDING_LIMIT}.
+     *
+     * @param out   the builder to append to
+     * @param value the value to be appended
+     */
+    static void appendFixed2(final StringBuilder out, final double value) {
+        if (!Double.isFinite(value) || Math.abs(value) >= 1e15) {
+            out.append(value);
+            return;
+        }
+        long hundredths = roundToHundredths(Math.abs(value));
+        if (value < 0 && hundredths > 0) {
+            out.append('-');
+        }
+        out.append(hundredths / 100).append('.');
+        long fraction = hundredths % 100;
+        if (fraction < 10) {
+            out.append('0');
+        }
+        out.append(fraction);
+    }
+
+    /**
+     * Appends the date in the ISO-8601 format, as {@link LocalDate#toString()} does, without allocating intermediate
+     * strings.
+     *
+     * @param out  the builder to append to
+     * @param date the date to be appended
+     */
+    static void appendDate(final StringBuilder out, final LocalDate date) {
+        int year = date.getYear();
+        if (year < 1000 || year > 9999) {
+            out.append(date);
+            return;
+        }
+        out.append(year).append('-');
+        appendTwoDigits(out, date.getMonthValue());
+        out.append('-');
+        appendTwoDigits(out, date.getDayOfMonth());
+    }
+
+    private static long roundToHundredths(final double value) {
+        double scaled = value * 100;
+        if (value < FAST_ROUNDING_LIMIT && Math.abs(scaled - Math.floor(scaled) - 0.5) > TIE_TOLERANCE) {
+            return Math.round(scaled);
+        }
+        // the binary value of a decimal tie such as 1.005 lies slightly below or above it, its shortest decimal form is exact
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static void appendTwoDigits(final StringBuilder out, final int value) {
+        if (value < 10) {
+            out.append('0');
+        }
+        out.append(value);
+    }
+
+    private static <T> SegmentWriter<T> literal(final String text) {
+        return (out, model) -> out.append(text);
+    }
+
+    /**
+     * Writer of a single template segment.
+     *
+     * @param <T> the type of the model the template is rendered from
+     */
+    @FunctionalInterface
+    interface SegmentWriter<T> {
+
+        /**
+         * Appends the segment rendered from the model.
+         *
+         * @param out   the builder to append to
+         * @param model the model to be rendered
+         */
+        void write(StringBuilder out, T model);
+
+    }
+
+}
@@ -0,0 +1,83 @@
+package com.capgemini.wsb.fitnesstracker.notification;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Fingerprint of the last weekly report queued for a user, see {@link WeeklySummaryFingerprint}.
+ * A report whose summary has the same fingerprint is not rendered nor sent again.
+ */
+@Entity
+@Table(name = "weekly_report_fingerprints")
+@Getter
+@ToString
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class WeeklyReportFingerprint implements Persistable<Long> {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "fingerprint", nullable = false)
+    private long fingerprint;
+
+    /**
+     * The first day of the week of the last queued report.
+     */
+    @Column(name = "week_start", nullable = false)
+    private LocalDate weekStart;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    private boolean persisted;
+
+    WeeklyReportFingerprint(final Long userId) {
+        this.userId = userId;
+    }
+
+    @Override
+    public Long getId() {
+        return userId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    /**
+     * Records the report queued for the week.
+     *
+     * @param fingerprint the fingerprint of the summary of the report
+     * @param weekStart   the first day of the reported week
+     */
+    void update(final long fingerprint, final LocalDate weekStart) {
+        this.fingerprint = fingerprint;
+        this.weekStart = weekStart;
+        this.updatedAt = Instant.now();
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
+    }
+
+}
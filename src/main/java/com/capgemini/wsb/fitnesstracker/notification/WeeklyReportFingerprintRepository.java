@@ -0,0 +1,10 @@
+package com.capgemini.wsb.fitnesstracker.notification;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * Repository interface for {@link WeeklyReportFingerprint} entities.
+ */
+interface WeeklyReportFingerprintRepository extends JpaRepository<WeeklyReportFingerprint, Long> {
+
+}
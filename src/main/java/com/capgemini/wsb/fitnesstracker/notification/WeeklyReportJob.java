@@ -0,0 +1,399 @@
+package com.capgemini.wsb.fitnesstracker.notification;
+
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailDto;
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailOutbox;
+import com.capgemini.wsb.fitnesstracker.pagination.api.CursorRequest;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingProvider;
+import com.capgemini.wsb.fitnesstracker.training.api.UserActivitySummary;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.capgemini.wsb.fitnesstracker.user.api.UserProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Sends the weekly training report to every user, cooperating with the other nodes of the cluster.
+ * The user ID space of a week is split into {@link WeeklyReportShard}s; every node claims free shards through
+ * conditional updates of their lease rows, keeps its leases alive by heartbeats and takes over the shards whose
+ * leases have expired, resuming after their last checkpoint.
+ * Within a shard, users are read in keyset-paged chunks; the trainings of the whole chunk are summarized by a single
+ * grouped query, and the reports of the chunk are rendered concurrently on a bounded executor.
+ * The rendered emails of the chunk are written to the {@link EmailOutbox} in the same transaction which moves the
+ * checkpoint of the shard, and only while this node holds the lease, so every report is queued exactly once.
+ * Reports whose summary has the same {@link WeeklySummaryFingerprint} as the last report queued for the user, or which
+ * are excluded by the {@link EmptyWeekPolicy}, are neither rendered nor queued; they are counted by the
+ * {@code notification.weekly-report.skipped} metric, tagged by the reason ({@code empty} or {@code unchanged}).
+ * If a report fails to render, only the reports of the users before it are queued, the checkpoint stops right before its user
+ * and the shard is released, so the failed report and the rest of the shard are retried by the next takeover.
+ * The failed attempts are recorded with the shard; a report failing in {@link WeeklyReportProperties#renderAttempts()}
+ * attempts is given up, so the checkpoint moves past its user, and counted by the
+ * {@code notification.weekly-report.abandoned} metric.
+ * Runs are handed off to a thread of the job and executed one at a time, so sending the reports never holds up
+ * the shared scheduler thread.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+class WeeklyReportJob {
+
+    private static final String SKIPPED_METRIC = "notification.weekly-report.skipped";
+
+    private static final String ABANDONED_METRIC = "notification.weekly-report.abandoned";
+
+    private final UserProvider userProvider;
+
+    private final TrainingProvider trainingProvider;
+
+    private final WeeklyReportRenderer weeklyReportRenderer;
+
+    private final WeeklyReportShardRepository shardRepository;
+
+    private final WeeklyReportFingerprintRepository fingerprintRepository;
+
+    private final EmailOutbox emailOutbox;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final WeeklyReportProperties properties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final String node = UUID.randomUUID().toString();
+
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "weekly-report-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "weekly-report");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicBoolean takeoverQueued = new AtomicBoolean();
+
+    /**
+     * Hands off sending the reports of the previous week, or resuming them if the previous run did not finish,
+     * to the thread of the job.
+     */
+    @Scheduled(cron = "${notification.weekly-report.cron:0 0 6 * * MON}")
+    public void sendPreviousWeekReports() {
+        LocalDate weekStart = LocalDate.now().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY)).minusWeeks(1);
+        execute(() -> sendReports(weekStart));
+    }
+
+    /**
+     * Hands off taking over the shards left unfinished by this or other nodes, e.g. after a node crashed,
+     * to the thread of the job, unless a takeover is already waiting for it.
+     */
+    @Scheduled(fixedDelayString = "${notification.weekly-report.takeover-interval:PT1M}",
+               initialDelayString = "${notification.weekly-report.takeover-interval:PT1M}")
+    public void resumeReports() {
+        if (takeoverQueued.compareAndSet(false, true)) {
+            execute(() -> {
+                takeoverQueued.set(false);
+                processClaimableShards();
+            });
+        }
+    }
+
+    /**
+     * Creates the shards of the week unless another node already did, and processes all shards which are not
+     * leased by other nodes.
+     *
+     * @param weekStart the first day (Monday) of the reported week
+     */
+    void sendReports(final LocalDate weekStart) {
+        createShards(weekStart);
+        processClaimableShards();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        // an interrupted run leaves its shard to the lease expiry and the takeover of another node
+        worker.shutdownNow();
+        heartbeats.shutdownNow();
+    }
+
+    private void execute(final Runnable run) {
+        worker.execute(() -> {
+            try {
+                run.run();
+            } catch (RuntimeException e) {
+                log.error("Sending weekly reports failed", e);
+            }
+        });
+    }
+
+    private void createShards(final LocalDate weekStart) {
+        if (shardRepository.existsByIdWeekStart(weekStart)) {
+            return;
+        }
+        int shards = properties.shards();
+        long span = Math.max(1, (userProvider.findMaxUserId() + shards - 1) / shards);
+        List<WeeklyReportShard> ranges = new ArrayList<>(shards);
+        for (int shard = 0; shard < shards; shard++) {
+            // the last shard is open-ended, so users registered in the meantime are not left out
+            long toUserId = shard == shards - 1 ? Long.MAX_VALUE : (shard + 1) * span;
+            ranges.add(new WeeklyReportShard(new WeeklyReportShardId(weekStart, shard), shard * span, toUserId));
+        }
+        try {
+            // all shards are inserted in one transaction, so of two nodes racing here exactly one succeeds
+            transactionTemplate.executeWithoutResult(status -> shardRepository.saveAll(ranges));
+            log.info("Created {} weekly report shards of {}", shards, weekStart);
+        } catch (DataAccessException e) {
+            if (!shardRepository.existsByIdWeekStart(weekStart)) {
+                throw e;
+            }
+            log.debug("Weekly report shards of {} have been created by another node", weekStart);
+        }
+    }
+
+    private void processClaimableShards() {
+        List<WeeklyReportShard> claimable = shardRepository.findClaimable(Instant.now());
+        if (claimable.isEmpty()) {
+            return;
+        }
+        int chunkSize = Math.min(properties.chunkSize(), CursorRequest.MAX_LIMIT);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(properties.threads(), properties.threads(), 0, TimeUnit.SECONDS,
+                                                             new ArrayBlockingQueue<>(chunkSize),
+                                                             new ThreadPoolExecutor.CallerRunsPolicy());
+        try {
+            for (WeeklyReportShard candidate : claimable) {
+                claim(candidate.getId()).ifPresent(shard -> processShard(shard, chunkSize, executor));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private Optional<WeeklyReportShard> claim(final WeeklyReportShardId id) {
+        Instant now = Instant.now();
+        Integer claimed = transactionTemplate.execute(
+                status -> shardRepository.claim(id.getWeekStart(), id.getShard(), node, now, now.plus(properties.lease())));
+        if (claimed == null || claimed == 0) {
+            return Optional.empty();
+        }
+        // re-read the checkpoint, the shard may have been advanced by its previous owner since it was listed
+        return shardRepository.findById(id);
+    }
+
+    private void processShard(final WeeklyReportShard shard, final int chunkSize, final ThreadPoolExecutor executor) {
+        LocalDate weekStart = shard.getId().getWeekStart();
+        int number = shard.getId().getShard();
+        if (shard.getLastUserId() > shard.getFromUserId()) {
+            log.info("Taking over weekly report shard {} of {} after user {}", number, weekStart, shard.getLastUserId());
+        }
+        AtomicBoolean leaseLost = new AtomicBoolean();
+        long interval = properties.heartbeatInterval().toMillis();
+        ScheduledFuture<?> heartbeat = heartbeats.scheduleWithFixedDelay(() -> heartbeat(shard.getId(), leaseLost),
+                                                                         interval, interval, TimeUnit.MILLISECONDS);
+        ZoneId zone = ZoneId.systemDefault();
+        Date from = Date.from(weekStart.atStartOfDay(zone).toInstant());
+        Date to = Date.from(weekStart.plusWeeks(1).atStartOfDay(zone).toInstant());
+        long lastUserId = shard.getLastUserId();
+        long queued = 0;
+        long skipped = 0;
+        long failed = 0;
+        long abandoned = 0;
+        try {
+            boolean lastChunk;
+            do {
+                List<User> page = userProvider.findAllUsers(new CursorRequest(lastUserId, chunkSize)).items();
+                lastChunk = page.size() < chunkSize || page.get(page.size() - 1).getId() >= shard.getToUserId();
+                List<User> users = page.stream().filter(user -> user.getId() <= shard.getToUserId()).toList();
+                if (users.isEmpty()) {
+                    break;
+                }
+                Map<Long, List<UserActivitySummary>> summaries =
+                        trainingProvider.summarizeTrainingsByUser(users.stream().map(User::getId).toList(), from, to)
+                                        .stream()
+                                        .collect(Collectors.groupingBy(UserActivitySummary::userId));
+
+                Map<Long, Long> previousFingerprints =
+                        fingerprintRepository.findAllById(users.stream().map(User::getId).toList())
+                                             .stream()
+                                             .collect(Collectors.toMap(WeeklyReportFingerprint::getUserId, WeeklyReportFingerprint::getFingerprint));
+
+                List<User> reportedUsers = new ArrayList<>(users.size());
+                List<Long> reportedFingerprints = new ArrayList<>(users.size());
+                List<CompletableFuture<EmailDto>> renderings = new ArrayList<>(users.size());
+                long chunkSkippedEmpty = 0;
+                long chunkSkippedUnchanged = 0;
+                for (User user : users) {
+                    List<UserActivitySummary> userSummaries = summaries.getOrDefault(user.getId(), List.of());
+                    long fingerprint = WeeklySummaryFingerprint.of(userSummaries);
+                    boolean empty = userSummaries.isEmpty();
+                    if (empty && properties.emptyWeekPolicy() == EmptyWeekPolicy.SKIP) {
+                        chunkSkippedEmpty++;
+                        continue;
+                    }
+                    Long previousFingerprint = previousFingerprints.get(user.getId());
+                    if (previousFingerprint != null && previousFingerprint == fingerprint
+                            && !(empty && properties.emptyWeekPolicy() == EmptyWeekPolicy.SEND)) {
+                        chunkSkippedUnchanged++;
+                        continue;
+                    }
+                    reportedUsers.add(user);
+                    reportedFingerprints.add(fingerprint);
+                    renderings.add(CompletableFuture.supplyAsync(
+                            () -> weeklyReportRenderer.render(user, weekStart, userSummaries), executor));
+                }
+                List<EmailDto> emails = new ArrayList<>(renderings.size());
+                Map<Long, Long> fingerprints = new HashMap<>();
+                Long failedUserId = null;
+                int failedAttempts = 0;
+                int chunkAbandoned = 0;
+                for (int i = 0; i < renderings.size(); i++) {
+                    long userId = reportedUsers.get(i).getId();
+                    try {
+                        EmailDto email = renderings.get(i).join();
+                        if (failedUserId == null) {
+                            emails.add(email);
+                            fingerprints.put(userId, reportedFingerprints.get(i));
+                        }
+                    } catch (CompletionException e) {
+                        failed++;
+                        if (failedUserId != null) {
+                            log.warn("Weekly report of user {} could not be rendered", userId, e.getCause());
+                            continue;
+                        }
+                        int attempts = Long.valueOf(userId).equals(shard.getFailingUserId()) ? shard.getFailedAttempts() + 1 : 1;
+                        if (attempts < properties.renderAttempts()) {
+                            log.warn("Weekly report of user {} could not be rendered in attempt {}", userId, attempts, e.getCause());
+                            failedUserId = userId;
+                            failedAttempts = attempts;
+                        } else {
+                            log.error("Weekly report of user {} could not be rendered in {} attempts, giving it up", userId, attempts, e.getCause());
+                            chunkAbandoned++;
+                        }
+                    }
+                }
+
+                // the checkpoint never passes a failed report, the shard is resumed at its user by the next takeover
+                long chunkLastUserId = failedUserId == null ? users.get(users.size() - 1).getId() : failedUserId - 1;
+                Long failingUserId = failedUserId;
+                int failingAttempts = failedAttempts;
+                int abandonedReports = chunkAbandoned;
+                // the emails of the chunk are queued if and only if this node still owns the shard and moves its checkpoint
+                transactionTemplate.executeWithoutResult(status -> {
+                    emailOutbox.enqueue(emails);
+                    saveFingerprints(fingerprints, weekStart);
+                    Instant now = Instant.now();
+                    if (shardRepository.advance(weekStart, number, node, chunkLastUserId, now) == 0) {
+                        throw new LeaseLostException();
+                    }
+                    if ((failingUserId != null || abandonedReports > 0)
+                            && shardRepository.recordFailures(weekStart, number, node, failingUserId, failingAttempts, abandonedReports, now) == 0) {
+                        throw new LeaseLostException();
+                    }
+                });
+                meterRegistry.counter(SKIPPED_METRIC, "reason", "empty").increment(chunkSkippedEmpty);
+                meterRegistry.counter(SKIPPED_METRIC, "reason", "unchanged").increment(chunkSkippedUnchanged);
+                meterRegistry.counter(ABANDONED_METRIC).increment(chunkAbandoned);
+                skipped += chunkSkippedEmpty + chunkSkippedUnchanged;
+                abandoned += chunkAbandoned;
+                lastUserId = chunkLastUserId;
+                queued += emails.size();
+                if (failedUserId != null) {
+                    throw new IllegalStateException("Weekly report of user %s could not be rendered".formatted(failedUserId));
+                }
+            } while (!lastChunk && !leaseLost.get());
+
+            Integer completed = leaseLost.get() ? null : transactionTemplate.execute(
+                    status -> shardRepository.complete(weekStart, number, node, Instant.now()));
+            if (completed == null || completed == 0) {
+                throw new LeaseLostException();
+            }
+            log.info("Weekly report shard {} of {} finished, {} queued, {} skipped, {} failed, {} abandoned",
+                     number, weekStart, queued, skipped, failed, abandoned);
+        } catch (LeaseLostException e) {
+            log.warn("Lease of weekly report shard {} of {} has been lost after {} queued reports, leaving it to its new owner",
+                     number, weekStart, queued);
+        } catch (RuntimeException e) {
+            log.error("Weekly report shard {} of {} failed after {} queued reports, releasing it", number, weekStart, queued, e);
+            transactionTemplate.executeWithoutResult(status -> shardRepository.release(weekStart, number, node, Instant.now()));
+        } finally {
+            heartbeat.cancel(false);
+        }
+    }
+
+    private void saveFingerprints(final Map<Long, Long> fingerprints, final LocalDate weekStart) {
+        if (fingerprints.isEmpty()) {
+            return;
+        }
+        Map<Long, WeeklyReportFingerprint> existing =
+                fingerprintRepository.findAllById(fingerprints.keySet())
+                                     .stream()
+                                     .collect(Collectors.toMap(WeeklyReportFingerprint::getUserId, Function.identity()));
+        List<WeeklyReportFingerprint> created = new ArrayList<>();
+        fingerprints.forEach((userId, fingerprint) -> {
+            WeeklyReportFingerprint stored = existing.get(userId);
+            if (stored == null) {
+                stored = new WeeklyReportFingerprint(userId);
+                created.add(stored);
+            }
+            // loaded fingerprints are managed by the transaction and updated on commit
+            stored.update(fingerprint, weekStart);
+        });
+        fingerprintRepository.saveAll(created);
+    }
+
+    private void heartbeat(final WeeklyReportShardId id, final AtomicBoolean leaseLost) {
+        try {
+            Instant now = Instant.now();
+            Integer extended = transactionTemplate.execute(
+                    status -> shardRepository.heartbeat(id.getWeekStart(), id.getShard(), node, now, now.plus(properties.lease())));
+            if (extended == null || extended == 0) {
+                leaseLost.set(true);
+            }
+        } catch (RuntimeException e) {
+            // the lease stays valid until it expires, the next heartbeat may still succeed
+            log.warn("Heartbeat of weekly report shard {} failed", id, e);
+        }
+    }
+
+    /**
+     * Thrown when the lease of the shard being processed has expired or has been taken over by another node.
+     */
+    private static final class LeaseLostException extends RuntimeException {
+
+        LeaseLostException() {
+            super(null, null, false, false);
+        }
+
+    }
+
+}
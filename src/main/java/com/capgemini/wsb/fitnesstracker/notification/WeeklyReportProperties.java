@@ -0,0 +1,28 @@
+package com.capgemini.wsb.fitnesstracker.notification;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the {@link WeeklyReportJob}.
+ *
+ * @param chunkSize         number of users whose reports are prepared together, bounded by the maximal page size of users
+ * @param threads           number of threads rendering the emails of a chunk
+ * @param shards            number of user ID ranges the reports of a week are split into, each processed by a single node
+ * @param lease             duration for which a claimed shard is reserved for the node, unless extended by heartbeats
+ * @param heartbeatInterval interval of extending the lease of the shard being processed, has to be shorter than the lease
+ * @param emptyWeekPolicy   whether reports of users without any training in the week are sent
+ * @param renderAttempts    number of attempts to render the report of a user, after which the report is given up
+ */
+@ConfigurationProperties(prefix = "notification.weekly-report")
+record WeeklyReportProperties(@DefaultValue("500") int chunkSize,
+                              @DefaultValue("8") int threads,
+                              @DefaultValue("16") int shards,
+                              @DefaultValue("2m") Duration lease,
+                              @DefaultValue("30s") Duration heartbeatInterval,
+                              @DefaultValue("SEND_ONCE") EmptyWeekPolicy emptyWeekPolicy,
+                              @DefaultValue("3") int renderAttempts) {
+
+}
@@ -0,0 +1,101 @@
+package com.capgemini.wsb.fitnesstracker.notification;
+
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailDto;
+import com.capgemini.wsb.fitnesstracker.notification.ReportTemplate.SegmentWriter;
+import com.capgemini.wsb.fitnesstracker.training.api.UserActivitySummary;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Renders the weekly training report email of a single user.
+ * The templates are compiled once and rendered into a per-thread buffer, so a render allocates little more than
+ * the resulting strings.
+ */
+@Component
+class WeeklyReportRenderer {
+
+    private static final Map<String, SegmentWriter<UserActivitySummary>> ACTIVITY_PLACEHOLDERS = Map.of(
+            "activity", (out, summary) -> out.append(summary.activityType().getDisplayName()),
+            "trainings", (out, summary) -> out.append(summary.trainings().longValue()),
+            "distance", (out, summary) -> ReportTemplate.appendFixed2(out, summary.totalDistance()),
+            "averageSpeed", (out, summary) -> ReportTemplate.appendFixed2(out, summary.averageSpeed()));
+
+    private static final ReportTemplate<UserActivitySummary> ACTIVITY_TEMPLATE = ReportTemplate.compile(
+            "- {activity}: {trainings} trainings, {distance} km, average speed {averageSpeed} km/h\n",
+            ACTIVITY_PLACEHOLDERS);
+
+    private static final Map<String, SegmentWriter<WeeklyReport>> REPORT_PLACEHOLDERS = Map.of(
+            "firstName", (out, report) -> out.append(report.user().getFirstName()),
+            "weekStart", (out, report) -> ReportTemplate.appendDate(out, report.weekStart()),
+            "activities", WeeklyReportRenderer::appendActivities,
+            "trainings", (out, report) -> out.append(report.trainings()),
+            "distance", (out, report) -> ReportTemplate.appendFixed2(out, report.distance()));
+
+    private static final ReportTemplate<WeeklyReport> SUMMARY_TEMPLATE = ReportTemplate.compile(
+            """
+            Hi {firstName},
+
+            here is the summary of your trainings in the week starting {weekStart}:
+
+            {activities}
+            In total {trainings} trainings and {distance} km.
+
+            Keep it up!
+            Fitness Tracker
+            """,
+            REPORT_PLACEHOLDERS);
+
+    private static final ReportTemplate<WeeklyReport> EMPTY_TEMPLATE = ReportTemplate.compile(
+            """
+            Hi {firstName},
+
+            you have not recorded any training in the week starting {weekStart}.
+
+            Keep it up!
+            Fitness Tracker
+            """,
+            REPORT_PLACEHOLDERS);
+
+    private static final ReportTemplate<WeeklyReport> SUBJECT_TEMPLATE = ReportTemplate.compile(
+            "Your training report for the week of {weekStart}",
+            REPORT_PLACEHOLDERS);
+
+    /**
+     * Renders the report of the user.
+     *
+     * @param user      the recipient of the report
+     * @param weekStart the first day of the reported week
+     * @param summaries the summaries of the trainings of the user within the week, per activity type
+     * @return the email to be sent
+     */
+    EmailDto render(final User user, final LocalDate weekStart, final List<UserActivitySummary> summaries) {
+        long trainings = 0;
+        double distance = 0;
+        for (UserActivitySummary summary : summaries) {
+            trainings += summary.trainings();
+            distance += summary.totalDistance();
+        }
+        WeeklyReport report = new WeeklyReport(user, weekStart, summaries, trainings, distance);
+        String content = summaries.isEmpty() ? EMPTY_TEMPLATE.render(report) : SUMMARY_TEMPLATE.render(report);
+        return new EmailDto(user.getEmail(), SUBJECT_TEMPLATE.render(report), content);
+    }
+
+    private static void appendActivities(final StringBuilder out, final WeeklyReport report) {
+        for (UserActivitySummary summary : report.summaries()) {
+            ACTIVITY_TEMPLATE.renderTo(out, summary);
+        }
+    }
+
+    private record WeeklyReport(User user,
+                                LocalDate weekStart,
+                                List<UserActivitySummary> summaries,
+                                long trainings,
+                                double distance) {
+
+    }
+
+}
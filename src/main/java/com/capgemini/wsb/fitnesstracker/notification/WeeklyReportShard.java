@@ -0,0 +1,117 @@
+package com.capgemini.wsb.fitnesstracker.notification;
+
+import jakarta.annotation.Nullable;
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+/**
+ * A range of user IDs whose weekly reports are generated by a single node at a time.
+ * A node owns the shard while its lease is valid and extends the lease by heartbeats; once the lease expires,
+ * any node may take the shard over and resume after {@link #lastUserId}.
+ * All changes are made by conditional updates of {@link WeeklyReportShardRepository}, so only the lease owner
+ * can advance the shard.
+ * New shards are always inserted, never merged, so two nodes creating the shards of the same week cannot overwrite
+ * each other.
+ */
+@Entity
+@Table(name = "weekly_report_shards")
+@Getter
+@ToString
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class WeeklyReportShard implements Persistable<WeeklyReportShardId> {
+
+    @EmbeddedId
+    private WeeklyReportShardId id;
+
+    /**
+     * The exclusive lower bound of the user IDs of the shard.
+     */
+    @Column(name = "from_user_id", nullable = false)
+    private long fromUserId;
+
+    /**
+     * The inclusive upper bound of the user IDs of the shard.
+     */
+    @Column(name = "to_user_id", nullable = false)
+    private long toUserId;
+
+    /**
+     * The ID of the last user whose report has been queued, reports of users up to it are not generated again.
+     */
+    @Column(name = "last_user_id", nullable = false)
+    private long lastUserId;
+
+    @Column(name = "completed", nullable = false)
+    private boolean completed;
+
+    /**
+     * The ID of the user whose report failed to render when the shard was processed last, retried by the next takeover.
+     */
+    @Nullable
+    @Column(name = "failing_user_id")
+    private Long failingUserId;
+
+    /**
+     * The number of failed attempts to render the report of {@link #failingUserId}.
+     */
+    @Column(name = "failed_attempts", nullable = false)
+    private int failedAttempts;
+
+    /**
+     * The number of reports given up after failing to render in every attempt; the checkpoint has moved past their users.
+     */
+    @Column(name = "abandoned_reports", nullable = false)
+    private int abandonedReports;
+
+    @Nullable
+    @Column(name = "lease_owner")
+    private String owner;
+
+    @Nullable
+    @Column(name = "lease_until")
+    private Instant leaseUntil;
+
+    @Nullable
+    @Column(name = "heartbeat_at")
+    private Instant heartbeatAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    private boolean persisted;
+
+    WeeklyReportShard(final WeeklyReportShardId id, final long fromUserId, final long toUserId) {
+        this.id = id;
+        this.fromUserId = fromUserId;
+        this.toUserId = toUserId;
+        this.lastUserId = fromUserId;
+        this.updatedAt = Instant.now();
+    }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
+    }
+
+}
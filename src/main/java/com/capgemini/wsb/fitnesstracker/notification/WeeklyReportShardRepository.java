@@ -0,0 +1,184 @@
+package com.capgemini.wsb.fitnesstracker.notification;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repository interface for {@link WeeklyReportShard} entities.
+ * Every modifying query is conditional on the state of the lease and returns the number of updated shards,
+ * {@code 0} meaning that the lease is held by another node.
+ */
+interface WeeklyReportShardRepository extends JpaRepository<WeeklyReportShard, WeeklyReportShardId> {
+
+    /**
+     * Checks whether the shards of the week have already been created.
+     *
+     * @param weekStart the first day of the week
+     * @return {@code true} if any shard of the week exists
+     */
+    boolean existsByIdWeekStart(LocalDate weekStart);
+
+    /**
+     * Finds the shards of the week, ordered by shard number.
+     *
+     * @param weekStart the first day of the week
+     * @return a list of the shards of the week
+     */
+    List<WeeklyReportShard> findByIdWeekStartOrderByIdShard(LocalDate weekStart);
+
+    /**
+     * Finds the shards which are not completed and not leased by any node, oldest weeks first.
+     *
+     * @param now the current time
+     * @return a list of the claimable shards
+     */
+    @Query("""
+            select s from WeeklyReportShard s
+            where s.completed = false
+              and (s.leaseUntil is null or s.leaseUntil < :now)
+            order by s.id.weekStart, s.id.shard
+            """)
+    List<WeeklyReportShard> findClaimable(@Param("now") Instant now);
+
+    /**
+     * Leases the shard to the node, unless it is completed or leased by another node.
+     *
+     * @param weekStart  the first day of the week of the shard
+     * @param shard      the number of the shard
+     * @param node       the identifier of the node
+     * @param now        the current time
+     * @param leaseUntil the expiration of the lease
+     * @return {@code 1} if the shard was claimed, {@code 0} otherwise
+     */
+    @Modifying
+    @Query("""
+            update WeeklyReportShard s
+            set s.owner = :node, s.leaseUntil = :leaseUntil, s.heartbeatAt = :now, s.updatedAt = :now
+            where s.id.weekStart = :weekStart and s.id.shard = :shard
+              and s.completed = false
+              and (s.leaseUntil is null or s.leaseUntil < :now)
+            """)
+    int claim(@Param("weekStart") LocalDate weekStart,
+              @Param("shard") int shard,
+              @Param("node") String node,
+              @Param("now") Instant now,
+              @Param("leaseUntil") Instant leaseUntil);
+
+    /**
+     * Extends the lease of the shard held by the node.
+     *
+     * @param weekStart  the first day of the week of the shard
+     * @param shard      the number of the shard
+     * @param node       the identifier of the node holding the lease
+     * @param now        the current time
+     * @param leaseUntil the new expiration of the lease
+     * @return {@code 1} if the lease was extended, {@code 0} if it has been lost
+     */
+    @Modifying
+    @Query("""
+            update WeeklyReportShard s
+            set s.leaseUntil = :leaseUntil, s.heartbeatAt = :now
+            where s.id.weekStart = :weekStart and s.id.shard = :shard and s.owner = :node and s.leaseUntil >= :now
+            """)
+    int heartbeat(@Param("weekStart") LocalDate weekStart,
+                  @Param("shard") int shard,
+                  @Param("node") String node,
+                  @Param("now") Instant now,
+                  @Param("leaseUntil") Instant leaseUntil);
+
+    /**
+     * Moves the checkpoint of the shard held by the node past the given user.
+     *
+     * @param weekStart  the first day of the week of the shard
+     * @param shard      the number of the shard
+     * @param node       the identifier of the node holding the lease
+     * @param lastUserId the ID of the last user whose report has been queued
+     * @param now        the current time
+     * @return {@code 1} if the checkpoint was moved, {@code 0} if the lease has been lost
+     */
+    @Modifying
+    @Query("""
+            update WeeklyReportShard s
+            set s.lastUserId = :lastUserId, s.updatedAt = :now
+            where s.id.weekStart = :weekStart and s.id.shard = :shard and s.owner = :node and s.leaseUntil >= :now
+            """)
+    int advance(@Param("weekStart") LocalDate weekStart,
+                @Param("shard") int shard,
+                @Param("node") String node,
+                @Param("lastUserId") long lastUserId,
+                @Param("now") Instant now);
+
+    /**
+     * Records the reports of the shard held by the node which failed to render.
+     *
+     * @param weekStart      the first day of the week of the shard
+     * @param shard          the number of the shard
+     * @param node           the identifier of the node holding the lease
+     * @param failingUserId  the ID of the user whose report is retried by the next takeover, or {@code null} if none
+     * @param failedAttempts the number of failed attempts to render the report of that user
+     * @param abandoned      the number of reports given up since the last record
+     * @param now            the current time
+     * @return {@code 1} if the failures were recorded, {@code 0} if the lease has been lost
+     */
+    @Modifying
+    @Query("""
+            update WeeklyReportShard s
+            set s.failingUserId = :failingUserId, s.failedAttempts = :failedAttempts,
+                s.abandonedReports = s.abandonedReports + :abandoned, s.updatedAt = :now
+            where s.id.weekStart = :weekStart and s.id.shard = :shard and s.owner = :node and s.leaseUntil >= :now
+            """)
+    int recordFailures(@Param("weekStart") LocalDate weekStart,
+                       @Param("shard") int shard,
+                       @Param("node") String node,
+                       @Param("failingUserId") Long failingUserId,
+                       @Param("failedAttempts") int failedAttempts,
+                       @Param("abandoned") int abandoned,
+                       @Param("now") Instant now);
+
+    /**
+     * Completes the shard held by the node and releases its lease.
+     *
+     * @param weekStart the first day of the week of the shard
+     * @param shard     the number of the shard
+     * @param node the identifier of the node holding the lease
+     * @param now  the current time
+     * @return {@code 1} if the shard was completed, {@code 0} if the lease has been lost
+     */
+    @Modifying
+    @Query("""
+            update WeeklyReportShard s
+            set s.completed = true, s.owner = null, s.leaseUntil = null, s.updatedAt = :now
+            where s.id.weekStart = :weekStart and s.id.shard = :shard and s.owner = :node and s.leaseUntil >= :now
+            """)
+    int complete(@Param("weekStart") LocalDate weekStart,
+                 @Param("shard") int shard,
+                 @Param("node") String node,
+                 @Param("now") Instant now);
+
+    /**
+     * Releases the lease of the shard held by the node, so other nodes may claim it immediately.
+     *
+     * @param weekStart the first day of the week of the shard
+     * @param shard     the number of the shard
+     * @param node the identifier of the node holding the lease
+     * @param now  the current time
+     * @return {@code 1} if the lease was released, {@code 0} if it has been lost
+     */
+    @Modifying
+    @Query("""
+            update WeeklyReportShard s
+            set s.owner = null, s.leaseUntil = null, s.updatedAt = :now
+            where s.id.weekStart = :weekStart and s.id.shard = :shard and s.owner = :node
+            """)
+    int release(@Param("weekStart") LocalDate weekStart,
+                @Param("shard") int shard,
+                @Param("node") String node,
+                @Param("now") Instant now);
+
+}
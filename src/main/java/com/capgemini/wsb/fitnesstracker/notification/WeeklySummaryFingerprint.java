@@ -0,0 +1,50 @@
+package com.capgemini.wsb.fitnesstracker.notification;
+
+import com.capgemini.wsb.fitnesstracker.training.api.UserActivitySummary;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Compact 64-bit fingerprint of the weekly summary of a single user.
+ * Two summaries rendering to the same report body (apart from the week itself) have the same fingerprint:
+ * the summaries are ordered by activity type and the decimals are rounded to the precision of the report.
+ */
+final class WeeklySummaryFingerprint {
+
+    private static final long SEED = 0x6a09e667f3bcc908L;
+
+    private WeeklySummaryFingerprint() {
+    }
+
+    /**
+     * Computes the fingerprint of the summaries.
+     *
+     * @param summaries the summaries of the trainings of the user within the week, per activity type
+     * @return the fingerprint
+     */
+    static long of(final List<UserActivitySummary> summaries) {
+        long hash = mix(SEED, summaries.size());
+        List<UserActivitySummary> ordered = summaries.size() < 2
+                ? summaries
+                : summaries.stream().sorted(Comparator.comparing(UserActivitySummary::activityType)).toList();
+        for (UserActivitySummary summary : ordered) {
+            hash = mix(hash, summary.activityType().ordinal());
+            hash = mix(hash, summary.trainings());
+            hash = mix(hash, Math.round(summary.totalDistance() * 100));
+            hash = mix(hash, Math.round(summary.averageSpeed() * 100));
+        }
+        return hash;
+    }
+
+    private static long mix(final long hash, final long value) {
+        // finalizer of the 64-bit MurmurHash3, applied after folding in every value
+        long h = hash ^ value;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+}
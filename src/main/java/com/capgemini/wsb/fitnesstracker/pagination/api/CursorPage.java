@@ -0,0 +1,48 @@
+package com.capgemini.wsb.fitnesstracker.pagination.api;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import jakarta.annotation.Nullable;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Single page of a list ordered by the {@code id} column.
+ *
+ * @param items elements of the page
+ * @param next  opaque cursor of the next page, or {@code null} if this is the last page
+ * @param <T>   type of the elements
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record CursorPage<T>(List<T> items, @Nullable String next) {
+
+    /**
+     * Creates the page from the elements fetched with {@link CursorRequest#fetchPageable()}.
+     *
+     * @param fetched     elements ordered by ID, at most {@code limit + 1} of them
+     * @param request     request of the page
+     * @param idExtractor function extracting the ID of the element
+     * @param <T>         type of the elements
+     * @return page with at most {@code limit} elements
+     */
+    public static <T> CursorPage<T> of(List<T> fetched, CursorRequest request, ToLongFunction<T> idExtractor) {
+        if (fetched.size() <= request.limit()) {
+            return new CursorPage<>(fetched, null);
+        }
+        List<T> items = fetched.subList(0, request.limit());
+        return new CursorPage<>(items, CursorRequest.encode(idExtractor.applyAsLong(items.get(items.size() - 1))));
+    }
+
+    /**
+     * Maps the elements of the page, keeping the cursor of the next page.
+     *
+     * @param mapper mapping function
+     * @param <R>    type of the mapped elements
+     * @return page with mapped elements
+     */
+    public <R> CursorPage<R> map(Function<T, R> mapper) {
+        return new CursorPage<>(items.stream().map(mapper).toList(), next);
+    }
+
+}
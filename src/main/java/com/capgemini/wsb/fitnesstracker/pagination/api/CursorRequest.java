@@ -0,0 +1,75 @@
+package com.capgemini.wsb.fitnesstracker.pagination.api;
+
+import com.capgemini.wsb.fitnesstracker.exception.api.BusinessException;
+import jakarta.annotation.Nullable;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Request for a single page of a list ordered by the {@code id} column (keyset pagination).
+ * The position in the list is passed between the client and the server as an opaque cursor string.
+ *
+ * @param afterId ID of the last element of the previous page, {@code 0} for the first page
+ * @param limit   maximal number of elements on the page
+ */
+public record CursorRequest(long afterId, int limit) {
+
+    /**
+     * Page size used when the client does not specify one.
+     */
+    public static final int DEFAULT_LIMIT = 50;
+
+    /**
+     * Upper bound of the page size, larger requested limits are capped to this value.
+     */
+    public static final int MAX_LIMIT = 500;
+
+    private static final String CURSOR_PREFIX = "id:";
+
+    /**
+     * Creates the page request from the request parameters.
+     *
+     * @param cursor opaque cursor returned as {@link CursorPage#next()} of the previous page, or {@code null} for the first page
+     * @param limit  requested page size, or {@code null} for the {@link #DEFAULT_LIMIT}
+     * @return page request
+     * @throws BusinessException if the cursor is malformed or the limit is not positive
+     */
+    public static CursorRequest of(@Nullable String cursor, @Nullable Integer limit) {
+        if (limit != null && limit < 1) {
+            throw new BusinessException("Page limit has to be positive, was %s".formatted(limit));
+        }
+        int effectiveLimit = limit == null ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT);
+        return new CursorRequest(cursor == null || cursor.isBlank() ? 0 : decode(cursor), effectiveLimit);
+    }
+
+    /**
+     * Page request for the repository query, fetching one element more than the limit to detect whether a next page exists.
+     *
+     * @return {@link Pageable} of the first page with size {@code limit + 1}
+     */
+    public Pageable fetchPageable() {
+        return PageRequest.ofSize(limit + 1);
+    }
+
+    static String encode(long id) {
+        return Base64.getUrlEncoder()
+                     .withoutPadding()
+                     .encodeToString((CURSOR_PREFIX + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long decode(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(CURSOR_PREFIX)) {
+                throw new BusinessException("Invalid page cursor: " + cursor);
+            }
+            return Long.parseLong(decoded.substring(CURSOR_PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException("Invalid page cursor: " + cursor);
+        }
+    }
+
+}
@@ -4,6 +4,10 @@ import com.capgemini.wsb.fitnesstracker.user.api.User;
 import jakarta.persistence.*;
 import lombok.*;
 
+/**
+ * Running totals of the trainings of a single user.
+ * The row shares its primary key with the {@link User}, so statistics of the user are always fetched by the primary key.
+ */
 @Entity
 @Table(name = "statistics")
 @Getter
@@ -12,12 +16,16 @@ import lombok.*;
 @ToString
 public class Statistics {
 
+    /**
+     * The ID of the statistics, equal to the ID of the {@link #user}.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
+    @ToString.Exclude
     private User user;
 
     @Column(name = "total_trainings", nullable = false)
@@ -29,4 +37,23 @@ public class Statistics {
     @Column(name = "total_calories_burned")
     private int totalCaloriesBurned;
 
-}
\ No newline at end of file
+    /**
+     * Constructs statistics of the user with the given totals.
+     *
+     * @param user                the user whose trainings are summarized
+     * @param totalTrainings      the number of trainings of the user
+     * @param totalDistance       the total distance of the trainings, in kilometers
+     * @param totalCaloriesBurned the total calories burned during the trainings
+     */
+    public Statistics(
+            final User user,
+            final int totalTrainings,
+            final double totalDistance,
+            final int totalCaloriesBurned) {
+        this.user = user;
+        this.totalTrainings = totalTrainings;
+        this.totalDistance = totalDistance;
+        this.totalCaloriesBurned = totalCaloriesBurned;
+    }
+
+}
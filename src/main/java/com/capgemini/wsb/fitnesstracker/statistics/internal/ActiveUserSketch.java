@@ -0,0 +1,33 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Persisted {@link HyperLogLog} registers of the users who started a training of a single activity type on a single day.
+ */
+@Entity
+@Table(name = "active_user_sketches")
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+public class ActiveUserSketch {
+
+    @EmbeddedId
+    private ActiveUserSketchId id;
+
+    @Column(name = "registers", nullable = false, length = HyperLogLog.REGISTERS)
+    @ToString.Exclude
+    private byte[] registers;
+
+}
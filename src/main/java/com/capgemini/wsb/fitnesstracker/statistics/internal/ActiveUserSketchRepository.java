@@ -0,0 +1,42 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repository interface for {@link ActiveUserSketch} entities.
+ */
+interface ActiveUserSketchRepository extends JpaRepository<ActiveUserSketch, ActiveUserSketchId> {
+
+    /**
+     * Finds the sketches of all activity types of the days within the range.
+     *
+     * @param from the first day of the range
+     * @param to   the last day of the range
+     * @return a list of sketches of the range
+     */
+    List<ActiveUserSketch> findByIdDayBetween(LocalDate from, LocalDate to);
+
+    /**
+     * Finds and locks the sketches of all activity types of the days within the range, in the order of their keys,
+     * so flushes of other nodes wait for the transaction instead of overwriting its merge.
+     *
+     * @param from the first day of the range
+     * @param to   the last day of the range
+     * @return a list of locked sketches of the range
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+            select s from ActiveUserSketch s
+            where s.id.day between :from and :to
+            order by s.id.day, s.id.activityType
+            """)
+    List<ActiveUserSketch> findForUpdateByIdDayBetween(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+}
@@ -0,0 +1,172 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.exception.api.BusinessException;
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingProvider;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingsCreatedEvent;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import jakarta.annotation.Nullable;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Counts distinct active users per day and activity type approximately, with one {@link HyperLogLog} sketch per day and activity type.
+ * Sketches are updated in memory from every committed training creation and flushed to the {@code active_user_sketches} table periodically.
+ * Counts over a date range merge the sketches of its days, so they never read the trainings.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+class ActiveUserSketchService {
+
+    static final int MAX_RANGE_DAYS = 3660;
+
+    private final ActiveUserSketchRepository activeUserSketchRepository;
+
+    private final TrainingProvider trainingProvider;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<ActiveUserSketchId, HyperLogLog> sketches = new ConcurrentHashMap<>();
+
+    private final Set<ActiveUserSketchId> dirtyIds = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Builds the sketches of the existing trainings, if none were persisted yet.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (activeUserSketchRepository.count() > 0) {
+            return;
+        }
+        trainingProvider.streamTrainingMetrics(metrics -> add(metrics.startTime(), metrics.activityType(), metrics.userId()));
+        log.info("Built {} active user sketches from existing trainings", dirtyIds.size());
+        flush();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTrainingsCreated(TrainingsCreatedEvent event) {
+        for (Training training : event.trainings()) {
+            add(training.getStartTime(), training.getActivityType(), training.getUser().getId());
+        }
+    }
+
+    /**
+     * Merges the sketches changed since the last flush into the persisted ones.
+     * The persisted sketches are locked while merged, so concurrent flushes of other nodes do not overwrite each other;
+     * a sketch inserted concurrently by another node fails the flush.
+     * Sketches of a failed flush stay dirty and are retried by the next one; sketches of past days are dropped from memory once flushed.
+     */
+    @Scheduled(fixedDelayString = "${statistics.active-users.flush-interval:PT10S}")
+    public void flush() {
+        List<ActiveUserSketchId> ids = new ArrayList<>(dirtyIds);
+        if (ids.isEmpty()) {
+            return;
+        }
+        ids.forEach(dirtyIds::remove);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                LocalDate from = ids.stream().map(ActiveUserSketchId::getDay).min(Comparator.naturalOrder()).orElseThrow();
+                LocalDate to = ids.stream().map(ActiveUserSketchId::getDay).max(Comparator.naturalOrder()).orElseThrow();
+                Map<ActiveUserSketchId, ActiveUserSketch> persisted = activeUserSketchRepository.findForUpdateByIdDayBetween(from, to)
+                                                                                                .stream()
+                                                                                                .collect(Collectors.toMap(ActiveUserSketch::getId, Function.identity()));
+                for (ActiveUserSketchId id : ids) {
+                    HyperLogLog sketch = sketches.get(id);
+                    if (sketch == null) {
+                        continue;
+                    }
+                    ActiveUserSketch row = persisted.get(id);
+                    if (row == null) {
+                        activeUserSketchRepository.save(new ActiveUserSketch(id, sketch.toBytes()));
+                    } else {
+                        // merging is idempotent, so updates of other nodes are kept as well
+                        sketch.merge(HyperLogLog.fromBytes(row.getRegisters()));
+                        row.setRegisters(sketch.toBytes());
+                    }
+                }
+            });
+            log.debug("Flushed {} active user sketches", ids.size());
+        } catch (RuntimeException e) {
+            log.warn("Flushing {} active user sketches failed, will be retried", ids.size(), e);
+            dirtyIds.addAll(ids);
+            return;
+        }
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        sketches.keySet().removeIf(id -> id.getDay().isBefore(yesterday) && !dirtyIds.contains(id));
+    }
+
+    /**
+     * Estimates the number of distinct users who started a training within the date range.
+     *
+     * @param from         the first day of the range
+     * @param to           the last day of the range
+     * @param activityType the activity type of the trainings, {@code null} for all activities
+     * @param period       the length of the periods to be estimated separately, {@code null} for the whole range only
+     * @return the approximate number of distinct users of the range and of its periods
+     * @throws BusinessException if the range is empty or longer than {@value #MAX_RANGE_DAYS} days
+     */
+    ActiveUsersDto countActiveUsers(LocalDate from, LocalDate to, @Nullable ActivityType activityType, @Nullable RollupPeriod period) {
+        if (to.isBefore(from) || from.plusDays(MAX_RANGE_DAYS).isBefore(to)) {
+            throw new BusinessException("Date range has to be ordered and at most %s days long".formatted(MAX_RANGE_DAYS));
+        }
+        HyperLogLog total = new HyperLogLog();
+        Map<LocalDate, HyperLogLog> periods = new TreeMap<>();
+        for (ActiveUserSketch persisted : activeUserSketchRepository.findByIdDayBetween(from, to)) {
+            merge(persisted.getId(), HyperLogLog.fromBytes(persisted.getRegisters()), activityType, period, total, periods);
+        }
+        // sketches not flushed yet; merging them again with their persisted version does not change the result
+        sketches.forEach((id, sketch) -> {
+            if (!id.getDay().isBefore(from) && !id.getDay().isAfter(to)) {
+                merge(id, sketch, activityType, period, total, periods);
+            }
+        });
+        List<ActiveUsersDto.Period> periodCounts = periods.entrySet()
+                                                          .stream()
+                                                          .map(entry -> new ActiveUsersDto.Period(entry.getKey(), entry.getValue().estimate()))
+                                                          .toList();
+        return new ActiveUsersDto(from, to, activityType, total.estimate(), periodCounts);
+    }
+
+    private static void merge(ActiveUserSketchId id,
+                              HyperLogLog sketch,
+                              @Nullable ActivityType activityType,
+                              @Nullable RollupPeriod period,
+                              HyperLogLog total,
+                              Map<LocalDate, HyperLogLog> periods) {
+        if (activityType != null && activityType != id.getActivityType()) {
+            return;
+        }
+        total.merge(sketch);
+        if (period != null) {
+            periods.computeIfAbsent(period.start(id.getDay()), start -> new HyperLogLog()).merge(sketch);
+        }
+    }
+
+    private void add(Date startTime, ActivityType activityType, Long userId) {
+        LocalDate day = startTime.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+        ActiveUserSketchId id = new ActiveUserSketchId(day, activityType);
+        sketches.computeIfAbsent(id, key -> new HyperLogLog()).add(userId);
+        dirtyIds.add(id);
+    }
+
+}
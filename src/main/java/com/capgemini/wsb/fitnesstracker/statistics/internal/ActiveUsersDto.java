@@ -0,0 +1,35 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.annotation.Nullable;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Record representing a DTO (Data Transfer Object) for the approximate number of distinct users who trained within a date range.
+ *
+ * @param from         the first day of the range
+ * @param to           the last day of the range
+ * @param activityType the activity type of the counted trainings, {@code null} for all activities
+ * @param activeUsers  the approximate number of distinct users within the whole range
+ * @param periods      the approximate number of distinct users within every day or week of the range, if requested
+ */
+record ActiveUsersDto(@JsonFormat(pattern = "yyyy-MM-dd") LocalDate from,
+                      @JsonFormat(pattern = "yyyy-MM-dd") LocalDate to,
+                      @Nullable ActivityType activityType,
+                      long activeUsers,
+                      List<Period> periods) {
+
+    /**
+     * Approximate number of distinct users within a single day or week.
+     *
+     * @param periodStart the first day of the period
+     * @param activeUsers the approximate number of distinct users within the period
+     */
+    record Period(@JsonFormat(pattern = "yyyy-MM-dd") LocalDate periodStart, long activeUsers) {
+
+    }
+
+}
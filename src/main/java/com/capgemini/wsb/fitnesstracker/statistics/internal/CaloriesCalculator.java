@@ -0,0 +1,52 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Estimates calories burned during the training from its duration, using the MET (metabolic equivalent of task) of the activity
+ * and a reference body weight.
+ */
+@Component
+class CaloriesCalculator {
+
+    private static final double REFERENCE_WEIGHT_KG = 70.0;
+
+    private static final double MILLIS_PER_HOUR = 3_600_000.0;
+
+    private static final Map<ActivityType, Double> METS = new EnumMap<>(Map.of(
+            ActivityType.RUNNING, 9.8,
+            ActivityType.CYCLING, 7.5,
+            ActivityType.WALKING, 3.5,
+            ActivityType.SWIMMING, 8.0,
+            ActivityType.TENNIS, 7.3));
+
+    /**
+     * Estimates calories burned during the training.
+     *
+     * @param training the training to be evaluated
+     * @return the estimated number of kilocalories, {@code 0} for trainings with non-positive duration
+     */
+    int caloriesBurned(Training training) {
+        return caloriesBurned(training.getActivityType(), training.getEndTime().getTime() - training.getStartTime().getTime());
+    }
+
+    /**
+     * Estimates calories burned during the activity of the given duration.
+     *
+     * @param activityType   the type of the activity
+     * @param durationMillis the duration of the activity, in milliseconds
+     * @return the estimated number of kilocalories, {@code 0} for non-positive duration
+     */
+    int caloriesBurned(ActivityType activityType, long durationMillis) {
+        if (durationMillis <= 0) {
+            return 0;
+        }
+        return (int) Math.round(METS.get(activityType) * REFERENCE_WEIGHT_KG * durationMillis / MILLIS_PER_HOUR);
+    }
+
+}
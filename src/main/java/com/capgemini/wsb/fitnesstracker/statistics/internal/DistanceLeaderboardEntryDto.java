@@ -0,0 +1,12 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+/**
+ * Record representing a DTO (Data Transfer Object) for a position of a user on the weekly distance leaderboard.
+ *
+ * @param rank     the one-based position on the leaderboard
+ * @param userId   the ID of the user
+ * @param distance the total distance of the user in the current week
+ */
+record DistanceLeaderboardEntryDto(int rank, Long userId, double distance) {
+
+}
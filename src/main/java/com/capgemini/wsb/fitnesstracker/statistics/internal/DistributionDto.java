@@ -0,0 +1,16 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+
+/**
+ * Record representing a DTO (Data Transfer Object) for the distribution of a metric of the trainings of a single activity type.
+ * Percentiles are approximated within the precision of the underlying histogram.
+ */
+record DistributionDto(ActivityType activityType,
+                       DistributionMetric metric,
+                       long count,
+                       double p50,
+                       double p90,
+                       double p99) {
+
+}
@@ -0,0 +1,23 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+/**
+ * Attribute of a training whose distribution is tracked by the {@link TrainingDistributionService}.
+ */
+public enum DistributionMetric {
+
+    /**
+     * Average speed of the training.
+     */
+    AVERAGE_SPEED,
+
+    /**
+     * Distance of the training.
+     */
+    DISTANCE,
+
+    /**
+     * Duration of the training in milliseconds.
+     */
+    DURATION
+
+}
@@ -0,0 +1,96 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+/**
+ * HyperLogLog sketch estimating the number of distinct IDs added to it, with {@value #REGISTERS} one-byte registers
+ * (precision 12, standard error about 1.6%). Sketches are merged by taking the register-wise maximum,
+ * so the sketch of a date range is the merge of the sketches of its days.
+ * Thread-safe.
+ */
+class HyperLogLog {
+
+    private static final int PRECISION = 12;
+
+    static final int REGISTERS = 1 << PRECISION;
+
+    private static final double ALPHA = 0.7213 / (1 + 1.079 / REGISTERS);
+
+    private final byte[] registers;
+
+    HyperLogLog() {
+        this(new byte[REGISTERS]);
+    }
+
+    private HyperLogLog(byte[] registers) {
+        this.registers = registers;
+    }
+
+    /**
+     * Restores the sketch from its serialized registers.
+     *
+     * @param registers registers returned by {@link #toBytes()}
+     * @return the restored sketch
+     * @throws IllegalArgumentException if the number of registers does not match
+     */
+    static HyperLogLog fromBytes(byte[] registers) {
+        if (registers.length != REGISTERS) {
+            throw new IllegalArgumentException("Expected %s registers, got %s".formatted(REGISTERS, registers.length));
+        }
+        return new HyperLogLog(registers.clone());
+    }
+
+    synchronized void add(long id) {
+        long hash = mix(id);
+        int index = (int) (hash >>> (Long.SIZE - PRECISION));
+        // position of the first 1-bit of the remaining bits, the sentinel bit bounds it for an all-zero remainder
+        byte rank = (byte) (Long.numberOfLeadingZeros((hash << PRECISION) | (1L << (PRECISION - 1))) + 1);
+        if (registers[index] < rank) {
+            registers[index] = rank;
+        }
+    }
+
+    void merge(HyperLogLog other) {
+        byte[] otherRegisters = other.toBytes();
+        synchronized (this) {
+            for (int i = 0; i < REGISTERS; i++) {
+                if (registers[i] < otherRegisters[i]) {
+                    registers[i] = otherRegisters[i];
+                }
+            }
+        }
+    }
+
+    synchronized long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += Math.scalb(1.0, -register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = ALPHA * REGISTERS * REGISTERS / sum;
+        if (estimate <= 2.5 * REGISTERS && zeros > 0) {
+            // linear counting is more accurate for small cardinalities
+            estimate = REGISTERS * Math.log((double) REGISTERS / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    synchronized byte[] toBytes() {
+        return registers.clone();
+    }
+
+    /**
+     * Finalizer of the MurmurHash3 64-bit hash, spreading sequential IDs over all bits.
+     */
+    private static long mix(long value) {
+        long hash = value;
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+}
@@ -0,0 +1,211 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.statistics.api.Statistics;
+import com.capgemini.wsb.fitnesstracker.statistics.api.StatisticsProvider;
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingDistanceChangedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingsCreatedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Implementation of the {@link StatisticsProvider} keeping running totals of every user in memory.
+ * Totals are kept in striped {@link LongAdder}/{@link DoubleAdder} cells, so concurrent training writes never contend on a single lock,
+ * and reads never touch the database. Deltas accumulated since the last flush are written to the {@code statistics} table asynchronously.
+ * Training transactions lock the {@link StatisticsPartitionLocks partitions} of their users until their deltas are recorded,
+ * so a partition rebuilt by the {@link StatisticsRebuildJob} replaces exactly the deltas of the trainings its scan has seen.
+ * Active with {@code statistics.mode=in-memory}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "statistics.mode", havingValue = "in-memory")
+class InMemoryStatisticsAggregator implements StatisticsProvider {
+
+    private final StatisticsRepository statisticsRepository;
+
+    private final StatisticsStore statisticsStore;
+
+    private final CaloriesCalculator caloriesCalculator;
+
+    private final StatisticsPartitionLocks partitionLocks;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Long, Cells> totals = new ConcurrentHashMap<>();
+
+    private final Map<Long, Cells> pending = new ConcurrentHashMap<>();
+
+    private final Set<Long> dirtyUserIds = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Loads the totals persisted by previous runs; this is the only read of the {@code statistics} table.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadTotals() {
+        statisticsRepository.findAll().forEach(statistics -> totals.computeIfAbsent(statistics.getId(), id -> new Cells())
+                                                                   .add(new StatisticsDelta(statistics.getTotalTrainings(),
+                                                                                            statistics.getTotalDistance(),
+                                                                                            statistics.getTotalCaloriesBurned())));
+        log.info("Loaded statistics of {} users", totals.size());
+    }
+
+    /**
+     * Replaces the totals of the users of the rebuilt partition; their pending deltas are dropped, as the rebuild already includes them.
+     * Called while the partition is locked, so no training of its users commits in between.
+     */
+    @EventListener
+    public void onStatisticsRebuilt(StatisticsRebuiltEvent event) {
+        for (long userId = event.fromUserId(); userId < event.toUserId(); userId++) {
+            dirtyUserIds.remove(userId);
+            pending.remove(userId);
+            totals.remove(userId);
+        }
+        event.totals().forEach((userId, delta) -> totals.computeIfAbsent(userId, id -> new Cells()).add(delta));
+    }
+
+    /**
+     * Locks the partitions of the users within the training transaction, the lock is released once the deltas are recorded after the commit.
+     */
+    @EventListener
+    public void lockTrainingsCreated(TrainingsCreatedEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            partitionLocks.lockForTransaction(event.trainings().stream().map(training -> training.getUser().getId()).toList());
+        }
+    }
+
+    @EventListener
+    public void lockTrainingDistanceChanged(TrainingDistanceChangedEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            partitionLocks.lockForTransaction(List.of(event.training().getUser().getId()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTrainingsCreated(TrainingsCreatedEvent event) {
+        for (Training training : event.trainings()) {
+            record(training.getUser().getId(), new StatisticsDelta(1, training.getDistance(), caloriesCalculator.caloriesBurned(training)));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTrainingDistanceChanged(TrainingDistanceChangedEvent event) {
+        record(event.training().getUser().getId(), new StatisticsDelta(0, event.distanceDelta(), 0));
+    }
+
+    /**
+     * Retrieves the statistics of the user from memory.
+     *
+     * @param statisticsId the ID of the statistics (the user)
+     * @return an {@link Optional} containing a detached snapshot of the statistics, or {@link Optional#empty()} if the user has no trainings
+     */
+    @Override
+    public Optional<Statistics> getStatistics(final Long statisticsId) {
+        return Optional.ofNullable(totals.get(statisticsId)).map(cells -> {
+            StatisticsDelta sum = cells.sum();
+            Statistics statistics = new Statistics(null, sum.trainings(), sum.distance(), sum.calories());
+            statistics.setId(statisticsId);
+            return statistics;
+        });
+    }
+
+    /**
+     * Writes deltas accumulated since the previous flush to the {@code statistics} table, in a single transaction.
+     * The partitions of the users are locked before the deltas are taken, so a rebuild never sees them both taken and unwritten.
+     * Deltas of a failed flush are returned to the pending cells before the partitions are unlocked and retried by the next one.
+     */
+    @Scheduled(fixedDelayString = "${statistics.in-memory.flush-interval:PT5S}")
+    public void flush() {
+        if (dirtyUserIds.isEmpty()) {
+            return;
+        }
+        Map<Long, StatisticsDelta> deltas = new HashMap<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int completionStatus) {
+                        if (completionStatus != STATUS_COMMITTED) {
+                            deltas.forEach(InMemoryStatisticsAggregator.this::restore);
+                        }
+                    }
+                });
+                List<Long> userIds = List.copyOf(dirtyUserIds);
+                partitionLocks.lockForTransaction(userIds);
+                for (Long userId : userIds) {
+                    dirtyUserIds.remove(userId);
+                    Cells cells = pending.get(userId);
+                    if (cells == null) {
+                        continue;
+                    }
+                    StatisticsDelta delta = cells.sumThenReset();
+                    if (!delta.isZero()) {
+                        deltas.put(userId, delta);
+                    }
+                }
+                statisticsStore.applyAll(deltas);
+            });
+            if (!deltas.isEmpty()) {
+                log.debug("Flushed statistics of {} users", deltas.size());
+            }
+        } catch (RuntimeException e) {
+            log.warn("Flushing statistics of {} users failed, will be retried", deltas.size(), e);
+        }
+    }
+
+    private void restore(Long userId, StatisticsDelta delta) {
+        pending.computeIfAbsent(userId, id -> new Cells()).add(delta);
+        dirtyUserIds.add(userId);
+    }
+
+    private void record(Long userId, StatisticsDelta delta) {
+        totals.computeIfAbsent(userId, id -> new Cells()).add(delta);
+        pending.computeIfAbsent(userId, id -> new Cells()).add(delta);
+        dirtyUserIds.add(userId);
+    }
+
+    /**
+     * Striped counters of the totals of a single user.
+     */
+    private static final class Cells {
+
+        private final LongAdder trainings = new LongAdder();
+
+        private final DoubleAdder distance = new DoubleAdder();
+
+        private final LongAdder calories = new LongAdder();
+
+        void add(StatisticsDelta delta) {
+            trainings.add(delta.trainings());
+            distance.add(delta.distance());
+            calories.add(delta.calories());
+        }
+
+        StatisticsDelta sum() {
+            return new StatisticsDelta(trainings.intValue(), distance.sum(), calories.intValue());
+        }
+
+        StatisticsDelta sumThenReset() {
+            return new StatisticsDelta((int) trainings.sumThenReset(), distance.sumThenReset(), (int) calories.sumThenReset());
+        }
+    }
+
+}
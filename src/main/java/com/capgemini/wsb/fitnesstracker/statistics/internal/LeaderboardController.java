@@ -0,0 +1,65 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Controller for handling requests related to per-activity leaderboards.
+ */
+@RestController
+@RequestMapping("/v1/leaderboards")
+@RequiredArgsConstructor
+class LeaderboardController {
+
+    private final LeaderboardService leaderboardService;
+
+    /**
+     * Retrieves the users with the greatest total distance of the activity type in the current week.
+     *
+     * @param activityType The activity type of the leaderboard.
+     * @param limit        The number of returned positions.
+     * @return A list of {@link DistanceLeaderboardEntryDto} ordered by rank.
+     */
+    @GetMapping("/{activityType}/distance")
+    public List<DistanceLeaderboardEntryDto> getTopDistances(@PathVariable ActivityType activityType,
+                                                             @RequestParam(defaultValue = "10") int limit) {
+        return leaderboardService.findTopDistances(activityType, limit);
+    }
+
+    /**
+     * Retrieves the position of a user on the weekly distance leaderboard of the activity type.
+     *
+     * @param activityType The activity type of the leaderboard.
+     * @param userId       The ID of the user.
+     * @return The {@link DistanceLeaderboardEntryDto} of the user, or 404 if the user has no such training this week.
+     */
+    @GetMapping("/{activityType}/distance/user/{userId}")
+    public ResponseEntity<DistanceLeaderboardEntryDto> getDistanceRank(@PathVariable ActivityType activityType,
+                                                                       @PathVariable Long userId) {
+        return leaderboardService.findDistanceRank(activityType, userId)
+                                 .map(ResponseEntity::ok)
+                                 .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Retrieves the trainings of the activity type with the greatest average speed.
+     *
+     * @param activityType The activity type of the leaderboard.
+     * @param limit        The number of returned positions.
+     * @return A list of {@link SpeedLeaderboardEntryDto} ordered by rank.
+     */
+    @GetMapping("/{activityType}/speed")
+    public List<SpeedLeaderboardEntryDto> getTopSpeeds(@PathVariable ActivityType activityType,
+                                                       @RequestParam(defaultValue = "10") int limit) {
+        return leaderboardService.findTopSpeeds(activityType, limit);
+    }
+
+}
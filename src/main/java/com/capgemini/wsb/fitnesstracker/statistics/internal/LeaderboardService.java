@@ -0,0 +1,278 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.exception.api.BusinessException;
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingDistanceChangedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingProvider;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingsCreatedEvent;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+/**
+ * Keeps per-activity leaderboards in memory: users ranked by their total distance in the current week,
+ * and single trainings ranked by their average speed.
+ * Both rankings are {@link OrderStatisticTree order-statistic trees} updated from every committed training write,
+ * so serving the top of a leaderboard or the rank of a user costs O(log n + k), independently of the number of trainings.
+ * The leaderboards are bootstrapped on startup from the weekly {@link TrainingRollup rollups} and the fastest trainings.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+class LeaderboardService {
+
+    static final int MAX_LIMIT = 100;
+
+    private static final Comparator<UserDistance> DISTANCE_ORDER = Comparator.comparingDouble(UserDistance::distance)
+                                                                             .reversed()
+                                                                             .thenComparingLong(UserDistance::userId);
+
+    private static final Comparator<Session> SPEED_ORDER = Comparator.comparingDouble(Session::averageSpeed)
+                                                                     .reversed()
+                                                                     .thenComparingLong(Session::trainingId);
+
+    private final TrainingRollupRepository trainingRollupRepository;
+
+    private final TrainingProvider trainingProvider;
+
+    private final Map<ActivityType, Board> boards = createBoards();
+
+    /**
+     * Loads the distances of the current week from the weekly rollups and the fastest trainings of every activity type.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void bootstrap() {
+        LocalDate weekStart = currentWeekStart();
+        for (TrainingRollup rollup : trainingRollupRepository.findByIdPeriodAndIdPeriodStart(RollupPeriod.WEEK, weekStart)) {
+            boards.get(rollup.getId().getActivityType()).addDistance(rollup.getId().getUserId(), weekStart, rollup.getTotalDistance(), weekStart);
+        }
+        for (ActivityType activityType : ActivityType.values()) {
+            Board board = boards.get(activityType);
+            trainingProvider.findFastestTrainings(activityType, MAX_LIMIT).forEach(training -> board.offer(sessionOf(training)));
+        }
+        log.info("Leaderboards of the week starting {} loaded", weekStart);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTrainingsCreated(TrainingsCreatedEvent event) {
+        LocalDate currentWeekStart = currentWeekStart();
+        for (Training training : event.trainings()) {
+            Board board = boards.get(training.getActivityType());
+            board.addDistance(training.getUser().getId(), weekStartOf(training), training.getDistance(), currentWeekStart);
+            board.offer(sessionOf(training));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTrainingDistanceChanged(TrainingDistanceChangedEvent event) {
+        Training training = event.training();
+        boards.get(training.getActivityType())
+              .addDistance(training.getUser().getId(), weekStartOf(training), event.distanceDelta(), currentWeekStart());
+    }
+
+    /**
+     * Retrieves the users with the greatest total distance of the activity type in the current week.
+     *
+     * @param activityType the activity type of the leaderboard
+     * @param limit        the number of returned positions, at most {@value #MAX_LIMIT}
+     * @return a list of leaderboard positions, ordered by rank
+     * @throws BusinessException if the limit is out of range
+     */
+    List<DistanceLeaderboardEntryDto> findTopDistances(ActivityType activityType, int limit) {
+        checkLimit(limit);
+        List<UserDistance> top = boards.get(activityType).topDistances(limit, currentWeekStart());
+        return IntStream.range(0, top.size())
+                        .mapToObj(index -> new DistanceLeaderboardEntryDto(index + 1, top.get(index).userId(), top.get(index).distance()))
+                        .toList();
+    }
+
+    /**
+     * Retrieves the position of the user on the weekly distance leaderboard of the activity type.
+     *
+     * @param activityType the activity type of the leaderboard
+     * @param userId       the ID of the user
+     * @return an {@link Optional} containing the position of the user, or {@link Optional#empty()} if the user has no such training this week
+     */
+    Optional<DistanceLeaderboardEntryDto> findDistanceRank(ActivityType activityType, Long userId) {
+        return boards.get(activityType).distanceRank(userId, currentWeekStart());
+    }
+
+    /**
+     * Retrieves the trainings of the activity type with the greatest average speed.
+     *
+     * @param activityType the activity type of the leaderboard
+     * @param limit        the number of returned positions, at most {@value #MAX_LIMIT}
+     * @return a list of leaderboard positions, ordered by rank
+     * @throws BusinessException if the limit is out of range
+     */
+    List<SpeedLeaderboardEntryDto> findTopSpeeds(ActivityType activityType, int limit) {
+        checkLimit(limit);
+        List<Session> top = boards.get(activityType).topSpeeds(limit);
+        return IntStream.range(0, top.size())
+                        .mapToObj(index -> new SpeedLeaderboardEntryDto(index + 1,
+                                                                        top.get(index).trainingId(),
+                                                                        top.get(index).userId(),
+                                                                        top.get(index).averageSpeed()))
+                        .toList();
+    }
+
+    private static void checkLimit(int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new BusinessException("Leaderboard limit has to be between 1 and %s, was %s".formatted(MAX_LIMIT, limit));
+        }
+    }
+
+    private static Session sessionOf(Training training) {
+        return new Session(training.getId(), training.getUser().getId(), training.getAverageSpeed());
+    }
+
+    private static LocalDate weekStartOf(Training training) {
+        return RollupPeriod.WEEK.start(training.getStartTime().toInstant().atZone(ZoneId.systemDefault()).toLocalDate());
+    }
+
+    private static LocalDate currentWeekStart() {
+        return RollupPeriod.WEEK.start(LocalDate.now());
+    }
+
+    private static Map<ActivityType, Board> createBoards() {
+        Map<ActivityType, Board> boards = new HashMap<>();
+        for (ActivityType activityType : ActivityType.values()) {
+            boards.put(activityType, new Board());
+        }
+        return boards;
+    }
+
+    record UserDistance(long userId, double distance) {
+
+    }
+
+    record Session(long trainingId, long userId, double averageSpeed) {
+
+    }
+
+    /**
+     * Both leaderboards of a single activity type, guarded by a single lock.
+     */
+    static final class Board {
+
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+        private final Map<Long, Double> weeklyDistances = new HashMap<>();
+
+        private final OrderStatisticTree<UserDistance> distanceRanking = new OrderStatisticTree<>(DISTANCE_ORDER);
+
+        private final OrderStatisticTree<Session> speedRanking = new OrderStatisticTree<>(SPEED_ORDER);
+
+        private LocalDate weekStart = currentWeekStart();
+
+        void addDistance(long userId, LocalDate trainingWeekStart, double delta, LocalDate currentWeekStart) {
+            lock.writeLock().lock();
+            try {
+                rollOver(currentWeekStart);
+                if (!trainingWeekStart.equals(weekStart)) {
+                    return;
+                }
+                Double previous = weeklyDistances.get(userId);
+                if (previous != null) {
+                    distanceRanking.remove(new UserDistance(userId, previous));
+                }
+                double distance = (previous == null ? 0 : previous) + delta;
+                weeklyDistances.put(userId, distance);
+                distanceRanking.add(new UserDistance(userId, distance));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void offer(Session session) {
+            lock.writeLock().lock();
+            try {
+                Session slowest = speedRanking.last();
+                if (speedRanking.size() >= MAX_LIMIT && slowest != null && SPEED_ORDER.compare(session, slowest) >= 0) {
+                    return;
+                }
+                speedRanking.add(session);
+                if (speedRanking.size() > MAX_LIMIT) {
+                    speedRanking.remove(speedRanking.last());
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        List<UserDistance> topDistances(int limit, LocalDate currentWeekStart) {
+            rollOverIfStale(currentWeekStart);
+            lock.readLock().lock();
+            try {
+                return distanceRanking.head(limit);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        Optional<DistanceLeaderboardEntryDto> distanceRank(long userId, LocalDate currentWeekStart) {
+            rollOverIfStale(currentWeekStart);
+            lock.readLock().lock();
+            try {
+                Double distance = weeklyDistances.get(userId);
+                if (distance == null) {
+                    return Optional.empty();
+                }
+                int rank = distanceRanking.rank(new UserDistance(userId, distance));
+                return Optional.of(new DistanceLeaderboardEntryDto(rank + 1, userId, distance));
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        List<Session> topSpeeds(int limit) {
+            lock.readLock().lock();
+            try {
+                return speedRanking.head(limit);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private void rollOverIfStale(LocalDate currentWeekStart) {
+            lock.readLock().lock();
+            try {
+                if (!currentWeekStart.isAfter(weekStart)) {
+                    return;
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            lock.writeLock().lock();
+            try {
+                rollOver(currentWeekStart);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private void rollOver(LocalDate currentWeekStart) {
+            if (currentWeekStart.isAfter(weekStart)) {
+                weeklyDistances.clear();
+                distanceRanking.clear();
+                weekStart = currentWeekStart;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,91 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-memory, log-linear histogram of positive values (in the spirit of HdrHistogram).
+ * Every power of two between 2^{@value #MIN_EXPONENT} and 2^{@value #MAX_EXPONENT} is split into {@value #SUB_BUCKETS} linear buckets,
+ * so a value is reported with a relative error below 1/{@value #SUB_BUCKETS}. Smaller values fall into the first bucket, greater ones into the last.
+ * Recording is lock-free and percentile queries scan the fixed number of buckets, independently of the number of recorded values.
+ */
+class LogHistogram {
+
+    private static final int SUB_BUCKET_BITS = 6;
+
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private static final int MIN_EXPONENT = -10;
+
+    private static final int MAX_EXPONENT = 40;
+
+    private static final int BUCKETS = (MAX_EXPONENT - MIN_EXPONENT + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    private final AtomicLong totalCount = new AtomicLong();
+
+    void record(double value) {
+        counts.incrementAndGet(indexOf(value));
+        totalCount.incrementAndGet();
+    }
+
+    /**
+     * Removes a previously recorded value, e.g. when the value has been updated.
+     *
+     * @param value the previously recorded value
+     */
+    void remove(double value) {
+        counts.decrementAndGet(indexOf(value));
+        totalCount.decrementAndGet();
+    }
+
+    long count() {
+        return totalCount.get();
+    }
+
+    /**
+     * Finds the value at the given percentile, using the nearest-rank method.
+     *
+     * @param percentile the percentile within {@code (0, 100]}
+     * @return the middle of the bucket holding the value at the percentile, or {@code 0} if the histogram is empty
+     */
+    double valueAtPercentile(double percentile) {
+        long count = totalCount.get();
+        if (count <= 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long cumulative = 0;
+        for (int index = 0; index < BUCKETS; index++) {
+            cumulative += counts.get(index);
+            if (cumulative >= rank) {
+                return middleOf(index);
+            }
+        }
+        // concurrent removals may leave the buckets behind the total count
+        return middleOf(BUCKETS - 1);
+    }
+
+    private static int indexOf(double value) {
+        if (!(value > 0)) {
+            return 0;
+        }
+        int exponent = Math.getExponent(value);
+        if (exponent < MIN_EXPONENT) {
+            return 0;
+        }
+        if (exponent > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        int subBucket = (int) (Double.doubleToRawLongBits(value) >>> (52 - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - MIN_EXPONENT) * SUB_BUCKETS + subBucket;
+    }
+
+    private static double middleOf(int index) {
+        int exponent = index / SUB_BUCKETS + MIN_EXPONENT;
+        int subBucket = index % SUB_BUCKETS;
+        return Math.scalb(1.0 + (subBucket + 0.5) / SUB_BUCKETS, exponent);
+    }
+
+}
@@ -0,0 +1,223 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import jakarta.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Randomized balanced search tree (treap) whose nodes know the size of their subtree,
+ * so the rank of an element and the element at a rank are found in O(log n).
+ * Not thread-safe; callers have to guard it with their own lock.
+ *
+ * @param <E> type of the elements, distinct according to the comparator
+ */
+class OrderStatisticTree<E> {
+
+    private final Comparator<? super E> comparator;
+
+    private final SplittableRandom random = new SplittableRandom();
+
+    @Nullable
+    private Node<E> root;
+
+    OrderStatisticTree(Comparator<? super E> comparator) {
+        this.comparator = comparator;
+    }
+
+    int size() {
+        return size(root);
+    }
+
+    /**
+     * Inserts the element, unless an equal element is already present.
+     *
+     * @param element element to be inserted
+     */
+    void add(E element) {
+        root = insert(root, new Node<>(element, random.nextInt()));
+    }
+
+    /**
+     * Removes the element equal to the given one, if present.
+     *
+     * @param element element to be removed
+     */
+    void remove(E element) {
+        root = delete(root, element);
+    }
+
+    /**
+     * Finds the zero-based position of the element in the ascending order.
+     *
+     * @param element element to be ranked
+     * @return the rank of the element, or {@code -1} if not present
+     */
+    int rank(E element) {
+        int rank = 0;
+        Node<E> node = root;
+        while (node != null) {
+            int comparison = comparator.compare(element, node.element);
+            if (comparison < 0) {
+                node = node.left;
+            } else if (comparison > 0) {
+                rank += size(node.left) + 1;
+                node = node.right;
+            } else {
+                return rank + size(node.left);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Retrieves the last element in the ascending order.
+     *
+     * @return the greatest element, or {@code null} if the tree is empty
+     */
+    @Nullable
+    E last() {
+        Node<E> node = root;
+        if (node == null) {
+            return null;
+        }
+        while (node.right != null) {
+            node = node.right;
+        }
+        return node.element;
+    }
+
+    /**
+     * Retrieves the first elements in the ascending order.
+     *
+     * @param limit maximal number of returned elements
+     * @return list of at most {@code limit} smallest elements, in ascending order
+     */
+    List<E> head(int limit) {
+        List<E> result = new ArrayList<>(Math.min(limit, size()));
+        collect(root, limit, result);
+        return result;
+    }
+
+    void clear() {
+        root = null;
+    }
+
+    private void collect(@Nullable Node<E> node, int limit, List<E> result) {
+        if (node == null || result.size() >= limit) {
+            return;
+        }
+        collect(node.left, limit, result);
+        if (result.size() < limit) {
+            result.add(node.element);
+            collect(node.right, limit, result);
+        }
+    }
+
+    private Node<E> insert(@Nullable Node<E> node, Node<E> inserted) {
+        if (node == null) {
+            return inserted;
+        }
+        int comparison = comparator.compare(inserted.element, node.element);
+        if (comparison == 0) {
+            return node;
+        }
+        if (comparison < 0) {
+            node.left = insert(node.left, inserted);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, inserted);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        update(node);
+        return node;
+    }
+
+    @Nullable
+    private Node<E> delete(@Nullable Node<E> node, E element) {
+        if (node == null) {
+            return null;
+        }
+        int comparison = comparator.compare(element, node.element);
+        if (comparison < 0) {
+            node.left = delete(node.left, element);
+        } else if (comparison > 0) {
+            node.right = delete(node.right, element);
+        } else {
+            return merge(node.left, node.right);
+        }
+        update(node);
+        return node;
+    }
+
+    @Nullable
+    private Node<E> merge(@Nullable Node<E> left, @Nullable Node<E> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            update(left);
+            return left;
+        }
+        right.left = merge(left, right.left);
+        update(right);
+        return right;
+    }
+
+    private Node<E> rotateRight(Node<E> node) {
+        Node<E> left = node.left;
+        node.left = left.right;
+        left.right = node;
+        update(node);
+        update(left);
+        return left;
+    }
+
+    private Node<E> rotateLeft(Node<E> node) {
+        Node<E> right = node.right;
+        node.right = right.left;
+        right.left = node;
+        update(node);
+        update(right);
+        return right;
+    }
+
+    private static void update(Node<?> node) {
+        node.size = size(node.left) + size(node.right) + 1;
+    }
+
+    private static int size(@Nullable Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static final class Node<E> {
+
+        private final E element;
+
+        private final int priority;
+
+        @Nullable
+        private Node<E> left;
+
+        @Nullable
+        private Node<E> right;
+
+        private int size = 1;
+
+        private Node(E element, int priority) {
+            this.element = element;
+            this.priority = priority;
+        }
+    }
+
+}
@@ -0,0 +1,40 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * Length of the period aggregated by a single {@link TrainingRollup} bucket.
+ */
+public enum RollupPeriod {
+
+    /**
+     * Calendar day.
+     */
+    DAY {
+        @Override
+        LocalDate start(LocalDate date) {
+            return date;
+        }
+    },
+
+    /**
+     * ISO week, starting on Monday.
+     */
+    WEEK {
+        @Override
+        LocalDate start(LocalDate date) {
+            return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        }
+    };
+
+    /**
+     * Finds the first day of the period containing the given date.
+     *
+     * @param date the date within the period
+     * @return the first day of the period
+     */
+    abstract LocalDate start(LocalDate date);
+
+}
@@ -0,0 +1,13 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+/**
+ * Record representing a DTO (Data Transfer Object) for a position of a single training on the speed leaderboard.
+ *
+ * @param rank         the one-based position on the leaderboard
+ * @param trainingId   the ID of the training
+ * @param userId       the ID of the user
+ * @param averageSpeed the average speed of the training
+ */
+record SpeedLeaderboardEntryDto(int rank, Long trainingId, Long userId, double averageSpeed) {
+
+}
@@ -0,0 +1,107 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.statistics.api.StatisticsProvider;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import jakarta.annotation.Nullable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Controller for handling requests related to training statistics.
+ */
+@RestController
+@RequestMapping("/v1/statistics")
+@RequiredArgsConstructor
+class StatisticsController {
+
+    private final StatisticsProvider statisticsProvider;
+
+    private final TrainingRollupService trainingRollupService;
+
+    private final TrainingDistributionService trainingDistributionService;
+
+    private final ActiveUserSketchService activeUserSketchService;
+
+    /**
+     * Retrieves the training statistics of a user.
+     *
+     * @param userId The ID of the user.
+     * @return The {@link StatisticsDto} of the user, or 404 if the user has no statistics.
+     */
+    @GetMapping("/user/{userId}")
+    public ResponseEntity<StatisticsDto> getUserStatistics(@PathVariable Long userId) {
+        return statisticsProvider.getStatistics(userId)
+                                 .map(statistics -> new StatisticsDto(statistics.getId(),
+                                                                      statistics.getTotalTrainings(),
+                                                                      statistics.getTotalDistance(),
+                                                                      statistics.getTotalCaloriesBurned()))
+                                 .map(ResponseEntity::ok)
+                                 .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Retrieves the daily or weekly summaries of the trainings of a user, per activity type.
+     *
+     * @param userId The ID of the user.
+     * @param period The length of the summarized period.
+     * @param from   The first day of the range.
+     * @param to     The last day of the range.
+     * @return A list of {@link TrainingRollupDto} ordered by the period start and activity type.
+     */
+    @GetMapping("/user/{userId}/rollups")
+    public List<TrainingRollupDto> getUserRollups(@PathVariable Long userId,
+                                                  @RequestParam RollupPeriod period,
+                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return trainingRollupService.findRollups(userId, period, from, to)
+                                    .stream()
+                                    .map(rollup -> new TrainingRollupDto(rollup.getId().getActivityType(),
+                                                                         rollup.getId().getPeriod(),
+                                                                         rollup.getId().getPeriodStart(),
+                                                                         rollup.getTrainingCount(),
+                                                                         rollup.getTotalDistance(),
+                                                                         rollup.getTotalDurationMillis(),
+                                                                         rollup.getMaxAverageSpeed()))
+                                    .toList();
+    }
+
+    /**
+     * Retrieves the distribution of a metric of all trainings of an activity type.
+     *
+     * @param activityType The activity type of the trainings.
+     * @param metric       The metric of the trainings.
+     * @return The {@link DistributionDto} with the 50th, 90th and 99th percentile of the metric.
+     */
+    @GetMapping("/distributions/{activityType}")
+    public DistributionDto getDistribution(@PathVariable ActivityType activityType,
+                                           @RequestParam DistributionMetric metric) {
+        return trainingDistributionService.getDistribution(activityType, metric);
+    }
+
+    /**
+     * Retrieves the approximate number of distinct users who trained within a date range.
+     *
+     * @param from         The first day of the range.
+     * @param to           The last day of the range.
+     * @param activityType The activity type of the trainings, all activities if not given.
+     * @param period       The length of the periods to be counted separately, the whole range only if not given.
+     * @return The {@link ActiveUsersDto} of the range.
+     */
+    @GetMapping("/active-users")
+    public ActiveUsersDto getActiveUsers(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                         @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                         @RequestParam(required = false) @Nullable ActivityType activityType,
+                                         @RequestParam(required = false) @Nullable RollupPeriod period) {
+        return activeUserSketchService.countActiveUsers(from, to, activityType, period);
+    }
+
+}
@@ -0,0 +1,20 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+/**
+ * Change of the statistics totals of a single user.
+ *
+ * @param trainings change of the number of trainings
+ * @param distance  change of the total distance, in kilometers
+ * @param calories  change of the total calories burned
+ */
+record StatisticsDelta(int trainings, double distance, int calories) {
+
+    StatisticsDelta plus(StatisticsDelta other) {
+        return new StatisticsDelta(trainings + other.trainings, distance + other.distance, calories + other.calories);
+    }
+
+    boolean isZero() {
+        return trainings == 0 && distance == 0.0 && calories == 0;
+    }
+
+}
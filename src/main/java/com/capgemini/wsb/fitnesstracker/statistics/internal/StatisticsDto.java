@@ -0,0 +1,11 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+/**
+ * Record representing a DTO (Data Transfer Object) for the statistics of a user.
+ */
+record StatisticsDto(Long userId,
+                     int totalTrainings,
+                     double totalDistance,
+                     int totalCaloriesBurned) {
+
+}
@@ -0,0 +1,121 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Striped read-write locks serializing the statistics writes of users with the {@link StatisticsRebuildJob rebuild} of their partition.
+ * Transactions writing statistics share the lock of the partition of every affected user until they complete, while the rebuild
+ * of a partition holds its exclusive lock from the scan of the trainings until the statistics are rewritten.
+ * So every training write is either seen by the scan, or applied as a delta after the partition has been rewritten.
+ * Partitions of {@value #PARTITION_SIZE} user IDs are mapped to {@value #STRIPES} lock stripes; the locks are local to this node.
+ */
+@Component
+class StatisticsPartitionLocks {
+
+    /**
+     * Number of user IDs of a single partition, partitions start at multiples of it.
+     */
+    static final long PARTITION_SIZE = 5_000;
+
+    private static final int STRIPES = 64;
+
+    private static final long BARGING_PAUSE_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final ReentrantReadWriteLock[] locks = new ReentrantReadWriteLock[STRIPES];
+
+    StatisticsPartitionLocks() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantReadWriteLock();
+        }
+    }
+
+    /**
+     * @param userId the ID of the user
+     * @return the first user ID of the partition of the user
+     */
+    static long partitionStart(long userId) {
+        return Math.floorDiv(userId, PARTITION_SIZE) * PARTITION_SIZE;
+    }
+
+    /**
+     * Takes the shared locks of the partitions of the users, held until the current transaction completes.
+     * Stripes are taken in ascending order, so transactions waiting for each other's rebuilds never deadlock;
+     * a stripe below the ones already held by the transaction is only waited for while a rebuild holds it.
+     *
+     * @param userIds the IDs of the users whose statistics are written by the transaction
+     * @throws IllegalStateException if no transaction synchronization is active
+     */
+    void lockForTransaction(Collection<Long> userIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Statistics partitions can only be locked within a transaction");
+        }
+        HeldStripes held = (HeldStripes) TransactionSynchronizationManager.getResource(this);
+        if (held == null) {
+            held = new HeldStripes();
+            TransactionSynchronizationManager.bindResource(this, held);
+            TransactionSynchronizationManager.registerSynchronization(held);
+        }
+        int[] stripes = userIds.stream().mapToInt(StatisticsPartitionLocks::stripe).distinct().sorted().toArray();
+        for (int stripe : stripes) {
+            if (held.stripes.contains(stripe)) {
+                continue;
+            }
+            Lock lock = locks[stripe].readLock();
+            if (held.stripes.isEmpty() || stripe > held.stripes.last()) {
+                lock.lock();
+            } else {
+                // waiting in the queue behind a rebuild could close a cycle with the higher stripes held,
+                // a rebuild holding the stripe never waits for readers, so it is awaited outside the queue
+                while (!lock.tryLock()) {
+                    LockSupport.parkNanos(BARGING_PAUSE_NANOS);
+                }
+            }
+            held.stripes.add(stripe);
+        }
+    }
+
+    /**
+     * Runs the rebuild of the partition, holding its exclusive lock.
+     * Waits for the transactions writing statistics of the users of the partition to complete.
+     *
+     * @param partitionStart the first user ID of the partition
+     * @param rebuild        the rebuild of the partition
+     */
+    void rebuildExclusively(long partitionStart, Runnable rebuild) {
+        Lock lock = locks[stripe(partitionStart)].writeLock();
+        lock.lock();
+        try {
+            rebuild.run();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static int stripe(long userId) {
+        return Math.floorMod(Math.floorDiv(userId, PARTITION_SIZE), STRIPES);
+    }
+
+    /**
+     * Stripes locked by a transaction, released once it completes.
+     */
+    private final class HeldStripes implements TransactionSynchronization {
+
+        private final TreeSet<Integer> stripes = new TreeSet<>();
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(StatisticsPartitionLocks.this);
+            stripes.forEach(stripe -> locks[stripe].readLock().unlock());
+        }
+    }
+
+}
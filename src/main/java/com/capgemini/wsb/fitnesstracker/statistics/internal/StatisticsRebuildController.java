@@ -0,0 +1,53 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Administrative controller for the full rebuild of the statistics of all users.
+ */
+@RestController
+@RequestMapping("/v1/admin/statistics/rebuild")
+@RequiredArgsConstructor
+class StatisticsRebuildController {
+
+    private final StatisticsRebuildJob statisticsRebuildJob;
+
+    /**
+     * Starts the rebuild in the background.
+     *
+     * @return The {@link StatisticsRebuildStatusDto} of the started rebuild, or 400 if a rebuild is already running.
+     */
+    @PostMapping
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public StatisticsRebuildStatusDto startRebuild() {
+        return statisticsRebuildJob.start();
+    }
+
+    /**
+     * Retrieves the progress of the last rebuild.
+     *
+     * @return The {@link StatisticsRebuildStatusDto} of the last rebuild.
+     */
+    @GetMapping
+    public StatisticsRebuildStatusDto getRebuildStatus() {
+        return statisticsRebuildJob.status();
+    }
+
+    /**
+     * Requests cancellation of the running rebuild.
+     *
+     * @return The {@link StatisticsRebuildStatusDto} of the rebuild.
+     */
+    @DeleteMapping
+    public StatisticsRebuildStatusDto cancelRebuild() {
+        return statisticsRebuildJob.cancel();
+    }
+
+}
@@ -0,0 +1,362 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.exception.api.BusinessException;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.Nullable;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Recomputes the statistics of all users from their trainings, e.g. after the calories formula has changed.
+ * Users are partitioned into ranges of {@value StatisticsPartitionLocks#PARTITION_SIZE} IDs, processed in parallel on a {@link ForkJoinPool} sized to the cores.
+ * Every partition streams the trainings of its users over plain JDBC, aggregates them in memory
+ * and writes the totals back with batched {@code MERGE} statements.
+ * A partition is rebuilt under its exclusive {@link StatisticsPartitionLocks lock}, so training writes of its users
+ * wait for the rebuild of the partition instead of being overwritten by it.
+ * Every partition is read and written in its own transaction, so a partition failing or cancelled halfway keeps its previous
+ * statistics; the {@link StatisticsRebuiltEvent} is published only once the partition has been committed.
+ */
+@Component
+@Slf4j
+class StatisticsRebuildJob {
+
+    private static final long PARTITION_SIZE = StatisticsPartitionLocks.PARTITION_SIZE;
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final int FETCH_SIZE = 1_000;
+
+    private static final ActivityType[] ACTIVITY_TYPES = ActivityType.values();
+
+    private static final String SELECT_TRAININGS = """
+            select user_id, activity_type, start_time, end_time, distance
+            from trainings
+            where user_id >= ? and user_id < ?
+            """;
+
+    private static final String MERGE_STATISTICS = """
+            merge into statistics s
+            using (values (cast(? as bigint), cast(? as integer), cast(? as double precision), cast(? as integer)))
+                as v (user_id, total_trainings, total_distance, total_calories_burned)
+            on s.user_id = v.user_id
+            when matched then update set total_trainings = v.total_trainings,
+                                         total_distance = v.total_distance,
+                                         total_calories_burned = v.total_calories_burned
+            when not matched then insert (user_id, total_trainings, total_distance, total_calories_burned)
+                                  values (v.user_id, v.total_trainings, v.total_distance, v.total_calories_burned)
+            """;
+
+    private static final String DELETE_STALE_STATISTICS = """
+            delete from statistics
+            where user_id >= ? and user_id < ?
+              and user_id not in (select t.user_id from trainings t where t.user_id >= ? and t.user_id < ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final CaloriesCalculator caloriesCalculator;
+
+    private final StatisticsPartitionLocks partitionLocks;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Timer rebuildTimer;
+
+    private final Counter trainingsCounter;
+
+    private final Counter usersCounter;
+
+    @Nullable
+    private volatile Run currentRun;
+
+    StatisticsRebuildJob(DataSource dataSource,
+                         CaloriesCalculator caloriesCalculator,
+                         StatisticsPartitionLocks partitionLocks,
+                         TransactionTemplate transactionTemplate,
+                         ApplicationEventPublisher eventPublisher,
+                         MeterRegistry meterRegistry) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(FETCH_SIZE);
+        this.caloriesCalculator = caloriesCalculator;
+        this.partitionLocks = partitionLocks;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
+        this.rebuildTimer = meterRegistry.timer("statistics.rebuild.duration");
+        this.trainingsCounter = meterRegistry.counter("statistics.rebuild.trainings");
+        this.usersCounter = meterRegistry.counter("statistics.rebuild.users");
+    }
+
+    /**
+     * Starts the rebuild in the background.
+     *
+     * @return the status of the started rebuild
+     * @throws BusinessException if a rebuild is already running
+     */
+    synchronized StatisticsRebuildStatusDto start() {
+        Run run = currentRun;
+        if (run != null && run.state == State.RUNNING) {
+            throw new BusinessException("Statistics rebuild is already running");
+        }
+        Map<String, Object> idRange = jdbcTemplate.queryForMap("select min(id) as min_id, max(id) as max_id from users");
+        Number minId = (Number) idRange.get("min_id");
+        Number maxId = (Number) idRange.get("max_id");
+        long from = minId == null ? 0 : StatisticsPartitionLocks.partitionStart(minId.longValue());
+        long to = maxId == null ? 0 : maxId.longValue() + 1;
+
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        run = new Run(pool, partitions(from, to));
+        currentRun = run;
+        pool.execute(new RebuildTask(run, from, to));
+        log.info("Statistics rebuild of users {} - {} started in {} partitions on {} threads", from, to, run.totalPartitions, pool.getParallelism());
+        return run.status();
+    }
+
+    /**
+     * Requests cancellation of the running rebuild. Partitions which were already written are kept.
+     *
+     * @return the status of the rebuild
+     */
+    StatisticsRebuildStatusDto cancel() {
+        Run run = currentRun;
+        if (run != null) {
+            run.cancelled = true;
+        }
+        return status();
+    }
+
+    StatisticsRebuildStatusDto status() {
+        Run run = currentRun;
+        return run == null
+                ? new StatisticsRebuildStatusDto(State.IDLE, null, null, 0, 0, 0, 0, 0, null)
+                : run.status();
+    }
+
+    private void rebuildRange(Run run, long from, long to) {
+        partitionLocks.rebuildExclusively(from, () -> rebuildPartition(run, from, to));
+    }
+
+    private void rebuildPartition(Run run, long from, long to) {
+        Map<Long, StatisticsDelta> rebuilt = transactionTemplate.execute(status -> writePartition(run, from, to));
+        // published while the partition is still locked, so no delta of its users is recorded in between
+        eventPublisher.publishEvent(new StatisticsRebuiltEvent(from, to, rebuilt));
+
+        long trainings = rebuilt.values().stream().mapToLong(StatisticsDelta::trainings).sum();
+        run.users.addAndGet(rebuilt.size());
+        run.trainings.addAndGet(trainings);
+        usersCounter.increment(rebuilt.size());
+        trainingsCounter.increment(trainings);
+    }
+
+    private Map<Long, StatisticsDelta> writePartition(Run run, long from, long to) {
+        Map<Long, Totals> totalsByUser = new HashMap<>();
+        jdbcTemplate.query(SELECT_TRAININGS, resultSet -> {
+            if (run.cancelled) {
+                throw new CancellationException();
+            }
+            ActivityType activityType = ACTIVITY_TYPES[resultSet.getInt(2)];
+            long durationMillis = resultSet.getTimestamp(4).getTime() - resultSet.getTimestamp(3).getTime();
+            totalsByUser.computeIfAbsent(resultSet.getLong(1), userId -> new Totals())
+                        .add(resultSet.getDouble(5), caloriesCalculator.caloriesBurned(activityType, durationMillis));
+        }, from, to);
+
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        Map<Long, StatisticsDelta> rebuilt = new HashMap<>();
+        for (Map.Entry<Long, Totals> entry : totalsByUser.entrySet()) {
+            Totals totals = entry.getValue();
+            batch.add(new Object[]{entry.getKey(), totals.trainings, totals.distance, totals.calories});
+            rebuilt.put(entry.getKey(), new StatisticsDelta(totals.trainings, totals.distance, totals.calories));
+            if (batch.size() == BATCH_SIZE) {
+                jdbcTemplate.batchUpdate(MERGE_STATISTICS, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(MERGE_STATISTICS, batch);
+        }
+        jdbcTemplate.update(DELETE_STALE_STATISTICS, from, to, from, to);
+        return rebuilt;
+    }
+
+    private static long partitions(long from, long to) {
+        return (to - from + PARTITION_SIZE - 1) / PARTITION_SIZE;
+    }
+
+    /**
+     * State of the statistics rebuild.
+     */
+    enum State {
+        IDLE, RUNNING, COMPLETED, CANCELLED, FAILED
+    }
+
+    /**
+     * Progress of a single rebuild.
+     */
+    private static final class Run {
+
+        private final ForkJoinPool pool;
+
+        private final Instant startedAt = Instant.now();
+
+        private final long totalPartitions;
+
+        private final AtomicLong completedPartitions = new AtomicLong();
+
+        private final AtomicLong users = new AtomicLong();
+
+        private final AtomicLong trainings = new AtomicLong();
+
+        private volatile State state = State.RUNNING;
+
+        private volatile boolean cancelled;
+
+        @Nullable
+        private volatile Instant finishedAt;
+
+        @Nullable
+        private volatile String error;
+
+        private Run(ForkJoinPool pool, long totalPartitions) {
+            this.pool = pool;
+            this.totalPartitions = totalPartitions;
+        }
+
+        private void finish(State state, @Nullable String error) {
+            this.error = error;
+            this.finishedAt = Instant.now();
+            this.state = state;
+            pool.shutdown();
+        }
+
+        private StatisticsRebuildStatusDto status() {
+            Instant end = finishedAt == null ? Instant.now() : finishedAt;
+            double seconds = Math.max(Duration.between(startedAt, end).toMillis(), 1) / 1000.0;
+            return new StatisticsRebuildStatusDto(state,
+                                                  startedAt,
+                                                  finishedAt,
+                                                  totalPartitions,
+                                                  completedPartitions.get(),
+                                                  users.get(),
+                                                  trainings.get(),
+                                                  trainings.get() / seconds,
+                                                  error);
+        }
+    }
+
+    /**
+     * Root task of the rebuild, recording its outcome.
+     */
+    private final class RebuildTask extends RecursiveAction {
+
+        private final Run run;
+
+        private final long from;
+
+        private final long to;
+
+        private RebuildTask(Run run, long from, long to) {
+            this.run = run;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            try {
+                if (to > from) {
+                    new RangeTask(run, from, to).invoke();
+                }
+                if (run.cancelled) {
+                    run.finish(State.CANCELLED, null);
+                    log.info("Statistics rebuild cancelled after {} users", run.users.get());
+                } else {
+                    run.finish(State.COMPLETED, null);
+                    log.info("Statistics rebuild of {} users and {} trainings completed", run.users.get(), run.trainings.get());
+                }
+            } catch (CancellationException e) {
+                run.finish(State.CANCELLED, null);
+                log.info("Statistics rebuild cancelled after {} users", run.users.get());
+            } catch (RuntimeException e) {
+                run.finish(State.FAILED, e.getMessage());
+                log.error("Statistics rebuild failed", e);
+            } finally {
+                sample.stop(rebuildTimer);
+            }
+        }
+    }
+
+    /**
+     * Task rebuilding the statistics of users within the ID range {@code [from, to)}, splitting it into halves of whole partitions.
+     */
+    private final class RangeTask extends RecursiveAction {
+
+        private final Run run;
+
+        private final long from;
+
+        private final long to;
+
+        private RangeTask(Run run, long from, long to) {
+            this.run = run;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (run.cancelled) {
+                return;
+            }
+            long partitions = partitions(from, to);
+            if (partitions > 1) {
+                long middle = from + partitions / 2 * PARTITION_SIZE;
+                invokeAll(new RangeTask(run, from, middle), new RangeTask(run, middle, to));
+                return;
+            }
+            rebuildRange(run, from, to);
+            run.completedPartitions.incrementAndGet();
+        }
+    }
+
+    /**
+     * Totals of the trainings of a single user.
+     */
+    private static final class Totals {
+
+        private int trainings;
+
+        private double distance;
+
+        private int calories;
+
+        void add(double distance, int calories) {
+            this.trainings++;
+            this.distance += distance;
+            this.calories += calories;
+        }
+    }
+
+}
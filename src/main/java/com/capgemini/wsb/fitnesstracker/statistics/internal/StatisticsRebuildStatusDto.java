@@ -0,0 +1,30 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import jakarta.annotation.Nullable;
+
+import java.time.Instant;
+
+/**
+ * Record representing a DTO (Data Transfer Object) for the progress of the last statistics rebuild.
+ *
+ * @param state               the state of the rebuild
+ * @param startedAt           the time the rebuild was started, {@code null} if it never ran
+ * @param finishedAt          the time the rebuild finished, {@code null} if it is still running
+ * @param totalPartitions     the number of user ID ranges to be processed
+ * @param completedPartitions the number of processed user ID ranges
+ * @param users               the number of users whose statistics were written so far
+ * @param trainings           the number of trainings aggregated so far
+ * @param trainingsPerSecond  the average throughput of the rebuild
+ * @param error               the message of the failure, if the rebuild failed
+ */
+record StatisticsRebuildStatusDto(StatisticsRebuildJob.State state,
+                                  @Nullable Instant startedAt,
+                                  @Nullable Instant finishedAt,
+                                  long totalPartitions,
+                                  long completedPartitions,
+                                  long users,
+                                  long trainings,
+                                  double trainingsPerSecond,
+                                  @Nullable String error) {
+
+}
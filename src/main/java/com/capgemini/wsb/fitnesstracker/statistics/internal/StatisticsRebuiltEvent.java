@@ -0,0 +1,15 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import java.util.Map;
+
+/**
+ * Application event published once the {@link StatisticsRebuildJob} has rewritten the {@code statistics} of a partition of users.
+ * It is published synchronously while the partition is still locked, see {@link StatisticsPartitionLocks}.
+ *
+ * @param fromUserId the first user ID of the partition
+ * @param toUserId   the user ID following the partition
+ * @param totals     the rebuilt totals of the users of the partition having trainings, by the ID of the user
+ */
+record StatisticsRebuiltEvent(long fromUserId, long toUserId, Map<Long, StatisticsDelta> totals) {
+
+}
@@ -0,0 +1,11 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.statistics.api.Statistics;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * Repository interface for {@link Statistics} entities.
+ */
+interface StatisticsRepository extends JpaRepository<Statistics, Long> {
+
+}
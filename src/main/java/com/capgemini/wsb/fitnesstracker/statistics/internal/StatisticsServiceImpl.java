@@ -0,0 +1,32 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.statistics.api.Statistics;
+import com.capgemini.wsb.fitnesstracker.statistics.api.StatisticsProvider;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.Optional;
+
+/**
+ * Implementation of the {@link StatisticsProvider} reading the incrementally maintained {@code statistics} table.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "statistics.mode", havingValue = "database", matchIfMissing = true)
+class StatisticsServiceImpl implements StatisticsProvider {
+
+    private final StatisticsRepository statisticsRepository;
+
+    /**
+     * Retrieves the statistics of the user by the primary key.
+     *
+     * @param statisticsId the ID of the statistics (the user)
+     * @return an {@link Optional} containing the statistics, or {@link Optional#empty()} if the user has no trainings yet
+     */
+    @Override
+    public Optional<Statistics> getStatistics(final Long statisticsId) {
+        return statisticsRepository.findById(statisticsId);
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes changes of the statistics totals to the {@code statistics} table.
+ * The partitions of the affected users are locked until the transaction completes, see {@link StatisticsPartitionLocks}.
+ */
+@Component
+@RequiredArgsConstructor
+class StatisticsStore {
+
+    private static final String MERGE_DELTA = """
+            merge into statistics s
+            using (values (cast(? as bigint), cast(? as integer), cast(? as double precision), cast(? as integer)))
+                as v (user_id, total_trainings, total_distance, total_calories_burned)
+            on s.user_id = v.user_id
+            when matched then update set total_trainings = s.total_trainings + v.total_trainings,
+                                         total_distance = s.total_distance + v.total_distance,
+                                         total_calories_burned = s.total_calories_burned + v.total_calories_burned
+            when not matched then insert (user_id, total_trainings, total_distance, total_calories_burned)
+                                  values (v.user_id, v.total_trainings, v.total_distance, v.total_calories_burned)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final StatisticsPartitionLocks partitionLocks;
+
+    /**
+     * Applies the deltas to the statistics of their users, see {@link #apply(Long, StatisticsDelta)}.
+     * Joins the transaction of the caller, which is required.
+     *
+     * @param deltas the changes of the totals, by the ID of the user
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyAll(Map<Long, StatisticsDelta> deltas) {
+        partitionLocks.lockForTransaction(deltas.keySet());
+        deltas.forEach(this::apply);
+    }
+
+    /**
+     * Applies the delta to the statistics of the user with a single {@code MERGE} statement,
+     * adding to the totals of an existing row or inserting the row when the user has none yet.
+     * Joins the transaction of the caller, which is required.
+     * Transactions of this node touching the same user are serialized by the partition lock; if another node inserts the first
+     * statistics of the user concurrently, the statement fails on the primary key and the error rolls back the transaction of the caller.
+     *
+     * @param userId the ID of the user
+     * @param delta  the change of the totals
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void apply(Long userId, StatisticsDelta delta) {
+        if (delta.isZero()) {
+            return;
+        }
+        partitionLocks.lockForTransaction(List.of(userId));
+        jdbcTemplate.update(MERGE_DELTA, userId, delta.trainings(), delta.distance(), delta.calories());
+    }
+
+}
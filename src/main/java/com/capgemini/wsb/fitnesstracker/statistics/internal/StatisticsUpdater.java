@@ -0,0 +1,43 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingDistanceChangedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingsCreatedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps the {@code statistics} table up to date with the training writes.
+ * Listens synchronously, so the deltas are applied in the same transaction as the training change.
+ * Active in the default {@code statistics.mode=database}, see {@link InMemoryStatisticsAggregator} for the alternative.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "statistics.mode", havingValue = "database", matchIfMissing = true)
+class StatisticsUpdater {
+
+    private final StatisticsStore statisticsStore;
+
+    private final CaloriesCalculator caloriesCalculator;
+
+    @EventListener
+    public void onTrainingsCreated(TrainingsCreatedEvent event) {
+        Map<Long, StatisticsDelta> deltas = new HashMap<>();
+        for (Training training : event.trainings()) {
+            StatisticsDelta delta = new StatisticsDelta(1, training.getDistance(), caloriesCalculator.caloriesBurned(training));
+            deltas.merge(training.getUser().getId(), delta, StatisticsDelta::plus);
+        }
+        statisticsStore.applyAll(deltas);
+    }
+
+    @EventListener
+    public void onTrainingDistanceChanged(TrainingDistanceChangedEvent event) {
+        statisticsStore.apply(event.training().getUser().getId(), new StatisticsDelta(0, event.distanceDelta(), 0));
+    }
+
+}
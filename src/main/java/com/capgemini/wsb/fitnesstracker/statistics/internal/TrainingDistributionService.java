@@ -0,0 +1,139 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingDistanceChangedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingMetrics;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingProvider;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingsCreatedEvent;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Keeps a {@link LogHistogram} of every {@link DistributionMetric} of the trainings of every activity type.
+ * Histograms are filled on startup from a single projection scan and afterwards updated from every committed training write,
+ * so percentile queries never read the trainings.
+ * Training transactions share the load lock from the publication of their event until they complete, while the scan holds it exclusively,
+ * so a training committed before the scan is only recorded by the scan and one committed after it only by the listeners.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+class TrainingDistributionService {
+
+    private final TrainingProvider trainingProvider;
+
+    private final LogHistogram[][] histograms = createHistograms();
+
+    private final ReadWriteLock loadLock = new ReentrantReadWriteLock();
+
+    /**
+     * Whether the scan has completed, events of trainings committed before are already covered by the scan.
+     */
+    private volatile boolean loaded;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        loadLock.writeLock().lock();
+        try {
+            trainingProvider.streamTrainingMetrics(this::record);
+            loaded = true;
+        } finally {
+            loadLock.writeLock().unlock();
+        }
+        log.info("Loaded training distributions");
+    }
+
+    /**
+     * Shares the load lock within the training transaction, the lock is released once the trainings are recorded after the commit.
+     */
+    @EventListener
+    public void lockTrainingsCreated(TrainingsCreatedEvent event) {
+        lockForTransaction();
+    }
+
+    @EventListener
+    public void lockTrainingDistanceChanged(TrainingDistanceChangedEvent event) {
+        lockForTransaction();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTrainingsCreated(TrainingsCreatedEvent event) {
+        if (!loaded) {
+            return;
+        }
+        for (Training training : event.trainings()) {
+            record(TrainingMetrics.of(training));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTrainingDistanceChanged(TrainingDistanceChangedEvent event) {
+        if (!loaded) {
+            return;
+        }
+        LogHistogram histogram = histogram(event.training().getActivityType(), DistributionMetric.DISTANCE);
+        histogram.remove(event.previousDistance());
+        histogram.record(event.training().getDistance());
+    }
+
+    /**
+     * Retrieves the distribution of the metric of the trainings of the activity type.
+     *
+     * @param activityType the activity type of the trainings
+     * @param metric       the metric of the trainings
+     * @return the number of trainings and the 50th, 90th and 99th percentile of the metric
+     */
+    DistributionDto getDistribution(ActivityType activityType, DistributionMetric metric) {
+        LogHistogram histogram = histogram(activityType, metric);
+        return new DistributionDto(activityType,
+                                   metric,
+                                   histogram.count(),
+                                   histogram.valueAtPercentile(50),
+                                   histogram.valueAtPercentile(90),
+                                   histogram.valueAtPercentile(99));
+    }
+
+    private void lockForTransaction() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        loadLock.readLock().lock();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                loadLock.readLock().unlock();
+            }
+        });
+    }
+
+    private void record(TrainingMetrics metrics) {
+        histogram(metrics.activityType(), DistributionMetric.AVERAGE_SPEED).record(metrics.averageSpeed());
+        histogram(metrics.activityType(), DistributionMetric.DISTANCE).record(metrics.distance());
+        histogram(metrics.activityType(), DistributionMetric.DURATION).record(metrics.endTime().getTime() - metrics.startTime().getTime());
+    }
+
+    private LogHistogram histogram(ActivityType activityType, DistributionMetric metric) {
+        return histograms[activityType.ordinal()][metric.ordinal()];
+    }
+
+    private static LogHistogram[][] createHistograms() {
+        LogHistogram[][] histograms = new LogHistogram[ActivityType.values().length][DistributionMetric.values().length];
+        for (LogHistogram[] activityHistograms : histograms) {
+            for (int i = 0; i < activityHistograms.length; i++) {
+                activityHistograms[i] = new LogHistogram();
+            }
+        }
+        return histograms;
+    }
+
+}
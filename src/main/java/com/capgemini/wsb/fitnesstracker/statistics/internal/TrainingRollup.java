@@ -0,0 +1,39 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Pre-aggregated totals of the trainings of a user, of a single activity type, started within a single day or ISO week.
+ */
+@Entity
+@Table(name = "training_rollups")
+@Getter
+@ToString
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@AllArgsConstructor
+public class TrainingRollup {
+
+    @EmbeddedId
+    private TrainingRollupId id;
+
+    @Column(name = "training_count", nullable = false)
+    private long trainingCount;
+
+    @Column(name = "total_distance", nullable = false)
+    private double totalDistance;
+
+    @Column(name = "total_duration_millis", nullable = false)
+    private long totalDurationMillis;
+
+    @Column(name = "max_average_speed", nullable = false)
+    private double maxAverageSpeed;
+
+}
@@ -0,0 +1,19 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDate;
+
+/**
+ * Record representing a DTO (Data Transfer Object) for a single daily or weekly rollup bucket.
+ */
+record TrainingRollupDto(ActivityType activityType,
+                         RollupPeriod period,
+                         @JsonFormat(pattern = "yyyy-MM-dd") LocalDate periodStart,
+                         long trainingCount,
+                         double totalDistance,
+                         long totalDurationMillis,
+                         double maxAverageSpeed) {
+
+}
@@ -0,0 +1,45 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repository interface for {@link TrainingRollup} entities.
+ */
+interface TrainingRollupRepository extends JpaRepository<TrainingRollup, TrainingRollupId> {
+
+    /**
+     * Finds the buckets of the user of given period length, starting within the date range.
+     *
+     * @param userId the ID of the user
+     * @param period the period of the buckets
+     * @param from   the first period start to include
+     * @param to     the last period start to include
+     * @return a list of buckets ordered by the period start and activity type
+     */
+    @Query("""
+            select r from TrainingRollup r
+            where r.id.userId = :userId
+              and r.id.period = :period
+              and r.id.periodStart between :from and :to
+            order by r.id.periodStart, r.id.activityType
+            """)
+    List<TrainingRollup> findRollups(@Param("userId") Long userId,
+                                     @Param("period") RollupPeriod period,
+                                     @Param("from") LocalDate from,
+                                     @Param("to") LocalDate to);
+
+    /**
+     * Finds the buckets of all users and activity types of a single period.
+     *
+     * @param period      the period of the buckets
+     * @param periodStart the first day of the period
+     * @return a list of buckets of the period
+     */
+    List<TrainingRollup> findByIdPeriodAndIdPeriodStart(RollupPeriod period, LocalDate periodStart);
+
+}
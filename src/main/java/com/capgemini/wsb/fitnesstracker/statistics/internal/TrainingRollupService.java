@@ -0,0 +1,119 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingDistanceChangedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingsCreatedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains daily and weekly {@link TrainingRollup} buckets per user and activity type.
+ * Buckets are updated incrementally within the transaction of every training write, so the summaries never re-scan the trainings.
+ * A training belongs to the buckets of the day and the ISO week of its start time, in the system time zone.
+ * Every bucket is written with a single {@code MERGE} statement, adding to an existing row or inserting a new one;
+ * if a concurrent transaction inserts the same new bucket, the statement fails and rolls back the training write.
+ */
+@Service
+@RequiredArgsConstructor
+class TrainingRollupService {
+
+    private static final String MERGE_DELTA = """
+            merge into training_rollups r
+            using (values (cast(? as bigint), cast(? as integer), cast(? as varchar(8)), cast(? as date),
+                           cast(? as bigint), cast(? as double precision), cast(? as bigint), cast(? as double precision)))
+                as v (user_id, activity_type, rollup_period, period_start,
+                      training_count, total_distance, total_duration_millis, max_average_speed)
+            on r.user_id = v.user_id
+               and r.activity_type = v.activity_type
+               and r.rollup_period = v.rollup_period
+               and r.period_start = v.period_start
+            when matched then update set training_count = r.training_count + v.training_count,
+                                         total_distance = r.total_distance + v.total_distance,
+                                         total_duration_millis = r.total_duration_millis + v.total_duration_millis,
+                                         max_average_speed = case when r.max_average_speed < v.max_average_speed
+                                                                  then v.max_average_speed
+                                                                  else r.max_average_speed end
+            when not matched then insert (user_id, activity_type, rollup_period, period_start,
+                                          training_count, total_distance, total_duration_millis, max_average_speed)
+                                  values (v.user_id, v.activity_type, v.rollup_period, v.period_start,
+                                          v.training_count, v.total_distance, v.total_duration_millis, v.max_average_speed)
+            """;
+
+    private final TrainingRollupRepository trainingRollupRepository;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @EventListener
+    public void onTrainingsCreated(TrainingsCreatedEvent event) {
+        Map<TrainingRollupId, RollupDelta> deltas = new HashMap<>();
+        for (Training training : event.trainings()) {
+            RollupDelta delta = new RollupDelta(1,
+                                                training.getDistance(),
+                                                Math.max(0, training.getEndTime().getTime() - training.getStartTime().getTime()),
+                                                training.getAverageSpeed());
+            for (TrainingRollupId bucket : bucketsOf(training)) {
+                deltas.merge(bucket, delta, RollupDelta::plus);
+            }
+        }
+        deltas.forEach(this::apply);
+    }
+
+    @EventListener
+    public void onTrainingDistanceChanged(TrainingDistanceChangedEvent event) {
+        RollupDelta delta = new RollupDelta(0, event.distanceDelta(), 0, 0.0);
+        for (TrainingRollupId bucket : bucketsOf(event.training())) {
+            apply(bucket, delta);
+        }
+    }
+
+    /**
+     * Retrieves the buckets of the user of given period length.
+     *
+     * @param userId the ID of the user
+     * @param period the period of the buckets
+     * @param from   the first day of the range, adjusted to the start of its period
+     * @param to     the last day of the range
+     * @return a list of buckets ordered by the period start and activity type
+     */
+    List<TrainingRollup> findRollups(Long userId, RollupPeriod period, LocalDate from, LocalDate to) {
+        return trainingRollupRepository.findRollups(userId, period, period.start(from), to);
+    }
+
+    private void apply(TrainingRollupId bucket, RollupDelta delta) {
+        jdbcTemplate.update(MERGE_DELTA,
+                            bucket.getUserId(),
+                            bucket.getActivityType().ordinal(),
+                            bucket.getPeriod().name(),
+                            bucket.getPeriodStart(),
+                            delta.count(),
+                            delta.distance(),
+                            delta.durationMillis(),
+                            delta.maxAverageSpeed());
+    }
+
+    private static List<TrainingRollupId> bucketsOf(Training training) {
+        LocalDate day = training.getStartTime().toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+        Long userId = training.getUser().getId();
+        return List.of(new TrainingRollupId(userId, training.getActivityType(), RollupPeriod.DAY, RollupPeriod.DAY.start(day)),
+                       new TrainingRollupId(userId, training.getActivityType(), RollupPeriod.WEEK, RollupPeriod.WEEK.start(day)));
+    }
+
+    private record RollupDelta(long count, double distance, long durationMillis, double maxAverageSpeed) {
+
+        RollupDelta plus(RollupDelta other) {
+            return new RollupDelta(count + other.count,
+                                   distance + other.distance,
+                                   durationMillis + other.durationMillis,
+                                   Math.max(maxAverageSpeed, other.maxAverageSpeed));
+        }
+    }
+
+}
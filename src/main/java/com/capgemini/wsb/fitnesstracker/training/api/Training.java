@@ -11,7 +11,9 @@ import java.util.Date;
  * Represents a training session of a user.
  */
 @Entity
-@Table(name = "trainings")
+@Table(name = "trainings",
+       indexes = {@Index(name = "idx_trainings_user_start_time", columnList = "user_id, start_time"),
+                  @Index(name = "idx_trainings_user_id", columnList = "user_id, id")})
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString
@@ -19,9 +21,11 @@ public class Training {
 
     /**
      * The unique identifier of the training session.
+     * Allocated from a pooled sequence, so that inserts of many trainings can be batched by Hibernate.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "trainings_seq")
+    @SequenceGenerator(name = "trainings_seq", sequenceName = "trainings_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -0,0 +1,20 @@
+package com.capgemini.wsb.fitnesstracker.training.api;
+
+/**
+ * Application event published within the transaction which changed the distance of the {@link Training}.
+ *
+ * @param training         the updated training, already holding the new distance
+ * @param previousDistance the distance of the training before the update
+ */
+public record TrainingDistanceChangedEvent(Training training, double previousDistance) {
+
+    /**
+     * Difference between the new and the previous distance of the training.
+     *
+     * @return the distance delta, negative if the distance was decreased
+     */
+    public double distanceDelta() {
+        return training.getDistance() - previousDistance;
+    }
+
+}
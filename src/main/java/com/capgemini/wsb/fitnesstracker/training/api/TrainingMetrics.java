@@ -0,0 +1,42 @@
+package com.capgemini.wsb.fitnesstracker.training.api;
+
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+
+import java.util.Date;
+
+/**
+ * Numeric columns of a single {@link Training}, read without hydrating the entity and its user.
+ *
+ * @param id           the ID of the training
+ * @param userId       the ID of the user of the training
+ * @param startTime    the start time of the training
+ * @param endTime      the end time of the training
+ * @param activityType the activity type of the training
+ * @param distance     the distance of the training
+ * @param averageSpeed the average speed of the training
+ */
+public record TrainingMetrics(Long id,
+                              Long userId,
+                              Date startTime,
+                              Date endTime,
+                              ActivityType activityType,
+                              double distance,
+                              double averageSpeed) {
+
+    /**
+     * Reads the metrics of the training entity.
+     *
+     * @param training the training, with its user set
+     * @return the metrics of the training
+     */
+    public static TrainingMetrics of(Training training) {
+        return new TrainingMetrics(training.getId(),
+                                   training.getUser().getId(),
+                                   training.getStartTime(),
+                                   training.getEndTime(),
+                                   training.getActivityType(),
+                                   training.getDistance(),
+                                   training.getAverageSpeed());
+    }
+
+}
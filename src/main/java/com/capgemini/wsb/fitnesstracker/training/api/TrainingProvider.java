@@ -3,9 +3,11 @@ package com.capgemini.wsb.fitnesstracker.training.api;
 import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
 import com.capgemini.wsb.fitnesstracker.user.api.User;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface TrainingProvider {
 
@@ -26,6 +28,14 @@ public interface TrainingProvider {
      */
     List<Training> findTrainingsByUser(User user);
 
+    /**
+     * Retrieves a list of trainings associated with a specific user, without loading the user first.
+     *
+     * @param userId the ID of the user whose trainings are to be retrieved
+     * @return a list of trainings associated with the specified user, empty if there are none or the user does not exist
+     */
+    List<Training> findTrainingsByUserId(Long userId);
+
     /**
      * Retrieves a list of trainings that were completed after a specified date.
      *
@@ -42,6 +52,33 @@ public interface TrainingProvider {
      */
     List<Training> findTrainingsByActivity(ActivityType activityType);
 
+    /**
+     * Retrieves the fastest trainings for a specified activity type.
+     *
+     * @param activityType the type of activity for which trainings are to be retrieved
+     * @param limit        the maximal number of returned trainings
+     * @return a list of trainings ordered by the average speed descending
+     */
+    List<Training> findFastestTrainings(ActivityType activityType, int limit);
+
+    /**
+     * Summarizes the trainings of the users started within the time range, per user and activity type.
+     *
+     * @param userIds the IDs of the users
+     * @param from    the inclusive lower bound of the start time
+     * @param to      the exclusive upper bound of the start time
+     * @return a list of summaries, one for every user and activity type with at least one training
+     */
+    List<UserActivitySummary> summarizeTrainingsByUser(Collection<Long> userIds, Date from, Date to);
+
+    /**
+     * Passes the numeric columns of all trainings to the consumer one by one, ordered by ID.
+     * Neither the trainings nor their users are loaded as entities.
+     *
+     * @param consumer the consumer of the training metrics
+     */
+    void streamTrainingMetrics(Consumer<TrainingMetrics> consumer);
+
     /**
      * Updates the distance of a specific training.
      *
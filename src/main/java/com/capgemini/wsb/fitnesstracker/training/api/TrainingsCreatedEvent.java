@@ -0,0 +1,13 @@
+package com.capgemini.wsb.fitnesstracker.training.api;
+
+import java.util.List;
+
+/**
+ * Application event published within the transaction which created new {@link Training trainings}.
+ * A single event is published for all trainings created together, e.g. by the bulk upload.
+ *
+ * @param trainings the created trainings, already having their DB IDs
+ */
+public record TrainingsCreatedEvent(List<Training> trainings) {
+
+}
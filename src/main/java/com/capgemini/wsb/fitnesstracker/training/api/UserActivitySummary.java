@@ -0,0 +1,20 @@
+package com.capgemini.wsb.fitnesstracker.training.api;
+
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+
+/**
+ * Totals of the trainings of a single user and activity type within a time range.
+ *
+ * @param userId        the ID of the user
+ * @param activityType  the activity type of the trainings
+ * @param trainings     the number of trainings
+ * @param totalDistance the total distance of the trainings
+ * @param averageSpeed  the mean of the average speeds of the trainings
+ */
+public record UserActivitySummary(Long userId,
+                                  ActivityType activityType,
+                                  Long trainings,
+                                  Double totalDistance,
+                                  Double averageSpeed) {
+
+}
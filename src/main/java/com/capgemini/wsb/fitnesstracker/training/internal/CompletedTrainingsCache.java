@@ -0,0 +1,175 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingDistanceChangedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingsCreatedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache of the trainings completed after a date, keyed by the date.
+ * Every cached result holds {@link TrainingDto}s of the first {@link CompletedTrainingsCacheProperties#maxResultTrainings()}
+ * matching trainings ordered by ID, so the first pages are served from memory and a single entry never outweighs the cache;
+ * pages beyond the cached prefix of a larger result are left to the keyset query.
+ * Committed trainings are re-read and merged into every cached result they match. IDs are allocated by each node in blocks,
+ * so a new training may take an ID below trainings committed before it; it is inserted into the prefix, whose last training
+ * is dropped once the prefix is full. A training whose distance changed is replaced in the results holding it.
+ * Besides the Actuator cache metrics, the {@code training.completed-cache.hit-ratio} gauge publishes the share of cache hits.
+ */
+@Component
+@Slf4j
+class CompletedTrainingsCache {
+
+    private final Cache<Object, Object> cache;
+
+    private final TrainingRepository trainingRepository;
+
+    private final TrainingMapper trainingMapper;
+
+    private final int maxResultTrainings;
+
+    /**
+     * Number of change events received so far, a load is discarded if changes were committed while it was running.
+     */
+    private final AtomicLong changes = new AtomicLong();
+
+    @SuppressWarnings("unchecked")
+    CompletedTrainingsCache(CacheManager cacheManager,
+                            TrainingRepository trainingRepository,
+                            TrainingMapper trainingMapper,
+                            CompletedTrainingsCacheProperties properties,
+                            MeterRegistry meterRegistry) {
+        this.cache = (Cache<Object, Object>) Objects.requireNonNull(cacheManager.getCache(CompletedTrainingsCacheConfig.COMPLETED_TRAININGS_CACHE))
+                                                    .getNativeCache();
+        this.trainingRepository = trainingRepository;
+        this.trainingMapper = trainingMapper;
+        this.maxResultTrainings = properties.maxResultTrainings();
+        meterRegistry.gauge("training.completed-cache.hit-ratio", cache, cached -> cached.stats().hitRate());
+    }
+
+    /**
+     * Retrieves a page of the trainings completed after the date from the cache, loading the cached prefix on a cache miss.
+     *
+     * @param date      the date after which the trainings were completed
+     * @param afterId   ID of the last training of the previous page
+     * @param fetchSize number of trainings to be fetched
+     * @return the trainings of the page ordered by ID, or {@link Optional#empty()} if the page lies beyond the cached prefix
+     */
+    Optional<List<TrainingDto>> findPage(Date date, long afterId, int fetchSize) {
+        Instant key = date.toInstant();
+        CachedResult result = (CachedResult) cache.getIfPresent(key);
+        if (result == null) {
+            result = load(key, date);
+        }
+        List<TrainingDto> page = new ArrayList<>(fetchSize);
+        for (TrainingDto training : result.trainings().tailMap(afterId, false).values()) {
+            page.add(training);
+            if (page.size() == fetchSize) {
+                break;
+            }
+        }
+        return page.size() == fetchSize || result.complete() ? Optional.of(page) : Optional.empty();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onTrainingsCreated(TrainingsCreatedEvent event) {
+        // counted before looking at the entries, so a load not seen below notices the creation and discards itself
+        changes.incrementAndGet();
+        if (cache.asMap().isEmpty()) {
+            return;
+        }
+        // the created trainings are re-read instead of caching the object graph of the request
+        List<Training> trainings = trainingRepository.findByIdIn(event.trainings().stream().map(Training::getId).toList());
+        for (Training training : trainings) {
+            Instant endTime = training.getEndTime().toInstant();
+            TrainingDto dto = trainingMapper.toDto(training);
+            for (Object date : cache.asMap().keySet()) {
+                if (((Instant) date).isBefore(endTime)) {
+                    // recomputing the entry makes the cache re-weigh it
+                    cache.asMap().computeIfPresent(date, (key, cached) -> insert((CachedResult) cached, dto));
+                }
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTrainingDistanceChanged(TrainingDistanceChangedEvent event) {
+        changes.incrementAndGet();
+        Long trainingId = event.training().getId();
+        double distance = event.training().getDistance();
+        for (Object date : cache.asMap().keySet()) {
+            cache.asMap().computeIfPresent(date, (key, cached) -> {
+                // cached DTOs may be read by concurrent requests, so the changed training is replaced by a copy
+                ((CachedResult) cached).trainings().computeIfPresent(trainingId, (id, training) -> withDistance(training, distance));
+                return cached;
+            });
+        }
+    }
+
+    private CachedResult load(Instant key, Date date) {
+        long loadedAfterChanges = changes.get();
+        List<Training> loaded = trainingRepository.findByEndTimeAfterAndIdGreaterThanOrderByIdAsc(date, 0L, PageRequest.ofSize(maxResultTrainings + 1));
+        ConcurrentNavigableMap<Long, TrainingDto> trainings = new ConcurrentSkipListMap<>();
+        loaded.stream().limit(maxResultTrainings).forEach(training -> trainings.put(training.getId(), trainingMapper.toDto(training)));
+        CachedResult result = new CachedResult(trainings, loaded.size() <= maxResultTrainings);
+        cache.put(key, result);
+        if (changes.get() != loadedAfterChanges) {
+            // a change committed during the load may have missed both the query and the entry
+            cache.asMap().remove(key, result);
+        }
+        return result;
+    }
+
+    private CachedResult insert(CachedResult cached, TrainingDto training) {
+        ConcurrentNavigableMap<Long, TrainingDto> trainings = cached.trainings();
+        if (trainings.containsKey(training.getId())) {
+            return cached;
+        }
+        if (trainings.size() < maxResultTrainings) {
+            if (cached.complete() || training.getId() < trainings.lastKey()) {
+                trainings.put(training.getId(), training);
+            }
+            return cached;
+        }
+        // the prefix is full, it keeps holding the first trainings by ID and no longer holds all trainings of the date
+        if (training.getId() < trainings.lastKey()) {
+            trainings.put(training.getId(), training);
+            trainings.pollLastEntry();
+        }
+        return cached.complete() ? new CachedResult(trainings, false) : cached;
+    }
+
+    private static TrainingDto withDistance(TrainingDto training, double distance) {
+        return new TrainingDto(training.getId(), training.getUser(), training.getStartTime(), training.getEndTime(),
+                               training.getActivityType(), distance, training.getAverageSpeed());
+    }
+
+    /**
+     * Cached prefix of the trainings completed after a date.
+     *
+     * @param trainings the trainings of the prefix, by their ID
+     * @param complete  whether the prefix holds all trainings completed after the date
+     */
+    record CachedResult(ConcurrentNavigableMap<Long, TrainingDto> trainings, boolean complete) {
+
+    }
+
+}
@@ -0,0 +1,36 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration of the Caffeine backed cache used by {@link CompletedTrainingsCache}.
+ * Results are weighed by the number of their trainings, so the cache is bounded by the total number of cached trainings.
+ * The cache is registered at startup, so its hit, miss and eviction statistics are published as Actuator cache metrics.
+ */
+@Configuration
+@EnableConfigurationProperties(CompletedTrainingsCacheProperties.class)
+class CompletedTrainingsCacheConfig {
+
+    /**
+     * Name of the cache holding trainings completed after a date, by the date.
+     */
+    static final String COMPLETED_TRAININGS_CACHE = "completedTrainings";
+
+    @Bean
+    CacheManagerCustomizer<CaffeineCacheManager> completedTrainingsCacheCustomizer(CompletedTrainingsCacheProperties properties) {
+        return cacheManager -> cacheManager.registerCustomCache(COMPLETED_TRAININGS_CACHE,
+                                                                Caffeine.newBuilder()
+                                                                        .maximumWeight(properties.maxTrainings())
+                                                                        .weigher((Object date, Object result) ->
+                                                                                         ((CompletedTrainingsCache.CachedResult) result).trainings().size() + 1)
+                                                                        .expireAfterWrite(properties.ttl())
+                                                                        .recordStats()
+                                                                        .build());
+    }
+
+}
@@ -0,0 +1,20 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the cache of trainings completed after a date, see {@link CompletedTrainingsCache}.
+ *
+ * @param maxTrainings       maximal total number of trainings held by all cached results, least valuable results are evicted above it
+ * @param maxResultTrainings maximal number of trainings cached for a single date, later pages of larger results are read from the database
+ * @param ttl                time after which the cached result expires since it was loaded, regardless of its incremental updates
+ */
+@ConfigurationProperties(prefix = "training.completed-cache")
+record CompletedTrainingsCacheProperties(@DefaultValue("100000") long maxTrainings,
+                                         @DefaultValue("1000") int maxResultTrainings,
+                                         @DefaultValue("10m") Duration ttl) {
+
+}
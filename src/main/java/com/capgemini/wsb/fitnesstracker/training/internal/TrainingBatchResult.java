@@ -0,0 +1,33 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import java.util.List;
+
+/**
+ * Result of the bulk creation of trainings.
+ *
+ * @param created  items which were created, in the order of the request items
+ * @param failures items which could not be created
+ */
+public record TrainingBatchResult(List<Created> created, List<Failure> failures) {
+
+    /**
+     * Item of the bulk request which was created.
+     *
+     * @param index position of the item in the request
+     * @param id    ID of the created training
+     */
+    public record Created(int index, Long id) {
+
+    }
+
+    /**
+     * Item of the bulk request which could not be created.
+     *
+     * @param index  position of the item in the request
+     * @param reason description of the failure
+     */
+    public record Failure(int index, String reason) {
+
+    }
+
+}
@@ -1,14 +1,23 @@
 package com.capgemini.wsb.fitnesstracker.training.internal;
 
-import com.capgemini.wsb.fitnesstracker.exception.api.NotFoundException;
+import com.capgemini.wsb.fitnesstracker.pagination.api.CursorPage;
+import com.capgemini.wsb.fitnesstracker.pagination.api.CursorRequest;
 import com.capgemini.wsb.fitnesstracker.training.api.Training;
-import com.capgemini.wsb.fitnesstracker.user.api.User;
-import com.capgemini.wsb.fitnesstracker.user.internal.UserServiceImpl;
+import com.capgemini.wsb.fitnesstracker.user.api.UserNotFoundException;
+import com.capgemini.wsb.fitnesstracker.user.api.UserProvider;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
@@ -21,20 +30,68 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class TrainingController {
 
+    private static final int STREAM_FLUSH_INTERVAL = 500;
+
     private final TrainingServiceImpl trainingService;
 
     private final TrainingMapper trainingMapper;
-    private final UserServiceImpl userService;
+    private final UserProvider userProvider;
+
+    private final ObjectMapper objectMapper;
 
 
     /**
-     * Retrieves all trainings.
+     * Retrieves a page of all trainings.
      *
-     * @return a list of {@link TrainingDto} representing all trainings
+     * @param cursor cursor of the requested page, taken from the previous page; the first page is returned if missing
+     * @param limit maximal number of trainings on the page
+     * @return a page of {@link TrainingDto} representing trainings
      */
     @GetMapping
-    public List<TrainingDto> getAllTrainings() {
-        return trainingService.findAllTrainings().stream().map(trainingMapper::toDto).toList();
+    public CursorPage<TrainingDto> getAllTrainings(@RequestParam(required = false) String cursor,
+                                                   @RequestParam(required = false) Integer limit) {
+        return trainingService.findAllTrainings(CursorRequest.of(cursor, limit)).map(trainingMapper::toDto);
+    }
+
+    /**
+     * Exports all trainings as newline-delimited JSON (one {@link TrainingDto} per line).
+     * Trainings are written to the response while they are read from the database, so the export runs in constant memory.
+     *
+     * @return a streamed NDJSON body with all trainings
+     */
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllTrainings() {
+        ObjectWriter trainingWriter = objectMapper.writerFor(TrainingDto.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+                generator.setRootValueSeparator(null);
+                int[] written = {0};
+                trainingService.streamAllTrainings(training -> {
+                    writeLine(generator, trainingWriter, trainingMapper.toDto(training));
+                    if (++written[0] % STREAM_FLUSH_INTERVAL == 0) {
+                        flush(generator);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    private static void writeLine(JsonGenerator generator, ObjectWriter trainingWriter, TrainingDto trainingDto) {
+        try {
+            trainingWriter.writeValue(generator, trainingDto);
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void flush(JsonGenerator generator) {
+        try {
+            generator.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
     /**
@@ -52,45 +109,109 @@ public class TrainingController {
     }
 
     /**
-     * Retrieves all trainings for a specific user.
+     * Creates many trainings at once, e.g. uploaded by the device synchronization.
+     * Items which cannot be created are reported in the result, without preventing creation of the other ones.
+     *
+     * @param trainingDtos the training data to create new trainings
+     * @return the {@link TrainingBatchResult} with indexes and IDs of created trainings and failures of the rejected ones
+     */
+    @PostMapping("/batch")
+    public TrainingBatchResult addTrainings(@RequestBody List<TrainingDto> trainingDtos) {
+        return trainingService.createTrainings(trainingDtos.stream().map(trainingMapper::toEntity).toList());
+    }
+
+    /**
+     * Retrieves a page of trainings for a specific user.
      *
      * @param userId the ID of the user
-     * @return a list of {@link TrainingDto} representing the trainings of the user
+     * @param cursor cursor of the requested page, taken from the previous page; the first page is returned if missing
+     * @param limit maximal number of trainings on the page
+     * @return a page of {@link TrainingDto} representing the trainings of the user
+     * @throws UserNotFoundException if the user has no trainings on the page and does not exist
      */
     @GetMapping("/user/{userId}")
-    public List<TrainingDto> getTrainingsByUserId(@PathVariable Long userId) {
-        User user = userService.getUser(userId).orElseThrow(() -> new NotFoundException("User not found with id: " + userId));
-
-        List<Training> trainings = trainingService.findTrainingsByUser(user);
-
-        return trainings.stream().map(trainingMapper::toDto).toList();
+    public CursorPage<TrainingDto> getTrainingsByUserId(@PathVariable Long userId,
+                                                        @RequestParam(required = false) String cursor,
+                                                        @RequestParam(required = false) Integer limit) {
+        CursorPage<Training> trainings = trainingService.findTrainingsByUserId(userId, CursorRequest.of(cursor, limit));
+        if (trainings.items().isEmpty() && !userProvider.userExists(userId)) {
+            throw new UserNotFoundException(userId);
+        }
+        return trainings.map(trainingMapper::toDto);
     }
 
 
     /**
-     * Retrieves all trainings completed after a specific date.
+     * Retrieves a page of trainings completed after a specific date.
      *
      * @param date the date to filter trainings
-     * @return a list of {@link TrainingDto} representing the trainings completed after the date
+     * @param cursor cursor of the requested page, taken from the previous page; the first page is returned if missing
+     * @param limit maximal number of trainings on the page
+     * @return a page of {@link TrainingDto} representing the trainings completed after the date
      */
     @GetMapping("/completed")
-    public List<TrainingDto> getTrainingsCompletedAfterDate(@RequestParam("date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date date) {
-        List<Training> trainings = trainingService.findTrainingsCompletedAfterDate(date);
-
-        return trainings.stream().map(trainingMapper::toDto).toList();
+    public CursorPage<TrainingDto> getTrainingsCompletedAfterDate(@RequestParam("date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date date,
+                                                                  @RequestParam(required = false) String cursor,
+                                                                  @RequestParam(required = false) Integer limit) {
+        return trainingService.findTrainingsCompletedAfterDate(date, CursorRequest.of(cursor, limit));
     }
 
     /**
-     * Retrieves all trainings for a specific activity type.
+     * Retrieves a page of trainings for a specific activity type.
      *
      * @param activityType the type of activity
-     * @return a list of {@link TrainingDto} representing the trainings of the specified activity type
+     * @param cursor cursor of the requested page, taken from the previous page; the first page is returned if missing
+     * @param limit maximal number of trainings on the page
+     * @return a page of {@link TrainingDto} representing the trainings of the specified activity type
      */
     @GetMapping("/activity")
-    public List<TrainingDto> getTrainingsByActivity(@RequestParam("activityType") ActivityType activityType) {
-        List<Training> trainings = trainingService.findTrainingsByActivity(activityType);
+    public CursorPage<TrainingDto> getTrainingsByActivity(@RequestParam("activityType") ActivityType activityType,
+                                                          @RequestParam(required = false) String cursor,
+                                                          @RequestParam(required = false) Integer limit) {
+        return trainingService.findTrainingsByActivity(activityType, CursorRequest.of(cursor, limit)).map(trainingMapper::toDto);
+    }
+
+    /**
+     * Retrieves a page of summaries of all trainings, carrying only the ID and name of the user.
+     *
+     * @param cursor cursor of the requested page, taken from the previous page; the first page is returned if missing
+     * @param limit maximal number of trainings on the page
+     * @return a page of {@link TrainingSummaryDto} representing trainings
+     */
+    @GetMapping("/summaries")
+    public CursorPage<TrainingSummaryDto> getAllTrainingSummaries(@RequestParam(required = false) String cursor,
+                                                                  @RequestParam(required = false) Integer limit) {
+        return trainingService.findAllTrainingSummaries(CursorRequest.of(cursor, limit));
+    }
 
-        return trainings.stream().map(trainingMapper::toDto).toList();
+    /**
+     * Retrieves a page of summaries of trainings completed after a specific date, carrying only the ID and name of the user.
+     *
+     * @param date the date to filter trainings
+     * @param cursor cursor of the requested page, taken from the previous page; the first page is returned if missing
+     * @param limit maximal number of trainings on the page
+     * @return a page of {@link TrainingSummaryDto} representing the trainings completed after the date
+     */
+    @GetMapping("/summaries/completed")
+    public CursorPage<TrainingSummaryDto> getTrainingSummariesCompletedAfterDate(@RequestParam("date") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Date date,
+                                                                                 @RequestParam(required = false) String cursor,
+                                                                                 @RequestParam(required = false) Integer limit) {
+        return trainingService.findTrainingSummariesCompletedAfterDate(date, CursorRequest.of(cursor, limit));
+    }
+
+    /**
+     * Retrieves a page of summaries of trainings for a specific activity type, carrying only the ID and name of the user.
+     *
+     * @param activityType the type of activity
+     * @param cursor cursor of the requested page, taken from the previous page; the first page is returned if missing
+     * @param limit maximal number of trainings on the page
+     * @return a page of {@link TrainingSummaryDto} representing the trainings of the specified activity type
+     */
+    @GetMapping("/summaries/activity")
+    public CursorPage<TrainingSummaryDto> getTrainingSummariesByActivity(@RequestParam("activityType") ActivityType activityType,
+                                                                         @RequestParam(required = false) String cursor,
+                                                                         @RequestParam(required = false) Integer limit) {
+        return trainingService.findTrainingSummariesByActivity(activityType, CursorRequest.of(cursor, limit));
     }
 
     /**
@@ -1,24 +1,47 @@
 package com.capgemini.wsb.fitnesstracker.training.internal;
 
 import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingMetrics;
+import com.capgemini.wsb.fitnesstracker.training.api.UserActivitySummary;
 import com.capgemini.wsb.fitnesstracker.user.api.User;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 /**
  * Repository interface for {@link Training} entities.
  * Extends {@link JpaRepository} to provide CRUD operations.
+ * Queries returning trainings fetch their users in the same statement (see {@link EntityGraph}), avoiding a select per user.
  */
 interface TrainingRepository extends JpaRepository<Training, Long> {
 
+    /**
+     * Finds all trainings together with their users.
+     *
+     * @return a list of all trainings
+     */
+    @Override
+    @EntityGraph(attributePaths = "user")
+    List<Training> findAll();
+
     /**
      * Finds all trainings for a specific user.
      *
      * @param user the user whose trainings are to be found
      * @return a list of trainings for the specified user
      */
+    @EntityGraph(attributePaths = "user")
     List<Training> findByUser(User user);
 
     /**
@@ -27,13 +50,182 @@ interface TrainingRepository extends JpaRepository<Training, Long> {
      * @param date the date after which trainings were completed
      * @return a list of trainings completed after the specified date
      */
+    @EntityGraph(attributePaths = "user")
     List<Training> findByEndTimeAfter(Date date);
 
+    /**
+     * Finds the trainings with given IDs, together with their users.
+     *
+     * @param ids the IDs of the trainings
+     * @return a list of the found trainings
+     */
+    @EntityGraph(attributePaths = "user")
+    List<Training> findByIdIn(Collection<Long> ids);
+
     /**
      * Finds all trainings of a specific activity type.
      *
      * @param activityType the activity type of the trainings to be found
      * @return a list of trainings of the specified activity type
      */
+    @EntityGraph(attributePaths = "user")
     List<Training> findByActivityType(ActivityType activityType);
+
+    /**
+     * Finds the page of trainings with ID greater than the given one, ordered by ID (keyset pagination).
+     *
+     * @param afterId  ID of the last training of the previous page
+     * @param pageable page size of the result, only the first page is expected
+     * @return a list of trainings ordered by ID
+     */
+    @EntityGraph(attributePaths = "user")
+    List<Training> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
+    /**
+     * Finds all trainings for a specific user, filtering by the foreign key column only.
+     *
+     * @param userId the ID of the user whose trainings are to be found
+     * @return a list of trainings for the specified user
+     */
+    @EntityGraph(attributePaths = "user")
+    List<Training> findByUserId(Long userId);
+
+    /**
+     * Finds the page of trainings of a specific user with ID greater than the given one, ordered by ID (keyset pagination).
+     * The user is matched by the foreign key column, both the filter and the order are served by the {@code (user_id, id)} index.
+     *
+     * @param userId   the ID of the user whose trainings are to be found
+     * @param afterId  ID of the last training of the previous page
+     * @param pageable page size of the result, only the first page is expected
+     * @return a list of trainings ordered by ID
+     */
+    @EntityGraph(attributePaths = "user")
+    List<Training> findByUserIdAndIdGreaterThanOrderByIdAsc(Long userId, Long afterId, Pageable pageable);
+
+    /**
+     * Finds the page of trainings completed after a specific date with ID greater than the given one, ordered by ID (keyset pagination).
+     *
+     * @param date     the date after which trainings were completed
+     * @param afterId  ID of the last training of the previous page
+     * @param pageable page size of the result, only the first page is expected
+     * @return a list of trainings ordered by ID
+     */
+    @EntityGraph(attributePaths = "user")
+    List<Training> findByEndTimeAfterAndIdGreaterThanOrderByIdAsc(Date date, Long afterId, Pageable pageable);
+
+    /**
+     * Finds the page of trainings of a specific activity type with ID greater than the given one, ordered by ID (keyset pagination).
+     *
+     * @param activityType the activity type of the trainings to be found
+     * @param afterId      ID of the last training of the previous page
+     * @param pageable     page size of the result, only the first page is expected
+     * @return a list of trainings ordered by ID
+     */
+    @EntityGraph(attributePaths = "user")
+    List<Training> findByActivityTypeAndIdGreaterThanOrderByIdAsc(ActivityType activityType, Long afterId, Pageable pageable);
+
+    /**
+     * Finds the fastest trainings of a specific activity type, ordered by the average speed descending.
+     *
+     * @param activityType the activity type of the trainings to be found
+     * @param pageable     page size of the result, only the first page is expected
+     * @return a list of trainings ordered by the average speed descending, then by ID
+     */
+    @EntityGraph(attributePaths = "user")
+    List<Training> findByActivityTypeOrderByAverageSpeedDescIdAsc(ActivityType activityType, Pageable pageable);
+
+    /**
+     * Streams all trainings together with their users, fetching the rows from the database in batches of JDBC fetch size.
+     * The stream has to be consumed within a transaction and closed afterwards.
+     *
+     * @return a stream of all trainings
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select t from Training t join fetch t.user")
+    Stream<Training> streamAll();
+
+    /**
+     * Streams the numeric columns of all trainings, ordered by ID, without hydrating the entities.
+     * The stream has to be consumed within a transaction and closed afterwards.
+     *
+     * @return a stream of metrics of all trainings
+     */
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+            select new com.capgemini.wsb.fitnesstracker.training.api.TrainingMetrics(
+                t.id, t.user.id, t.startTime, t.endTime, t.activityType, t.distance, t.averageSpeed)
+            from Training t
+            order by t.id
+            """)
+    Stream<TrainingMetrics> streamAllMetrics();
+
+    /**
+     * Finds the page of training summaries with ID greater than the given one, ordered by ID (keyset pagination).
+     *
+     * @param afterId  ID of the last training of the previous page
+     * @param pageable page size of the result, only the first page is expected
+     * @return a list of training summaries ordered by ID
+     */
+    @Query("""
+            select new com.capgemini.wsb.fitnesstracker.training.internal.TrainingSummaryDto(
+                t.id, u.id, u.firstName, u.lastName, t.startTime, t.endTime, t.activityType, t.distance, t.averageSpeed)
+            from Training t join t.user u
+            where t.id > :afterId
+            order by t.id
+            """)
+    List<TrainingSummaryDto> findSummariesAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Finds the page of summaries of trainings completed after a specific date with ID greater than the given one, ordered by ID (keyset pagination).
+     *
+     * @param date     the date after which trainings were completed
+     * @param afterId  ID of the last training of the previous page
+     * @param pageable page size of the result, only the first page is expected
+     * @return a list of training summaries ordered by ID
+     */
+    @Query("""
+            select new com.capgemini.wsb.fitnesstracker.training.internal.TrainingSummaryDto(
+                t.id, u.id, u.firstName, u.lastName, t.startTime, t.endTime, t.activityType, t.distance, t.averageSpeed)
+            from Training t join t.user u
+            where t.endTime > :date and t.id > :afterId
+            order by t.id
+            """)
+    List<TrainingSummaryDto> findSummariesCompletedAfter(@Param("date") Date date, @Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Finds the page of summaries of trainings of a specific activity type with ID greater than the given one, ordered by ID (keyset pagination).
+     *
+     * @param activityType the activity type of the trainings to be found
+     * @param afterId      ID of the last training of the previous page
+     * @param pageable     page size of the result, only the first page is expected
+     * @return a list of training summaries ordered by ID
+     */
+    @Query("""
+            select new com.capgemini.wsb.fitnesstracker.training.internal.TrainingSummaryDto(
+                t.id, u.id, u.firstName, u.lastName, t.startTime, t.endTime, t.activityType, t.distance, t.averageSpeed)
+            from Training t join t.user u
+            where t.activityType = :activityType and t.id > :afterId
+            order by t.id
+            """)
+    List<TrainingSummaryDto> findSummariesByActivityType(@Param("activityType") ActivityType activityType, @Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Summarizes the trainings of the users started within the time range, per user and activity type, in a single grouped query.
+     *
+     * @param userIds the IDs of the users
+     * @param from    the inclusive lower bound of the start time
+     * @param to      the exclusive upper bound of the start time
+     * @return a list of summaries, one for every user and activity type with at least one training
+     */
+    @Query("""
+            select new com.capgemini.wsb.fitnesstracker.training.api.UserActivitySummary(
+                t.user.id, t.activityType, count(t), sum(t.distance), avg(t.averageSpeed))
+            from Training t
+            where t.user.id in :userIds and t.startTime >= :from and t.startTime < :to
+            group by t.user.id, t.activityType
+            """)
+    List<UserActivitySummary> summarizeByUserAndActivity(@Param("userIds") Collection<Long> userIds,
+                                                         @Param("from") Date from,
+                                                         @Param("to") Date to);
+
 }
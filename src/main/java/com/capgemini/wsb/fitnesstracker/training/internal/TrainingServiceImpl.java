@@ -1,15 +1,37 @@
 package com.capgemini.wsb.fitnesstracker.training.internal;
 
+import com.capgemini.wsb.fitnesstracker.exception.api.BusinessException;
+import com.capgemini.wsb.fitnesstracker.pagination.api.CursorPage;
+import com.capgemini.wsb.fitnesstracker.pagination.api.CursorRequest;
 import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingDistanceChangedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingMetrics;
 import com.capgemini.wsb.fitnesstracker.training.api.TrainingProvider;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingsCreatedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.UserActivitySummary;
 import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.capgemini.wsb.fitnesstracker.user.api.UserNotFoundException;
+import com.capgemini.wsb.fitnesstracker.user.api.UserProvider;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service implementation for managing trainings.
@@ -20,8 +42,30 @@ import java.util.Optional;
 @Slf4j
 public class TrainingServiceImpl implements TrainingProvider {
 
+    /**
+     * Maximal number of trainings accepted by {@link #createTrainings(List)}.
+     */
+    static final int MAX_BATCH_SIZE = 10_000;
+
+    /**
+     * Number of trainings persisted within a single transaction by {@link #createTrainings(List)}.
+     */
+    private static final int BATCH_CHUNK_SIZE = 500;
+
     private final TrainingRepository trainingRepository;
 
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final UserProvider userProvider;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final CompletedTrainingsCache completedTrainingsCache;
+
+    private final TrainingMapper trainingMapper;
+
     /**
      * Retrieves a training based on its ID.
      * Not implemented yet.
@@ -45,6 +89,17 @@ public class TrainingServiceImpl implements TrainingProvider {
         return trainingRepository.findByUser(user);
     }
 
+    /**
+     * Finds all trainings for a specific user, without loading the user first.
+     *
+     * @param userId the ID of the user whose trainings are to be found
+     * @return a list of trainings for the specified user
+     */
+    @Override
+    public List<Training> findTrainingsByUserId(Long userId) {
+        return trainingRepository.findByUserId(userId);
+    }
+
     /**
      * Finds all trainings that were completed after a specific date.
      *
@@ -75,33 +130,298 @@ public class TrainingServiceImpl implements TrainingProvider {
     public List<Training> findAllTrainings() { return trainingRepository.findAll(); }
 
     /**
-     * Creates a new training.
+     * Retrieves a single page of all trainings, ordered by ID.
+     *
+     * @param request the requested page
+     * @return a page of trainings
+     */
+    public CursorPage<Training> findAllTrainings(CursorRequest request) {
+        List<Training> trainings = trainingRepository.findByIdGreaterThanOrderByIdAsc(request.afterId(), request.fetchPageable());
+        return CursorPage.of(trainings, request, Training::getId);
+    }
+
+    /**
+     * Retrieves a single page of trainings of a specific user, ordered by ID, without loading the user first.
+     *
+     * @param userId  the ID of the user whose trainings are to be found
+     * @param request the requested page
+     * @return a page of trainings of the specified user
+     */
+    public CursorPage<Training> findTrainingsByUserId(Long userId, CursorRequest request) {
+        List<Training> trainings = trainingRepository.findByUserIdAndIdGreaterThanOrderByIdAsc(userId, request.afterId(), request.fetchPageable());
+        return CursorPage.of(trainings, request, Training::getId);
+    }
+
+    /**
+     * Retrieves a single page of trainings completed after a specific date, ordered by ID.
+     * The first pages are served from the {@link CompletedTrainingsCache}, later pages of large results are read with the keyset query.
+     *
+     * @param date    the date after which trainings were completed
+     * @param request the requested page
+     * @return a page of trainings completed after the specified date
+     */
+    public CursorPage<TrainingDto> findTrainingsCompletedAfterDate(Date date, CursorRequest request) {
+        Optional<List<TrainingDto>> cached = completedTrainingsCache.findPage(date, request.afterId(), request.limit() + 1);
+        List<TrainingDto> trainings = cached.orElseGet(() -> trainingRepository.findByEndTimeAfterAndIdGreaterThanOrderByIdAsc(date, request.afterId(), request.fetchPageable())
+                                                                               .stream()
+                                                                               .map(trainingMapper::toDto)
+                                                                               .toList());
+        return CursorPage.of(trainings, request, TrainingDto::getId);
+    }
+
+    /**
+     * Retrieves a single page of trainings of a specific activity type, ordered by ID.
+     *
+     * @param activityType the activity type of the trainings to be found
+     * @param request      the requested page
+     * @return a page of trainings of the specified activity type
+     */
+    public CursorPage<Training> findTrainingsByActivity(ActivityType activityType, CursorRequest request) {
+        List<Training> trainings = trainingRepository.findByActivityTypeAndIdGreaterThanOrderByIdAsc(activityType, request.afterId(), request.fetchPageable());
+        return CursorPage.of(trainings, request, Training::getId);
+    }
+
+    /**
+     * Retrieves a single page of summaries of all trainings, ordered by ID.
+     *
+     * @param request the requested page
+     * @return a page of training summaries
+     */
+    public CursorPage<TrainingSummaryDto> findAllTrainingSummaries(CursorRequest request) {
+        List<TrainingSummaryDto> summaries = trainingRepository.findSummariesAfter(request.afterId(), request.fetchPageable());
+        return CursorPage.of(summaries, request, TrainingSummaryDto::id);
+    }
+
+    /**
+     * Retrieves a single page of summaries of trainings completed after a specific date, ordered by ID.
+     *
+     * @param date    the date after which trainings were completed
+     * @param request the requested page
+     * @return a page of summaries of trainings completed after the specified date
+     */
+    public CursorPage<TrainingSummaryDto> findTrainingSummariesCompletedAfterDate(Date date, CursorRequest request) {
+        List<TrainingSummaryDto> summaries = trainingRepository.findSummariesCompletedAfter(date, request.afterId(), request.fetchPageable());
+        return CursorPage.of(summaries, request, TrainingSummaryDto::id);
+    }
+
+    /**
+     * Retrieves a single page of summaries of trainings of a specific activity type, ordered by ID.
+     *
+     * @param activityType the activity type of the trainings to be found
+     * @param request      the requested page
+     * @return a page of summaries of trainings of the specified activity type
+     */
+    public CursorPage<TrainingSummaryDto> findTrainingSummariesByActivity(ActivityType activityType, CursorRequest request) {
+        List<TrainingSummaryDto> summaries = trainingRepository.findSummariesByActivityType(activityType, request.afterId(), request.fetchPageable());
+        return CursorPage.of(summaries, request, TrainingSummaryDto::id);
+    }
+
+    /**
+     * Passes all trainings to the consumer one by one, reading them from a database cursor.
+     * Every training is detached from the persistence context once consumed, so the memory usage stays constant.
+     *
+     * @param consumer the consumer of the trainings
+     */
+    @Transactional(readOnly = true)
+    public void streamAllTrainings(Consumer<Training> consumer) {
+        try (Stream<Training> trainings = trainingRepository.streamAll()) {
+            trainings.forEach(training -> {
+                consumer.accept(training);
+                entityManager.detach(training);
+                entityManager.detach(training.getUser());
+            });
+        }
+    }
+
+    /**
+     * Retrieves the fastest trainings of a specific activity type, ties broken by ID.
+     *
+     * @param activityType the activity type of the trainings
+     * @param limit        the maximal number of returned trainings
+     * @return a list of trainings ordered by the average speed descending
+     */
+    @Override
+    public List<Training> findFastestTrainings(ActivityType activityType, int limit) {
+        return trainingRepository.findByActivityTypeOrderByAverageSpeedDescIdAsc(activityType, PageRequest.ofSize(limit));
+    }
+
+    /**
+     * Summarizes the trainings of the users started within the time range, per user and activity type,
+     * with a single grouped query regardless of the number of users.
+     *
+     * @param userIds the IDs of the users
+     * @param from    the inclusive lower bound of the start time
+     * @param to      the exclusive upper bound of the start time
+     * @return a list of summaries, one for every user and activity type with at least one training
+     */
+    @Override
+    public List<UserActivitySummary> summarizeTrainingsByUser(Collection<Long> userIds, Date from, Date to) {
+        if (userIds.isEmpty()) {
+            return List.of();
+        }
+        return trainingRepository.summarizeByUserAndActivity(userIds, from, to);
+    }
+
+    /**
+     * Passes the numeric columns of all trainings to the consumer one by one, reading them from a database cursor
+     * as {@link TrainingMetrics} projections, ordered by ID.
+     *
+     * @param consumer the consumer of the training metrics
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void streamTrainingMetrics(Consumer<TrainingMetrics> consumer) {
+        try (Stream<TrainingMetrics> metrics = trainingRepository.streamAllMetrics()) {
+            metrics.forEach(consumer);
+        }
+    }
+
+    /**
+     * Creates a new training and publishes the {@link TrainingsCreatedEvent} within the same transaction.
      *
      * @param training the training to create
      * @return the created training
      * @throws IllegalArgumentException if the training already has a database ID
+     * @throws BusinessException        if the training has no user ID
+     * @throws UserNotFoundException    if the user of the training does not exist
      */
+    @Transactional
     public Training createTraining(Training training) {
         if (training.getId() != null){
             throw new IllegalArgumentException("Training has already DB ID, update is not permitted!");
         }
-        return trainingRepository.save(training);
+        // validated before anything is persisted, so the listeners of the event always see an existing user
+        Long userId = training.getUser() == null ? null : training.getUser().getId();
+        if (userId == null) {
+            throw new BusinessException("User ID is required");
+        }
+        User user = userProvider.getUser(userId).orElseThrow(() -> new UserNotFoundException(userId));
+        Training createdTraining = trainingRepository.save(new Training(user,
+                                                                        training.getStartTime(),
+                                                                        training.getEndTime(),
+                                                                        training.getActivityType(),
+                                                                        training.getDistance(),
+                                                                        training.getAverageSpeed()));
+        eventPublisher.publishEvent(new TrainingsCreatedEvent(List.of(createdTraining)));
+        return createdTraining;
+    }
+
+    /**
+     * Creates many trainings at once.
+     * Items are validated up front and the valid ones are persisted in transactions of {@value #BATCH_CHUNK_SIZE} items,
+     * relying on the pooled ID sequence and JDBC batching. If a chunk fails, its items are retried one by one,
+     * so a single invalid item never rolls back the other ones.
+     *
+     * @param trainings the trainings to create
+     * @return the result with request indexes and IDs of created trainings and reasons of the failed ones
+     * @throws BusinessException if more than {@value #MAX_BATCH_SIZE} trainings are passed
+     */
+    public TrainingBatchResult createTrainings(List<Training> trainings) {
+        if (trainings.size() > MAX_BATCH_SIZE) {
+            throw new BusinessException("At most %s trainings can be created at once, got %s".formatted(MAX_BATCH_SIZE, trainings.size()));
+        }
+        Set<Long> existingUserIds = userProvider.findExistingUserIds(trainings.stream()
+                                                                              .map(Training::getUser)
+                                                                              .filter(Objects::nonNull)
+                                                                              .map(User::getId)
+                                                                              .filter(Objects::nonNull)
+                                                                              .collect(Collectors.toSet()));
+        List<TrainingBatchResult.Failure> failures = new ArrayList<>();
+        List<Integer> validIndexes = new ArrayList<>();
+        for (int i = 0; i < trainings.size(); i++) {
+            String violation = validateBatchItem(trainings.get(i), existingUserIds);
+            if (violation == null) {
+                validIndexes.add(i);
+            } else {
+                failures.add(new TrainingBatchResult.Failure(i, violation));
+            }
+        }
+
+        Long[] createdIds = new Long[trainings.size()];
+        for (int from = 0; from < validIndexes.size(); from += BATCH_CHUNK_SIZE) {
+            List<Integer> chunk = validIndexes.subList(from, Math.min(from + BATCH_CHUNK_SIZE, validIndexes.size()));
+            try {
+                List<Long> ids = transactionTemplate.execute(status -> persistChunk(trainings, chunk));
+                for (int i = 0; i < chunk.size(); i++) {
+                    createdIds[chunk.get(i)] = ids.get(i);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Persisting chunk of {} trainings failed, retrying item by item", chunk.size(), e);
+                for (Integer index : chunk) {
+                    try {
+                        createdIds[index] = transactionTemplate.execute(status -> persistChunk(trainings, List.of(index))).get(0);
+                    } catch (RuntimeException itemException) {
+                        failures.add(new TrainingBatchResult.Failure(index, itemException.getMessage()));
+                    }
+                }
+            }
+        }
+
+        failures.sort(Comparator.comparingInt(TrainingBatchResult.Failure::index));
+        List<TrainingBatchResult.Created> created = new ArrayList<>(validIndexes.size());
+        for (int i = 0; i < createdIds.length; i++) {
+            if (createdIds[i] != null) {
+                created.add(new TrainingBatchResult.Created(i, createdIds[i]));
+            }
+        }
+        return new TrainingBatchResult(created, failures);
+    }
+
+    private List<Long> persistChunk(List<Training> trainings, List<Integer> chunk) {
+        List<Training> persisted = new ArrayList<>(chunk.size());
+        for (Integer index : chunk) {
+            Training item = trainings.get(index);
+            Training training = new Training(entityManager.getReference(User.class, item.getUser().getId()),
+                                             item.getStartTime(),
+                                             item.getEndTime(),
+                                             item.getActivityType(),
+                                             item.getDistance(),
+                                             item.getAverageSpeed());
+            entityManager.persist(training);
+            persisted.add(training);
+        }
+        entityManager.flush();
+        eventPublisher.publishEvent(new TrainingsCreatedEvent(persisted));
+        entityManager.clear();
+        return persisted.stream().map(Training::getId).toList();
+    }
+
+    private static String validateBatchItem(Training training, Set<Long> existingUserIds) {
+        if (training.getId() != null) {
+            return "Training has already DB ID, update is not permitted!";
+        }
+        if (training.getUser() == null || training.getUser().getId() == null) {
+            return "User ID is required";
+        }
+        if (!existingUserIds.contains(training.getUser().getId())) {
+            return "User with ID=%s was not found".formatted(training.getUser().getId());
+        }
+        if (training.getStartTime() == null || training.getEndTime() == null || training.getActivityType() == null) {
+            return "Start time, end time and activity type are required";
+        }
+        if (training.getEndTime().before(training.getStartTime())) {
+            return "End time must not be before start time";
+        }
+        return null;
     }
 
     /**
-     * Updates the distance of a training.
+     * Updates the distance of a training and publishes the {@link TrainingDistanceChangedEvent} within the same transaction.
      *
      * @param trainingId the ID of the training to update
      * @param newDistance the new distance to set
      * @return an {@link Optional} containing the updated training if successful, or {@link Optional#empty()} if the training was not found
      */
     @Override
+    @Transactional
     public Optional<Training> updateTrainingDistance(Long trainingId, double newDistance) {
         Optional<Training> trainingOptional = trainingRepository.findById(trainingId);
         if (trainingOptional.isPresent()) {
             Training training = trainingOptional.get();
+            double previousDistance = training.getDistance();
             training.setDistance(newDistance);
             trainingRepository.save(training);
+            eventPublisher.publishEvent(new TrainingDistanceChangedEvent(training, previousDistance));
             return Optional.of(training);
         }
         return Optional.empty();
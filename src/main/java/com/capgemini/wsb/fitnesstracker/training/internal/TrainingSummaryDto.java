@@ -0,0 +1,19 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import java.util.Date;
+
+/**
+ * Lightweight read model of the training, carrying only the ID and name of the user instead of the whole entity.
+ * Instances are created directly by the JPQL constructor expressions of {@link TrainingRepository}.
+ */
+public record TrainingSummaryDto(Long id,
+                                 Long userId,
+                                 String userFirstName,
+                                 String userLastName,
+                                 Date startTime,
+                                 Date endTime,
+                                 ActivityType activityType,
+                                 double distance,
+                                 double averageSpeed) {
+
+}
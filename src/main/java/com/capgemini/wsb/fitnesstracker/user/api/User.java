@@ -1,16 +1,22 @@
 package com.capgemini.wsb.fitnesstracker.user.api;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.annotation.Nullable;
 import jakarta.persistence.*;
 import lombok.*;
 
 import java.time.LocalDate;
+import java.util.Locale;
 
 /**
  * Entity representing a user in the system.
  */
 @Entity
-@Table(name = "users")
+@Table(name = "users",
+       indexes = {
+               @Index(name = "idx_users_normalized_email", columnList = "normalized_email", unique = true),
+               @Index(name = "idx_users_birthdate_id", columnList = "birthdate, id")
+       })
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 @ToString
@@ -30,10 +36,16 @@ public class User {
     @Column(name = "birthdate", nullable = false)
     private LocalDate birthdate;
 
-    @Setter
     @Column(nullable = false, unique = true)
     private String email;
 
+    /**
+     * Lower-cased copy of the {@link #email}, kept in sync by {@link #setEmail(String)} and used for indexed, case-insensitive lookups.
+     */
+    @JsonIgnore
+    @Column(name = "normalized_email", nullable = false)
+    private String normalizedEmail;
+
     /**
      * Constructor initializing a User object.
      *
@@ -51,7 +63,48 @@ public class User {
         this.firstName = firstName;
         this.lastName = lastName;
         this.birthdate = birthdate;
+        setEmail(email);
+    }
+
+    /**
+     * Constructor initializing a detached copy of an already persisted user, e.g. from a cached snapshot.
+     * Changes of the copy are not persisted.
+     *
+     * @param id        Database ID of the user.
+     * @param firstName First name of the user.
+     * @param lastName  Last name of the user.
+     * @param birthdate Birthdate of the user.
+     * @param email     Email address of the user.
+     */
+    public User(
+            final Long id,
+            final String firstName,
+            final String lastName,
+            final LocalDate birthdate,
+            final String email) {
+
+        this(firstName, lastName, birthdate, email);
+        this.id = id;
+    }
+
+    /**
+     * Updates the email address of the user together with its normalized form.
+     *
+     * @param email New email address of the user.
+     */
+    public void setEmail(final String email) {
         this.email = email;
+        this.normalizedEmail = normalizeEmail(email);
+    }
+
+    /**
+     * Normalizes the email address to the form stored in the {@code normalized_email} column.
+     *
+     * @param email Email address to normalize.
+     * @return Trimmed, lower-cased email address, or {@code null} if {@code null} was passed.
+     */
+    public static String normalizeEmail(final String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
     }
 
 }
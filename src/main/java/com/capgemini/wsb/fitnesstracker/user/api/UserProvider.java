@@ -1,7 +1,12 @@
 package com.capgemini.wsb.fitnesstracker.user.api;
 
+import com.capgemini.wsb.fitnesstracker.pagination.api.CursorPage;
+import com.capgemini.wsb.fitnesstracker.pagination.api.CursorRequest;
+
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 public interface UserProvider {
 
@@ -30,4 +35,35 @@ public interface UserProvider {
      */
     List<User> findAllUsers();
 
+    /**
+     * Retrieves a single page of users, ordered by ID (keyset pagination).
+     *
+     * @param request the requested page
+     * @return A page of users
+     */
+    CursorPage<User> findAllUsers(CursorRequest request);
+
+    /**
+     * Checks whether the user with given ID exists, without loading the user.
+     *
+     * @param userId id of the user to be checked
+     * @return {@code true} if the user exists, {@code false} otherwise
+     */
+    boolean userExists(Long userId);
+
+    /**
+     * Retrieves which of the given user IDs belong to existing users, without loading the users.
+     *
+     * @param userIds IDs of the users to be checked
+     * @return A {@link Set} of IDs of the existing users
+     */
+    Set<Long> findExistingUserIds(Collection<Long> userIds);
+
+    /**
+     * Retrieves the highest ID of any user, e.g. to split the ID space into ranges.
+     *
+     * @return the highest user ID, or {@code 0} if there are no users
+     */
+    long findMaxUserId();
+
 }
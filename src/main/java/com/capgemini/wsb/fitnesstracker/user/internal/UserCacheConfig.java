@@ -0,0 +1,34 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration of the Caffeine backed cache of users, used by {@link UserServiceImpl}.
+ * The cache is registered at startup, so its hit, miss and eviction statistics are published as Actuator cache metrics.
+ */
+@Configuration
+@EnableCaching
+@EnableConfigurationProperties(UserCacheProperties.class)
+class UserCacheConfig {
+
+    /**
+     * Name of the cache holding {@link UserDto} snapshots of users by their ID.
+     */
+    static final String USERS_CACHE = "users";
+
+    @Bean
+    CacheManagerCustomizer<CaffeineCacheManager> userCacheCustomizer(UserCacheProperties properties) {
+        return cacheManager -> cacheManager.registerCustomCache(USERS_CACHE, Caffeine.newBuilder()
+                                                                                     .maximumSize(properties.maxSize())
+                                                                                     .expireAfterWrite(properties.ttl())
+                                                                                     .recordStats()
+                                                                                     .build());
+    }
+
+}
@@ -0,0 +1,18 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the read-through cache of {@link com.capgemini.wsb.fitnesstracker.user.api.User users}.
+ *
+ * @param maxSize maximal number of cached users, least valuable entries are evicted by the W-TinyLFU policy above it
+ * @param ttl     time after which the cached user expires since it was loaded
+ */
+@ConfigurationProperties(prefix = "user.cache")
+record UserCacheProperties(@DefaultValue("10000") long maxSize,
+                           @DefaultValue("10m") Duration ttl) {
+
+}
@@ -1,14 +1,23 @@
 package com.capgemini.wsb.fitnesstracker.user.internal;
 
+import com.capgemini.wsb.fitnesstracker.pagination.api.CursorPage;
+import com.capgemini.wsb.fitnesstracker.pagination.api.CursorRequest;
 import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.java.Log;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Optional;
 
 /**
@@ -23,17 +32,20 @@ class UserController {
 
     private final UserMapper userMapper;
 
+    private final ObjectMapper objectMapper;
+
     /**
-     * Retrieves all users.
+     * Retrieves a page of all users.
      *
-     * @return A list of {@link UserDto} objects representing all users.
+     * @param cursor Cursor of the requested page, taken from the previous page; the first page is returned if missing.
+     * @param limit  Maximal number of users on the page.
+     * @return A page of {@link UserDto} objects representing users.
      */
     @GetMapping
-    public List<UserDto> getAllUsers() {
-        return userService.findAllUsers()
-                          .stream()
-                          .map(userMapper::toDto)
-                          .toList();
+    public CursorPage<UserDto> getAllUsers(@RequestParam(required = false) String cursor,
+                                           @RequestParam(required = false) Integer limit) {
+        return userService.findAllUsers(CursorRequest.of(cursor, limit))
+                          .map(userMapper::toDto);
     }
 
     /**
@@ -53,13 +65,16 @@ class UserController {
     }
 
     /**
-     * Retrieves basic information about all users.
+     * Retrieves a page of basic information about all users.
      *
-     * @return A list of {@link UserBasicInfo} objects containing basic information about each user.
+     * @param cursor Cursor of the requested page, taken from the previous page; the first page is returned if missing.
+     * @param limit  Maximal number of users on the page.
+     * @return A page of {@link UserBasicInfo} objects containing basic information about each user.
      */
     @GetMapping("/basic-info")
-    public List<UserBasicInfo> getAllUserBasicInfo() {
-        return userService.getAllUserBasicInfo();
+    public CursorPage<UserBasicInfo> getAllUserBasicInfo(@RequestParam(required = false) String cursor,
+                                                         @RequestParam(required = false) Integer limit) {
+        return userService.getAllUserBasicInfo(CursorRequest.of(cursor, limit));
     }
 
     /**
@@ -69,7 +84,7 @@ class UserController {
      */
     @GetMapping("/{id}")
     public ResponseEntity<UserDto> getUserById(@PathVariable Long id) {
-        Optional<UserDto> userDto = userService.getUser(id).map(userMapper::toDto);
+        Optional<UserDto> userDto = userService.findUserDto(id);
         return userDto.map(ResponseEntity::ok)
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
@@ -90,22 +105,43 @@ class UserController {
      * Searches for users by email address.
      *
      * @param emailFragment The fragment of the email address to search for.
-     * @return A list of {@link UserEmailInfo} objects containing matching users' email addresses.
+     * @param cursor        Cursor of the requested page, taken from the previous page; the first page is returned if missing.
+     * @param limit         Maximal number of users on the page.
+     * @return A page of {@link UserEmailInfo} objects containing matching users' email addresses.
      */
     @GetMapping("/search")
-    public List<UserEmailInfo> searchUsersByEmail(@RequestParam String emailFragment) {
-        return userService.searchUsersByEmail(emailFragment);
+    public CursorPage<UserEmailInfo> searchUsersByEmail(@RequestParam String emailFragment,
+                                                        @RequestParam(required = false) String cursor,
+                                                        @RequestParam(required = false) Integer limit) {
+        return userService.searchUsersByEmail(emailFragment, CursorRequest.of(cursor, limit));
     }
 
     /**
      * Searches for users older than the specified age.
+     * The response is streamed as a JSON array while the users are read chunk by chunk from the database.
      *
      * @param age The minimum age of users to search for.
-     * @return A list of {@link UserDto} objects representing users older than the specified age.
+     * @return A JSON array of {@link UserDto} objects representing users older than the specified age.
      */
-    @GetMapping("/searchByAge")
-    public List<UserDto> searchUsersOlderThan(@RequestParam int age) {
-        return userService.searchUsersOlderThan(age);
+    @GetMapping(value = "/searchByAge", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> searchUsersOlderThan(@RequestParam int age) {
+        ObjectWriter userWriter = objectMapper.writerFor(UserDto.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+                generator.writeStartArray();
+                userService.searchUsersOlderThan(age, userDto -> writeUser(generator, userWriter, userDto));
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    private static void writeUser(JsonGenerator generator, ObjectWriter userWriter, UserDto userDto) {
+        try {
+            userWriter.writeValue(generator, userDto);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
     /**
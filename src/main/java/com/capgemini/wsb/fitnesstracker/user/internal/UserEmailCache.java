@@ -0,0 +1,75 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Bounded, in-process cache mapping normalized email addresses to user IDs.
+ * Least recently used entries are evicted once the configured maximum size is exceeded.
+ * Entries have to be invalidated by every operation changing or removing the email of the user.
+ */
+@Component
+class UserEmailCache {
+
+    private final int maxSize;
+
+    private final Map<String, Long> idsByEmail;
+
+    private final Map<Long, String> emailsById = new HashMap<>();
+
+    UserEmailCache(@Value("${user.email-cache.max-size:10000}") final int maxSize) {
+        this.maxSize = maxSize;
+        this.idsByEmail = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Long> eldest) {
+                if (size() > UserEmailCache.this.maxSize) {
+                    emailsById.remove(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Retrieves the cached ID of the user with given email.
+     *
+     * @param email email of the user (does not have to be normalized)
+     * @return {@link Optional} containing the cached user ID, or {@link Optional#empty()} if not cached
+     */
+    synchronized Optional<Long> getUserId(final String email) {
+        return Optional.ofNullable(idsByEmail.get(User.normalizeEmail(email)));
+    }
+
+    /**
+     * Caches the ID of the user under its current email.
+     *
+     * @param user user to be cached, must already have a DB ID
+     */
+    synchronized void put(final User user) {
+        String previousEmail = emailsById.put(user.getId(), user.getNormalizedEmail());
+        if (previousEmail != null) {
+            idsByEmail.remove(previousEmail);
+        }
+        idsByEmail.put(user.getNormalizedEmail(), user.getId());
+    }
+
+    /**
+     * Removes the entry of the user with given ID from the cache.
+     *
+     * @param userId ID of the user to be evicted
+     */
+    synchronized void evict(final Long userId) {
+        String email = emailsById.remove(userId);
+        if (email != null) {
+            idsByEmail.remove(email);
+        }
+    }
+
+}
@@ -0,0 +1,277 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import jakarta.annotation.Nullable;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram (3-gram) inverted index over normalized user emails.
+ * Every trigram of an email points to a sorted posting list of user IDs, so fragment searches only intersect
+ * the posting lists of the fragment's trigrams instead of scanning all users.
+ * The index is rebuilt from the database on application startup and kept in sync by {@link UserServiceImpl}.
+ * A rebuild fills new maps aside and swaps them in under the lock, replaying the changes made while the users were read,
+ * so searches never see a partial index and concurrent changes are not lost.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+class UserEmailTrigramIndex {
+
+    private static final int GRAM_LENGTH = 3;
+
+    private final UserRepository userRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Map<String, PostingList> postings = new HashMap<>();
+
+    private Map<Long, String> emailsById = new HashMap<>();
+
+    /**
+     * Emails changed while a rebuild reads the users, by user ID; {@code null} values stand for removed users.
+     */
+    @Nullable
+    private Map<Long, String> changesDuringRebuild;
+
+    /**
+     * Rebuilds the index from all users stored in the database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild = new LinkedHashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Map<String, PostingList> rebuiltPostings = new HashMap<>();
+        Map<Long, String> rebuiltEmails = new HashMap<>();
+        List<UserEmailInfo> users;
+        try {
+            users = userRepository.findAllUserEmailInfo();
+            users.forEach(user -> add(rebuiltPostings, rebuiltEmails, user.id(), user.email()));
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+        lock.writeLock().lock();
+        try {
+            // replaying is idempotent, so changes already seen by the read are safely applied again
+            changesDuringRebuild.forEach((userId, email) -> {
+                remove(rebuiltPostings, rebuiltEmails, userId);
+                if (email != null) {
+                    add(rebuiltPostings, rebuiltEmails, userId, email);
+                }
+            });
+            changesDuringRebuild = null;
+            postings = rebuiltPostings;
+            emailsById = rebuiltEmails;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Indexed emails of {} users", users.size());
+    }
+
+    /**
+     * Adds or replaces the indexed email of the given user.
+     *
+     * @param user user to be indexed, must already have a DB ID
+     */
+    void put(final User user) {
+        lock.writeLock().lock();
+        try {
+            remove(postings, emailsById, user.getId());
+            add(postings, emailsById, user.getId(), user.getEmail());
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.put(user.getId(), user.getEmail());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the user with given ID from the index.
+     *
+     * @param userId ID of the user to be removed
+     */
+    void remove(final Long userId) {
+        lock.writeLock().lock();
+        try {
+            remove(postings, emailsById, userId);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.put(userId, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Searches for users whose email contains the given fragment, ignoring case.
+     *
+     * @param emailFragment fragment of the email to search for
+     * @param afterId       only users with ID greater than this one are returned
+     * @param limit         maximal number of returned users
+     * @return list of {@link UserEmailInfo} of matching users, ordered by user ID
+     * @throws IllegalArgumentException if the fragment is {@code null}
+     */
+    List<UserEmailInfo> search(final String emailFragment, final long afterId, final int limit) {
+        if (emailFragment == null) {
+            throw new IllegalArgumentException("Email fragment must not be null");
+        }
+        String fragment = User.normalizeEmail(emailFragment);
+        lock.readLock().lock();
+        try {
+            if (fragment.length() < GRAM_LENGTH) {
+                return scan(fragment, afterId, limit);
+            }
+            long[] candidates = intersectPostings(fragment);
+            int start = Arrays.binarySearch(candidates, afterId);
+            start = start >= 0 ? start + 1 : -start - 1;
+            List<UserEmailInfo> result = new ArrayList<>(Math.min(limit, candidates.length - start));
+            for (int i = start; i < candidates.length && result.size() < limit; i++) {
+                String email = emailsById.get(candidates[i]);
+                // trigram intersection may yield false positives for fragments longer than one trigram
+                if (User.normalizeEmail(email).contains(fragment)) {
+                    result.add(new UserEmailInfo(candidates[i], email));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private long[] intersectPostings(final String fragment) {
+        List<PostingList> lists = new ArrayList<>();
+        for (int i = 0; i + GRAM_LENGTH <= fragment.length(); i++) {
+            PostingList postingList = postings.get(fragment.substring(i, i + GRAM_LENGTH));
+            if (postingList == null) {
+                return new long[0];
+            }
+            lists.add(postingList);
+        }
+        lists.sort((first, second) -> Integer.compare(first.size, second.size));
+
+        long[] result = Arrays.copyOf(lists.get(0).ids, lists.get(0).size);
+        int resultSize = result.length;
+        for (int i = 1; i < lists.size() && resultSize > 0; i++) {
+            PostingList other = lists.get(i);
+            int kept = 0;
+            int j = 0;
+            for (int k = 0; k < resultSize && j < other.size; ) {
+                if (result[k] == other.ids[j]) {
+                    result[kept++] = result[k++];
+                    j++;
+                } else if (result[k] < other.ids[j]) {
+                    k++;
+                } else {
+                    j++;
+                }
+            }
+            resultSize = kept;
+        }
+        return Arrays.copyOf(result, resultSize);
+    }
+
+    private List<UserEmailInfo> scan(final String fragment, final long afterId, final int limit) {
+        return emailsById.entrySet()
+                         .stream()
+                         .filter(entry -> entry.getKey() > afterId)
+                         .filter(entry -> User.normalizeEmail(entry.getValue()).contains(fragment))
+                         .map(entry -> new UserEmailInfo(entry.getKey(), entry.getValue()))
+                         .sorted((first, second) -> Long.compare(first.id(), second.id()))
+                         .limit(limit)
+                         .toList();
+    }
+
+    private static void add(final Map<String, PostingList> postings,
+                            final Map<Long, String> emailsById,
+                            final Long userId,
+                            final String email) {
+        emailsById.put(userId, email);
+        for (String gram : trigrams(User.normalizeEmail(email))) {
+            postings.computeIfAbsent(gram, key -> new PostingList()).add(userId);
+        }
+    }
+
+    private static void remove(final Map<String, PostingList> postings,
+                               final Map<Long, String> emailsById,
+                               final Long userId) {
+        String email = emailsById.remove(userId);
+        if (email == null) {
+            return;
+        }
+        for (String gram : trigrams(User.normalizeEmail(email))) {
+            PostingList postingList = postings.get(gram);
+            if (postingList != null && postingList.remove(userId) && postingList.size == 0) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    private static List<String> trigrams(final String value) {
+        List<String> grams = new ArrayList<>();
+        for (int i = 0; i + GRAM_LENGTH <= value.length(); i++) {
+            String gram = value.substring(i, i + GRAM_LENGTH);
+            if (!grams.contains(gram)) {
+                grams.add(gram);
+            }
+        }
+        return grams;
+    }
+
+    /**
+     * Sorted, growable array of user IDs.
+     */
+    private static final class PostingList {
+
+        private long[] ids = new long[4];
+
+        private int size;
+
+        void add(final long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                return;
+            }
+            int insertionPoint = -position - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, insertionPoint, ids, insertionPoint + 1, size - insertionPoint);
+            ids[insertionPoint] = id;
+            size++;
+        }
+
+        boolean remove(final long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+            return true;
+        }
+    }
+
+}
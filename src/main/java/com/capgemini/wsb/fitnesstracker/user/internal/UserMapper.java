@@ -37,4 +37,18 @@ class UserMapper {
                         userDto.email());
     }
 
+    /**
+     * Maps a UserDto object of an already persisted user to a detached User object with the same ID.
+     *
+     * @param userDto The UserDto object to map.
+     * @return The mapped, detached User object.
+     */
+    User toDetachedEntity(UserDto userDto) {
+        return new User(userDto.Id(),
+                        userDto.firstName(),
+                        userDto.lastName(),
+                        userDto.birthdate(),
+                        userDto.email());
+    }
+
 }
@@ -1,14 +1,17 @@
 package com.capgemini.wsb.fitnesstracker.user.internal;
 
 import com.capgemini.wsb.fitnesstracker.user.api.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
-import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 
 
 /**
@@ -17,39 +20,99 @@ import java.util.Optional;
 interface UserRepository extends JpaRepository<User, Long> {
 
     /**
-     * Query searching users by email address. It matches by exact match.
+     * Query searching users by email address. It matches case-insensitively, using the indexed {@code normalized_email} column.
      *
      * @param email email of the user to search
      * @return {@link Optional} containing found user or {@link Optional#empty()} if none matched
      */
     default Optional<User> findByEmail(String email) {
-        return findAll().stream()
-                        .filter(user -> Objects.equals(user.getEmail(), email))
-                        .findFirst();
+        return findByNormalizedEmail(User.normalizeEmail(email));
     }
 
     /**
-     * Finds all users and returns their basic information.
+     * Query searching users by already normalized email address (see {@link User#normalizeEmail(String)}).
      *
+     * @param normalizedEmail normalized email of the user to search
+     * @return {@link Optional} containing found user or {@link Optional#empty()} if none matched
+     */
+    Optional<User> findByNormalizedEmail(String normalizedEmail);
+
+    /**
+     * Finds the page of users with ID greater than the given one, ordered by ID (keyset pagination).
+     *
+     * @param afterId  ID of the last user of the previous page
+     * @param pageable page size of the result, only the first page is expected
+     * @return A list of users ordered by ID.
+     */
+    List<User> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+
+    /**
+     * Finds basic information of the page of users with ID greater than the given one, ordered by ID (keyset pagination).
+     *
+     * @param afterId  ID of the last user of the previous page
+     * @param pageable page size of the result, only the first page is expected
      * @return A list of {@link UserBasicInfo} objects containing basic information about each user.
      */
-    default List<UserBasicInfo> findAllUserBasicInfo(){
-        return findAll().stream()
-                .map(user -> new UserBasicInfo(user.getId(), user.getLastName()))
-                .toList();
-    }
+    @Query("""
+            select new com.capgemini.wsb.fitnesstracker.user.internal.UserBasicInfo(u.id, u.lastName)
+            from User u
+            where u.id > :afterId
+            order by u.id
+            """)
+    List<UserBasicInfo> findUserBasicInfoAfter(@Param("afterId") Long afterId, Pageable pageable);
 
     /**
-     * Finds users whose email addresses contain the specified fragment.
+     * Finds email information of all users, without loading whole entities.
      *
-     * @param emailFragment The fragment of the email address to search for.
-     * @return A list of {@link UserEmailInfo} objects containing information about users whose email addresses match the fragment.
+     * @return A list of {@link UserEmailInfo} objects of all users.
      */
-    default List<UserEmailInfo> findByEmailContaining(String emailFragment) {
-        return findAll().stream()
-                .filter(user -> user.getEmail().contains(emailFragment))
-                .map(user -> new UserEmailInfo(user.getId(), user.getEmail()))
-                .toList();
-    }
+    @Query("select new com.capgemini.wsb.fitnesstracker.user.internal.UserEmailInfo(u.id, u.email) from User u")
+    List<UserEmailInfo> findAllUserEmailInfo();
+
+    /**
+     * Finds the first page of users born before the given date, ordered by the {@code (birthdate, id)} key.
+     *
+     * @param threshold exclusive upper bound of the birthdate
+     * @param pageable  page size of the result, only the first page is expected
+     * @return A list of users ordered by birthdate and ID.
+     */
+    List<User> findByBirthdateBeforeOrderByBirthdateAscIdAsc(LocalDate threshold, Pageable pageable);
+
+    /**
+     * Finds the next page of users born before the given date, following the last user of the previous page (keyset pagination).
+     *
+     * @param threshold     exclusive upper bound of the birthdate
+     * @param lastBirthdate birthdate of the last user from the previous page
+     * @param lastId        ID of the last user from the previous page
+     * @param pageable      page size of the result, only the first page is expected
+     * @return A list of users ordered by birthdate and ID.
+     */
+    @Query("""
+            select u from User u
+            where u.birthdate < :threshold
+              and (u.birthdate > :lastBirthdate or (u.birthdate = :lastBirthdate and u.id > :lastId))
+            order by u.birthdate, u.id
+            """)
+    List<User> findByBirthdateBeforeAfterKey(@Param("threshold") LocalDate threshold,
+                                             @Param("lastBirthdate") LocalDate lastBirthdate,
+                                             @Param("lastId") Long lastId,
+                                             Pageable pageable);
+
+    /**
+     * Finds which of the given IDs belong to existing users.
+     *
+     * @param ids IDs of the users to be checked
+     * @return A set of IDs of the existing users.
+     */
+    @Query("select u.id from User u where u.id in :ids")
+    Set<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Finds the highest ID of any user.
+     *
+     * @return the highest user ID, or {@code 0} if there are no users
+     */
+    @Query("select coalesce(max(u.id), 0) from User u")
+    long findMaxId();
 
 }
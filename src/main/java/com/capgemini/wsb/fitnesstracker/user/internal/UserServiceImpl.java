@@ -1,16 +1,26 @@
 package com.capgemini.wsb.fitnesstracker.user.internal;
 
+import com.capgemini.wsb.fitnesstracker.pagination.api.CursorPage;
+import com.capgemini.wsb.fitnesstracker.pagination.api.CursorRequest;
 import com.capgemini.wsb.fitnesstracker.user.api.User;
 import com.capgemini.wsb.fitnesstracker.user.api.UserProvider;
 import com.capgemini.wsb.fitnesstracker.user.api.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.function.Consumer;
 
 
 /**
@@ -21,8 +31,13 @@ import java.util.stream.Collectors;
 @Slf4j
 public class UserServiceImpl implements UserService, UserProvider {
 
+    private static final int SEARCH_CHUNK_SIZE = 500;
+
     private final UserRepository userRepository;
     private final UserMapper userMapper;
+    private final UserEmailCache userEmailCache;
+    private final UserEmailTrigramIndex userEmailTrigramIndex;
+    private final CacheManager cacheManager;
 
     /**
      * Creates a new user in the system.
@@ -37,29 +52,63 @@ public class UserServiceImpl implements UserService, UserProvider {
         if (user.getId() != null) {
             throw new IllegalArgumentException("User has already DB ID, update is not permitted!");
         }
-        return userRepository.save(user);
+        User createdUser = userRepository.save(user);
+        userEmailTrigramIndex.put(createdUser);
+        return createdUser;
     }
 
     /**
-     * Retrieves a user by their ID.
+     * Retrieves a user by their ID, served from the {@link UserCacheConfig#USERS_CACHE} cache.
+     * The returned user is a detached copy of the cached snapshot, so it can be referenced by new entities,
+     * but changes of it are not persisted.
      *
      * @param userId The ID of the user to retrieve.
      * @return An {@link Optional} containing the retrieved user, or {@link Optional#empty()} if not found.
      */
     @Override
     public Optional<User> getUser(final Long userId) {
-        return userRepository.findById(userId);
+        return findUserDto(userId).map(userMapper::toDetachedEntity);
     }
 
     /**
-     * Retrieves a user by their email address.
+     * Retrieves the data of a user by their ID.
+     * Found users are served from the {@link UserCacheConfig#USERS_CACHE} cache until they are changed or expire;
+     * the cache holds immutable {@link UserDto} snapshots, so no caller can change a cached user or attach it to a persistence context.
+     *
+     * @param userId The ID of the user to retrieve.
+     * @return An {@link Optional} containing the {@link UserDto} of the user, or {@link Optional#empty()} if not found.
+     */
+    public Optional<UserDto> findUserDto(final Long userId) {
+        // looked up programmatically, so getUser and userExists share the cache without a self-invoked proxy
+        Cache users = Objects.requireNonNull(cacheManager.getCache(UserCacheConfig.USERS_CACHE));
+        UserDto cachedUser = users.get(userId, UserDto.class);
+        if (cachedUser != null) {
+            return Optional.of(cachedUser);
+        }
+        Optional<UserDto> user = userRepository.findById(userId).map(userMapper::toDto);
+        user.ifPresent(userDto -> users.put(userId, userDto));
+        return user;
+    }
+
+    /**
+     * Retrieves a user by their email address (case-insensitive).
+     * The ID of the user is resolved through the {@link UserEmailCache} first, so repeated lookups end up with a primary key fetch.
      *
      * @param email The email address of the user to retrieve.
      * @return An {@link Optional} containing the retrieved user, or {@link Optional#empty()} if not found.
      */
     @Override
     public Optional<User> getUserByEmail(final String email) {
-        return userRepository.findByEmail(email);
+        String normalizedEmail = User.normalizeEmail(email);
+        Optional<User> cachedUser = userEmailCache.getUserId(normalizedEmail)
+                                                  .flatMap(userRepository::findById)
+                                                  .filter(user -> user.getNormalizedEmail().equals(normalizedEmail));
+        if (cachedUser.isPresent()) {
+            return cachedUser;
+        }
+        Optional<User> user = userRepository.findByNormalizedEmail(normalizedEmail);
+        user.ifPresent(userEmailCache::put);
+        return user;
     }
 
     /**
@@ -73,12 +122,62 @@ public class UserServiceImpl implements UserService, UserProvider {
     }
 
     /**
-     * Retrieves basic information about all users in the system.
+     * Checks whether the user with given ID exists, answered by the {@link UserCacheConfig#USERS_CACHE} cache if possible.
+     * Only existing users are cached, so a missing user is always looked up in the database.
      *
-     * @return A list of {@link UserBasicInfo} objects containing basic information about each user.
+     * @param userId The ID of the user to check.
+     * @return {@code true} if the user exists, {@code false} otherwise.
      */
-    public List<UserBasicInfo> getAllUserBasicInfo() {
-        return userRepository.findAllUserBasicInfo();
+    @Override
+    public boolean userExists(final Long userId) {
+        return findUserDto(userId).isPresent();
+    }
+
+    /**
+     * Retrieves which of the given user IDs belong to existing users.
+     *
+     * @param userIds The IDs of the users to check.
+     * @return A set of IDs of the existing users.
+     */
+    @Override
+    public Set<Long> findExistingUserIds(final Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return Set.of();
+        }
+        return userRepository.findExistingIds(userIds);
+    }
+
+    /**
+     * Retrieves the highest ID of any user.
+     *
+     * @return The highest user ID, or {@code 0} if there are no users.
+     */
+    @Override
+    public long findMaxUserId() {
+        return userRepository.findMaxId();
+    }
+
+    /**
+     * Retrieves a single page of users in the system, ordered by ID.
+     *
+     * @param request The requested page.
+     * @return A page of users.
+     */
+    @Override
+    public CursorPage<User> findAllUsers(CursorRequest request) {
+        List<User> users = userRepository.findByIdGreaterThanOrderByIdAsc(request.afterId(), request.fetchPageable());
+        return CursorPage.of(users, request, User::getId);
+    }
+
+    /**
+     * Retrieves a single page of basic information about users in the system, ordered by ID.
+     *
+     * @param request The requested page.
+     * @return A page of {@link UserBasicInfo} objects containing basic information about each user.
+     */
+    public CursorPage<UserBasicInfo> getAllUserBasicInfo(CursorRequest request) {
+        List<UserBasicInfo> users = userRepository.findUserBasicInfoAfter(request.afterId(), request.fetchPageable());
+        return CursorPage.of(users, request, UserBasicInfo::id);
     }
 
     /**
@@ -86,35 +185,45 @@ public class UserServiceImpl implements UserService, UserProvider {
      *
      * @param id The ID of the user to delete.
      */
+    @CacheEvict(cacheNames = UserCacheConfig.USERS_CACHE, key = "#id")
     public void deleteUser(Long id) {
         userRepository.deleteById(id);
+        userEmailCache.evict(id);
+        userEmailTrigramIndex.remove(id);
     }
 
     /**
-     * Searches for users whose email addresses contain the specified fragment.
+     * Searches for users whose email addresses contain the specified fragment, ignoring case.
+     * The search is answered by the {@link UserEmailTrigramIndex}, without touching the database.
      *
      * @param emailFragment The fragment of the email address to search for.
-     * @return A list of {@link UserEmailInfo} objects containing information about matching users.
+     * @param request       The requested page.
+     * @return A page of {@link UserEmailInfo} objects containing information about matching users.
      */
-    public List<UserEmailInfo> searchUsersByEmail(String emailFragment) {
-        return userRepository.findByEmailContaining(emailFragment);
+    public CursorPage<UserEmailInfo> searchUsersByEmail(String emailFragment, CursorRequest request) {
+        List<UserEmailInfo> users = userEmailTrigramIndex.search(emailFragment, request.afterId(), request.limit() + 1);
+        return CursorPage.of(users, request, UserEmailInfo::id);
     }
 
     /**
-     * Searches for users older than the specified age.
+     * Searches for users older than the specified age and passes them to the consumer chunk by chunk.
+     * Users are read with keyset pagination over the {@code (birthdate, id)} index, so only a single chunk is held in memory at a time.
      *
-     * @param age The age threshold.
-     * @return A list of {@link UserDto} objects representing users older than the specified age.
+     * @param age      The age threshold.
+     * @param consumer The consumer of {@link UserDto} objects representing users older than the specified age.
      */
-    public List<UserDto> searchUsersOlderThan(int age) {
+    public void searchUsersOlderThan(int age, Consumer<UserDto> consumer) {
         LocalDate dateThreshold = LocalDate.now().minusYears(age);
-        List<User> users = userRepository.findAll();
-        List<User> filteredUsers = users.stream()
-                .filter(user -> user.getBirthdate().isBefore(dateThreshold))
-                .toList();
-        return filteredUsers.stream()
-                .map(user -> new UserDto(user.getId(), user.getFirstName(), user.getLastName(), user.getBirthdate(), user.getEmail()))
-                .collect(Collectors.toList());
+        Pageable chunk = PageRequest.ofSize(SEARCH_CHUNK_SIZE);
+        List<User> users = userRepository.findByBirthdateBeforeOrderByBirthdateAscIdAsc(dateThreshold, chunk);
+        while (!users.isEmpty()) {
+            users.stream().map(userMapper::toDto).forEach(consumer);
+            if (users.size() < SEARCH_CHUNK_SIZE) {
+                return;
+            }
+            User last = users.get(users.size() - 1);
+            users = userRepository.findByBirthdateBeforeAfterKey(dateThreshold, last.getBirthdate(), last.getId(), chunk);
+        }
     }
 
     /**
@@ -124,12 +233,15 @@ public class UserServiceImpl implements UserService, UserProvider {
      * @param newEmail The new email address.
      * @return An {@link Optional} containing the updated user, or {@link Optional#empty()} if not found.
      */
+    @CacheEvict(cacheNames = UserCacheConfig.USERS_CACHE, key = "#id")
     public Optional<User> updateUserEmail(Long id, String newEmail) {
         Optional<User> userOptional = userRepository.findById(id);
         if (userOptional.isPresent()) {
             User user = userOptional.get();
             user.setEmail(newEmail);
             userRepository.save(user);
+            userEmailCache.evict(id);
+            userEmailTrigramIndex.put(user);
             return Optional.of(user);
         }
         return Optional.empty();
@@ -0,0 +1,29 @@
+package com.capgemini.wsb.fitnesstracker;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hibernate {@link StatementInspector} counting all SQL statements prepared by the application in tests.
+ * Registered through the {@code hibernate.session_factory.statement_inspector} property of the test configuration.
+ */
+public class QueryCounter implements StatementInspector {
+
+    private static final AtomicLong COUNT = new AtomicLong();
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.incrementAndGet();
+        return sql;
+    }
+
+    public static void reset() {
+        COUNT.set(0);
+    }
+
+    public static long count() {
+        return COUNT.get();
+    }
+
+}
@@ -0,0 +1,148 @@
+package com.capgemini.wsb.fitnesstracker.analytics.internal;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
+import com.capgemini.wsb.fitnesstracker.exception.api.BusinessException;
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingDistanceChangedEvent;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingMetrics;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingProvider;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.training.internal.TrainingServiceImpl;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Trainings of every test start in a year of their own, as the store keeps the trainings of the previous tests.
+ */
+@IntegrationTest
+@TestPropertySource(properties = "analytics.columnar.enabled=true")
+class ColumnarTrainingStoreIntegrationTest extends IntegrationTestBase {
+
+    private static final long HOUR_MILLIS = 3_600_000;
+
+    @Autowired
+    private ColumnarTrainingStore columnarTrainingStore;
+
+    @Autowired
+    private TrainingServiceImpl trainingService;
+
+    @Test
+    void shouldAggregateCreatedTrainings_byActivityAndTimeRange() {
+        User user = existingUser(generateUser());
+        trainingService.createTraining(generateTraining(user, 2030, 0, ActivityType.RUNNING, HOUR_MILLIS, 10.0));
+        trainingService.createTraining(generateTraining(user, 2030, 1, ActivityType.RUNNING, 2 * HOUR_MILLIS, 20.0));
+        trainingService.createTraining(generateTraining(user, 2030, 2, ActivityType.CYCLING, HOUR_MILLIS, 30.0));
+
+        TrainingAggregateDto all = columnarTrainingStore.aggregate(AnalyticsMetric.DISTANCE, null, yearStart(2030), yearStart(2031), List.of());
+        assertThat(all.count()).isEqualTo(3);
+        assertThat(all.sum()).isCloseTo(60.0, within(1e-9));
+        assertThat(all.average()).isCloseTo(20.0, within(1e-9));
+
+        TrainingAggregateDto running = columnarTrainingStore.aggregate(AnalyticsMetric.DURATION, ActivityType.RUNNING, yearStart(2030), yearStart(2031), List.of());
+        assertThat(running.count()).isEqualTo(2);
+        assertThat(running.average()).isCloseTo(1.5 * HOUR_MILLIS, within(1e-9));
+
+        TrainingAggregateDto firstDay = columnarTrainingStore.aggregate(AnalyticsMetric.DISTANCE, null, yearStart(2030), yearStart(2030) + 24 * HOUR_MILLIS, List.of());
+        assertThat(firstDay.count()).isEqualTo(1);
+        assertThat(firstDay.sum()).isCloseTo(10.0, within(1e-9));
+    }
+
+    @Test
+    void shouldComputeNearestRankPercentiles() {
+        User user = existingUser(generateUser());
+        for (int day = 0; day < 10; day++) {
+            trainingService.createTraining(generateTraining(user, 2032, day, ActivityType.WALKING, HOUR_MILLIS, day + 1.0));
+        }
+
+        TrainingAggregateDto aggregate = columnarTrainingStore.aggregate(AnalyticsMetric.DISTANCE, ActivityType.WALKING, yearStart(2032), yearStart(2033), List.of(50.0, 90.0, 100.0));
+
+        assertThat(aggregate.count()).isEqualTo(10);
+        assertThat(aggregate.percentiles()).containsExactly(entry(50.0, 5.0), entry(90.0, 9.0), entry(100.0, 10.0));
+    }
+
+    @Test
+    void shouldLoadEveryStoredTrainingOnce_andUpdateItsDistance() {
+        User user = existingUser(generateUser());
+        List<Training> trainings = new ArrayList<>();
+        // more rows than the initial capacity, so the columns and the ID index grow
+        for (int i = 0; i < 1500; i++) {
+            trainings.add(persistTraining(generateTraining(user, 2034, i % 300, ActivityType.SWIMMING, HOUR_MILLIS, 1.0)));
+        }
+
+        columnarTrainingStore.load();
+        columnarTrainingStore.load();
+        trainingService.updateTrainingDistance(trainings.get(0).getId(), 3.0);
+        trainingService.updateTrainingDistance(trainings.get(1499).getId(), 5.0);
+
+        TrainingAggregateDto aggregate = columnarTrainingStore.aggregate(AnalyticsMetric.DISTANCE, ActivityType.SWIMMING, yearStart(2034), yearStart(2035), List.of());
+        assertThat(aggregate.count()).isEqualTo(1500);
+        assertThat(aggregate.sum()).isCloseTo(1506.0, within(1e-9));
+    }
+
+    @Test
+    void shouldKeepChangedDistance_whenLoadReadTrainingBeforeTheChange() {
+        User user = existingUser(generateUser());
+        Training training = persistTraining(generateTraining(user, 2036, 0, ActivityType.RUNNING, HOUR_MILLIS, 1.0));
+        TrainingMetrics readBeforeChange = TrainingMetrics.of(training);
+        training.setDistance(4.0);
+        TrainingProvider trainingProvider = mock(TrainingProvider.class);
+        ColumnarTrainingStore store = new ColumnarTrainingStore(trainingProvider);
+        doAnswer(invocation -> {
+            // the change commits after the load has read the training, but before the training is appended
+            store.onTrainingDistanceChanged(new TrainingDistanceChangedEvent(training, 1.0));
+            invocation.<Consumer<TrainingMetrics>>getArgument(0).accept(readBeforeChange);
+            return null;
+        }).when(trainingProvider).streamTrainingMetrics(any());
+
+        store.load();
+
+        TrainingAggregateDto aggregate = store.aggregate(AnalyticsMetric.DISTANCE, ActivityType.RUNNING, yearStart(2036), yearStart(2037), List.of());
+        assertThat(aggregate.count()).isEqualTo(1);
+        assertThat(aggregate.sum()).isCloseTo(4.0, within(1e-9));
+    }
+
+    @Test
+    void shouldRejectPercentile_whenOutOfRange() {
+        assertThatThrownBy(() -> columnarTrainingStore.aggregate(AnalyticsMetric.DISTANCE, null, Long.MIN_VALUE, Long.MAX_VALUE, List.of(0.0)))
+                .isInstanceOf(BusinessException.class);
+        assertThatThrownBy(() -> columnarTrainingStore.aggregate(AnalyticsMetric.DISTANCE, null, Long.MIN_VALUE, Long.MAX_VALUE, List.of(100.5)))
+                .isInstanceOf(BusinessException.class);
+    }
+
+    private static long yearStart(final int year) {
+        return LocalDate.of(year, 1, 1).atStartOfDay().toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static User generateUser() {
+        return new User("Emma", "Johnson", LocalDate.of(1996, 7, 15), "emma.johnson@domain.com");
+    }
+
+    private static Training generateTraining(final User user,
+                                             final int year,
+                                             final int day,
+                                             final ActivityType activityType,
+                                             final long durationMillis,
+                                             final double distance) {
+        Date start = new Date(yearStart(year) + day * 24 * HOUR_MILLIS + 8 * HOUR_MILLIS);
+        return new Training(user, start, new Date(start.getTime() + durationMillis), activityType, distance, distance * HOUR_MILLIS / durationMillis);
+    }
+
+}
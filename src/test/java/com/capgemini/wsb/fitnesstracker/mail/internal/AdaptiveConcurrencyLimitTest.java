@@ -0,0 +1,110 @@
+package com.capgemini.wsb.fitnesstracker.mail.internal;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long TARGET_LATENCY = MILLISECONDS.toNanos(100);
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+
+    @Test
+    void shouldGrowByAboutOnePerRound_whenSendsAreFast() {
+        AdaptiveConcurrencyLimit limit = limit(4);
+
+        for (int round = 0; round < 3; round++) {
+            int sends = limit.limit();
+            for (int i = 0; i < sends; i++) {
+                limit.onSuccess(TARGET_LATENCY);
+            }
+        }
+
+        // 4 -> 4.92 -> 5.69 -> 6.52, the increase per send shrinks as the limit grows
+        assertThat(limit.limit()).isEqualTo(6);
+    }
+
+    @Test
+    void shouldNotGrowAboveMaximum_whenSendsAreFast() {
+        AdaptiveConcurrencyLimit limit = limit(4);
+
+        for (int i = 0; i < 1_000; i++) {
+            limit.onSuccess(0);
+        }
+
+        assertThat(limit.limit()).isEqualTo(10);
+    }
+
+    @Test
+    void shouldShrinkByBackoffRatio_whenRelayIsOverloaded() {
+        AdaptiveConcurrencyLimit limit = limit(8);
+
+        limit.onOverload();
+
+        assertThat(limit.limit()).isEqualTo(4);
+    }
+
+    @Test
+    void shouldShrinkByBackoffRatio_whenSendIsSlowerThanTargetLatency() {
+        AdaptiveConcurrencyLimit limit = limit(8);
+
+        limit.onSuccess(TARGET_LATENCY + 1);
+
+        assertThat(limit.limit()).isEqualTo(4);
+    }
+
+    @Test
+    void shouldShrinkOncePerTargetLatency_whenSeveralSendsAreSlow() {
+        AdaptiveConcurrencyLimit limit = limit(8);
+
+        limit.onOverload();
+        clock.addAndGet(TARGET_LATENCY - 1);
+        limit.onOverload();
+        limit.onSuccess(TARGET_LATENCY * 2);
+
+        assertThat(limit.limit()).isEqualTo(4);
+
+        clock.addAndGet(1);
+        limit.onOverload();
+
+        assertThat(limit.limit()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldNotShrinkBelowMinimum_whenRelayStaysOverloaded() {
+        AdaptiveConcurrencyLimit limit = limit(4);
+
+        for (int i = 0; i < 10; i++) {
+            limit.onOverload();
+            clock.addAndGet(TARGET_LATENCY);
+        }
+
+        assertThat(limit.limit()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldClampInitialLimit_whenItIsOutOfBounds() {
+        assertThat(limit(0).limit()).isEqualTo(1);
+        assertThat(limit(50).limit()).isEqualTo(10);
+    }
+
+    @Test
+    void shouldRejectConfiguration_whenBoundsOrRatioAreInvalid() {
+        assertThatThrownBy(() -> new AdaptiveConcurrencyLimit(0, 10, 4, TARGET_LATENCY, 0.5, clock::get))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new AdaptiveConcurrencyLimit(5, 4, 4, TARGET_LATENCY, 0.5, clock::get))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new AdaptiveConcurrencyLimit(1, 10, 4, TARGET_LATENCY, 1.0, clock::get))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private AdaptiveConcurrencyLimit limit(final int initialLimit) {
+        return new AdaptiveConcurrencyLimit(1, 10, initialLimit, TARGET_LATENCY, 0.5, clock::get);
+    }
+
+}
@@ -0,0 +1,52 @@
+package com.capgemini.wsb.fitnesstracker.mail.internal;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailDto;
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailSender;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.IntStream;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@IntegrationTest
+@SpringBootTest
+class AsyncEmailSenderIntegrationTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired
+    private EmailSender emailSender;
+
+    @Test
+    void shouldDeliverAllQueuedEmails_whenSendingAsynchronously() throws Exception {
+        List<CompletableFuture<Void>> deliveries = IntStream.range(0, 5)
+                                                            .mapToObj(i -> emailSender.sendAsync(new EmailDto("user" + i + "@example.com", "Subject " + i, "Content " + i)))
+                                                            .toList();
+
+        CompletableFuture.allOf(deliveries.toArray(CompletableFuture[]::new)).get(10, SECONDS);
+
+        assertThat(greenMail.getReceivedMessages()).hasSize(5);
+        assertThat(greenMail.getReceivedMessagesForDomain("user3@example.com")[0].getSubject()).isEqualTo("Subject 3");
+    }
+
+    @Test
+    void shouldFailDelivery_whenRecipientAddressIsInvalid() {
+        CompletableFuture<Void> delivery = emailSender.sendAsync(new EmailDto("not an address", "Subject", "Content"));
+
+        assertThatThrownBy(() -> delivery.get(10, SECONDS)).isInstanceOf(ExecutionException.class);
+        assertThat(greenMail.getReceivedMessages()).isEmpty();
+    }
+
+}
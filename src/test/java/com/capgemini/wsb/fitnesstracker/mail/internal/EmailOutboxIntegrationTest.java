@@ -0,0 +1,177 @@
+package com.capgemini.wsb.fitnesstracker.mail.internal;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailDto;
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailOutbox;
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailSender;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.mail.Message;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+@IntegrationTest
+@SpringBootTest
+class EmailOutboxIntegrationTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired
+    private EmailOutbox emailOutbox;
+
+    @Autowired
+    private OutboxDispatcher outboxDispatcher;
+
+    @Autowired
+    private OutboxEmailRepository outboxEmailRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EmailSender emailSender;
+
+    @Autowired
+    private OutboxProperties outboxProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUpOutbox() {
+        outboxEmailRepository.deleteAll();
+    }
+
+    @Test
+    void shouldSendAndMarkEmails_whenDispatchingCommittedOutbox() {
+        transactionTemplate.executeWithoutResult(status -> emailOutbox.enqueue(List.of(new EmailDto("first@example.com", "First", "Content"),
+                                                                                        new EmailDto("second@example.com", "Second", "Content"))));
+
+        outboxDispatcher.dispatch();
+
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> {
+            assertThat(greenMail.getReceivedMessages()).hasSize(2);
+            assertThat(outboxEmailRepository.findAll()).extracting(OutboxEmail::getStatus).containsOnly(OutboxEmailStatus.SENT);
+        });
+    }
+
+    @Test
+    void shouldSendEveryEmailOnce_whenNodesDispatchConcurrently() throws Exception {
+        List<EmailDto> emails = IntStream.range(0, 60)
+                                         .mapToObj(i -> new EmailDto("recipient" + i + "@example.com", "Subject " + i, "Content"))
+                                         .toList();
+        transactionTemplate.executeWithoutResult(status -> emailOutbox.enqueue(emails));
+        OutboxDispatcher firstNode = new OutboxDispatcher(outboxEmailRepository, emailSender, transactionTemplate, outboxProperties, meterRegistry);
+        OutboxDispatcher secondNode = new OutboxDispatcher(outboxEmailRepository, emailSender, transactionTemplate, outboxProperties, meterRegistry);
+        try {
+            for (int round = 0; round < 5; round++) {
+                CompletableFuture.allOf(CompletableFuture.runAsync(firstNode::poll), CompletableFuture.runAsync(secondNode::poll)).get();
+            }
+
+            await().atMost(Duration.ofSeconds(30)).untilAsserted(
+                    () -> assertThat(outboxEmailRepository.findAll()).extracting(OutboxEmail::getStatus).containsOnly(OutboxEmailStatus.SENT));
+            assertThat(outboxEmailRepository.findAll()).extracting(OutboxEmail::getAttempts).containsOnly(1);
+            assertThat(Arrays.stream(greenMail.getReceivedMessages()).map(EmailOutboxIntegrationTest::recipient))
+                    .hasSize(emails.size())
+                    .doesNotHaveDuplicates()
+                    .containsExactlyInAnyOrderElementsOf(emails.stream().map(EmailDto::toAddress).toList());
+        } finally {
+            firstNode.shutdown();
+            secondNode.shutdown();
+        }
+    }
+
+    @Test
+    void shouldNotQueueEmails_whenTransactionIsRolledBack() {
+        transactionTemplate.executeWithoutResult(status -> {
+            emailOutbox.enqueue(List.of(new EmailDto("rolled-back@example.com", "Subject", "Content")));
+            status.setRollbackOnly();
+        });
+
+        assertThat(outboxEmailRepository.count()).isZero();
+    }
+
+    @Test
+    void shouldScheduleRetry_whenDeliveryFails() {
+        Instant before = Instant.now();
+        transactionTemplate.executeWithoutResult(status -> emailOutbox.enqueue(List.of(new EmailDto("not an address", "Subject", "Content"))));
+
+        outboxDispatcher.dispatch();
+
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> {
+            OutboxEmail email = outboxEmailRepository.findAll().get(0);
+            assertThat(email.getStatus()).isEqualTo(OutboxEmailStatus.PENDING);
+            assertThat(email.getAttempts()).isEqualTo(1);
+            assertThat(email.getNextAttemptAt()).isAfter(before.plusSeconds(20));
+            assertThat(email.getLockedBy()).isNull();
+        });
+    }
+
+    @Test
+    void shouldDeadLetterEmail_whenAttemptsAreExhausted() {
+        double deadBefore = meterRegistry.counter("mail.outbox.dead").count();
+        transactionTemplate.executeWithoutResult(status -> emailOutbox.enqueue(List.of(new EmailDto("not an address", "Subject", "Content"))));
+        // the backoff of the previous attempts is skipped instead of waited for
+        for (int attempt = 1; attempt < outboxProperties.maxAttempts(); attempt++) {
+            int attempts = attempt;
+            outboxDispatcher.dispatch();
+            await().atMost(Duration.ofSeconds(10))
+                   .until(() -> outboxEmailRepository.findAll().get(0).getAttempts() == attempts);
+            jdbcTemplate.update("update email_outbox set next_attempt_at = ?", Timestamp.from(Instant.now().minusSeconds(1)));
+        }
+
+        outboxDispatcher.dispatch();
+
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() -> {
+            OutboxEmail email = outboxEmailRepository.findAll().get(0);
+            assertThat(email.getStatus()).isEqualTo(OutboxEmailStatus.DEAD);
+            assertThat(email.getAttempts()).isEqualTo(outboxProperties.maxAttempts());
+            assertThat(email.getLastError()).isNotNull();
+            assertThat(email.getLockedBy()).isNull();
+        });
+        assertThat(meterRegistry.counter("mail.outbox.dead").count() - deadBefore).isEqualTo(1);
+
+        outboxDispatcher.poll();
+
+        assertThat(outboxEmailRepository.findAll().get(0).getAttempts()).isEqualTo(outboxProperties.maxAttempts());
+    }
+
+    @Test
+    void shouldRejectEnqueue_whenNoTransactionIsActive() {
+        assertThatThrownBy(() -> emailOutbox.enqueue(List.of(new EmailDto("first@example.com", "Subject", "Content"))))
+                .isInstanceOf(IllegalTransactionStateException.class);
+    }
+
+    private static String recipient(final MimeMessage message) {
+        try {
+            return message.getRecipients(Message.RecipientType.TO)[0].toString();
+        } catch (jakarta.mail.MessagingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
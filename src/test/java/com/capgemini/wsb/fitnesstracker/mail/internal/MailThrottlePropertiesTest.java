@@ -0,0 +1,34 @@
+package com.capgemini.wsb.fitnesstracker.mail.internal;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MailThrottlePropertiesTest {
+
+    @Test
+    void shouldSplitRelayLimitsEvenly_whenSeveralNodesShareRelay() {
+        MailThrottleProperties properties = properties(10, 20, 4);
+
+        assertThat(properties.nodePermitsPerSecond()).isEqualTo(2.5);
+        assertThat(properties.nodeBurst()).isEqualTo(5);
+    }
+
+    @Test
+    void shouldKeepBurstOfOneEmail_whenNodesOutnumberBurst() {
+        assertThat(properties(10, 2, 4).nodeBurst()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRejectConfiguration_whenThereIsNoNode() {
+        assertThatThrownBy(() -> properties(10, 20, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static MailThrottleProperties properties(final double permitsPerSecond, final int burst, final int nodes) {
+        return new MailThrottleProperties(true, permitsPerSecond, burst, nodes, 10_000, 20, 1, 200, Duration.ofSeconds(2), 0.75);
+    }
+
+}
@@ -0,0 +1,69 @@
+package com.capgemini.wsb.fitnesstracker.mail.internal;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailDto;
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailSender;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@IntegrationTest
+@SpringBootTest(properties = {
+        "mail.throttle.permits-per-second=5",
+        "mail.throttle.burst=1",
+        "management.endpoints.web.exposure.include=mailthrottle"
+})
+@AutoConfigureMockMvc
+class ThrottlingEmailSenderIntegrationTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired
+    private EmailSender emailSender;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void shouldLimitSendingRate_whenSendingBurstOfEmails() throws Exception {
+        long startedAt = System.nanoTime();
+        List<CompletableFuture<Void>> deliveries = IntStream.range(0, 6)
+                                                            .mapToObj(i -> emailSender.sendAsync(new EmailDto("user" + i + "@example.com", "Subject " + i, "Content " + i)))
+                                                            .toList();
+
+        CompletableFuture.allOf(deliveries.toArray(CompletableFuture[]::new)).get(20, SECONDS);
+
+        // one token is available at once, the other five are refilled at five per second
+        assertThat(System.nanoTime() - startedAt).isGreaterThanOrEqualTo(SECONDS.toNanos(1) * 9 / 10);
+        assertThat(greenMail.getReceivedMessages()).hasSize(6);
+    }
+
+    @Test
+    void shouldExposeThrottleStatus_whenActuatorEndpointIsRequested() throws Exception {
+        mockMvc.perform(get("/actuator/mailthrottle"))
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$.permitsPerSecond").value(5.0))
+               .andExpect(jsonPath("$.burst").value(1))
+               .andExpect(jsonPath("$.nodes").value(1))
+               .andExpect(jsonPath("$.concurrencyLimit").value(greaterThanOrEqualTo(1)))
+               .andExpect(jsonPath("$.backlog").value(0));
+    }
+
+}
@@ -0,0 +1,70 @@
+package com.capgemini.wsb.fitnesstracker.mail.internal;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class TokenBucketTest {
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+
+    @Test
+    void shouldGrantWholeBurst_whenBucketIsFull() {
+        TokenBucket bucket = new TokenBucket(10, 3, clock::get);
+
+        assertThat(bucket.tryAcquire()).isZero();
+        assertThat(bucket.tryAcquire()).isZero();
+        assertThat(bucket.tryAcquire()).isZero();
+        assertThat(bucket.availableTokens()).isZero();
+    }
+
+    @Test
+    void shouldReturnTimeUntilNextToken_whenBucketIsEmpty() {
+        TokenBucket bucket = new TokenBucket(10, 1, clock::get);
+        bucket.tryAcquire();
+
+        long wait = bucket.tryAcquire();
+        clock.addAndGet(MILLISECONDS.toNanos(40));
+        long remainingWait = bucket.tryAcquire();
+
+        assertThat(wait).isCloseTo(MILLISECONDS.toNanos(100), within(1L));
+        assertThat(remainingWait).isCloseTo(MILLISECONDS.toNanos(60), within(1L));
+        assertThat(bucket.availableTokens()).isCloseTo(0.4, within(1e-9));
+    }
+
+    @Test
+    void shouldRefillAtConfiguredRate_whenTimePasses() {
+        TokenBucket bucket = new TokenBucket(10, 3, clock::get);
+        for (int i = 0; i < 3; i++) {
+            bucket.tryAcquire();
+        }
+
+        clock.addAndGet(MILLISECONDS.toNanos(100));
+
+        assertThat(bucket.tryAcquire()).isZero();
+        assertThat(bucket.tryAcquire()).isPositive();
+    }
+
+    @Test
+    void shouldNotExceedCapacity_whenBucketIsIdleForLong() {
+        TokenBucket bucket = new TokenBucket(10, 3, clock::get);
+        bucket.tryAcquire();
+
+        clock.addAndGet(SECONDS.toNanos(3600));
+
+        assertThat(bucket.availableTokens()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldRejectConfiguration_whenRateOrCapacityIsNotPositive() {
+        assertThatThrownBy(() -> new TokenBucket(0, 1, clock::get)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TokenBucket(10, 0, clock::get)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+}
@@ -0,0 +1,75 @@
+package com.capgemini.wsb.fitnesstracker.notification;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReportTemplateTest {
+
+    @Test
+    void shouldReplacePlaceholders_whenTemplateIsRendered() {
+        ReportTemplate<String> template = ReportTemplate.compile("Hi {name}, bye {name}!", Map.of("name", StringBuilder::append));
+
+        assertThat(template.render("Emma")).isEqualTo("Hi Emma, bye Emma!");
+    }
+
+    @Test
+    void shouldRenderLiteral_whenTemplateHasNoPlaceholders() {
+        ReportTemplate<String> template = ReportTemplate.compile("No placeholders here", Map.of());
+
+        assertThat(template.render("ignored")).isEqualTo("No placeholders here");
+        assertThat(ReportTemplate.compile("", Map.<String, ReportTemplate.SegmentWriter<String>>of()).render("ignored")).isEmpty();
+    }
+
+    @Test
+    void shouldThrowException_whenPlaceholderIsUnknown() {
+        assertThatThrownBy(() -> ReportTemplate.compile("Hi {surname}", Map.of("name", StringBuilder::append)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("{surname}");
+    }
+
+    @Test
+    void shouldThrowException_whenPlaceholderIsUnclosed() {
+        assertThatThrownBy(() -> ReportTemplate.compile("Hi {name", Map.of("name", StringBuilder::append)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unclosed");
+    }
+
+    @ParameterizedTest
+    @ValueSource(doubles = {0, 0.001, 0.005, 0.015, 0.125, 1.005, 1.115, 2.675, 10, 12.345, 99.995, 123456.785, -1.005, -0.5, 1e14 + 0.25})
+    void shouldRoundLikeStringFormat_whenAppendingFixed2(final double value) {
+        StringBuilder out = new StringBuilder();
+
+        ReportTemplate.appendFixed2(out, value);
+
+        assertThat(out).hasToString(String.format(Locale.ROOT, "%.2f", value));
+    }
+
+    @Test
+    void shouldRoundHalfUp_whenValueIsDecimalTie() {
+        StringBuilder out = new StringBuilder();
+
+        ReportTemplate.appendFixed2(out, 1.005);
+
+        assertThat(out).hasToString("1.01");
+    }
+
+    @Test
+    void shouldAppendIsoDate_whenAppendingDate() {
+        StringBuilder out = new StringBuilder();
+
+        ReportTemplate.appendDate(out, LocalDate.of(2024, 3, 7));
+        out.append(' ');
+        ReportTemplate.appendDate(out, LocalDate.of(12024, 11, 25));
+
+        assertThat(out).hasToString("2024-03-07 +12024-11-25");
+    }
+
+}
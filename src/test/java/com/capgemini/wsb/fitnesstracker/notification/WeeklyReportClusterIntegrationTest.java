@@ -0,0 +1,188 @@
+package com.capgemini.wsb.fitnesstracker.notification;
+
+import com.capgemini.wsb.FitnessTracker;
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.ResolvableType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doThrow;
+
+/**
+ * Runs two application contexts against one shared in-memory H2 database, acting as two nodes of a cluster.
+ */
+@IntegrationTest
+class WeeklyReportClusterIntegrationTest {
+
+    private static final String DATABASE_URL = "jdbc:h2:mem:weekly-report-cluster;DB_CLOSE_DELAY=-1";
+
+    private static final LocalDate WEEK_START = LocalDate.of(2024, 1, 1);
+
+    private static ConfigurableApplicationContext firstNode;
+
+    private static ConfigurableApplicationContext secondNode;
+
+    @BeforeAll
+    static void startNodes() {
+        firstNode = startNode();
+        secondNode = startNode();
+    }
+
+    @AfterAll
+    static void stopNodes() {
+        secondNode.close();
+        firstNode.close();
+    }
+
+    @AfterEach
+    void cleanUpDB() {
+        JdbcTemplate jdbcTemplate = firstNode.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("delete from email_outbox");
+        jdbcTemplate.update("delete from weekly_report_shards");
+        jdbcTemplate.update("delete from weekly_report_fingerprints");
+        userRepository().deleteAll();
+        Mockito.reset(firstNode.getBean(WeeklyReportRenderer.class), secondNode.getBean(WeeklyReportRenderer.class));
+    }
+
+    @Test
+    void shouldQueueEveryReportExactlyOnce_whenNodesSendReportsConcurrently() throws Exception {
+        List<User> users = createUsers(60);
+
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> firstNode.getBean(WeeklyReportJob.class).sendReports(WEEK_START));
+        CompletableFuture<Void> second = CompletableFuture.runAsync(() -> secondNode.getBean(WeeklyReportJob.class).sendReports(WEEK_START));
+        CompletableFuture.allOf(first, second).get(60, SECONDS);
+
+        assertThat(queuedRecipients()).hasSize(users.size())
+                                       .doesNotHaveDuplicates()
+                                       .containsExactlyInAnyOrderElementsOf(users.stream().map(User::getEmail).toList());
+        assertThat(firstNode.getBean(WeeklyReportShardRepository.class).findByIdWeekStartOrderByIdShard(WEEK_START))
+                .hasSize(8)
+                .allMatch(WeeklyReportShard::isCompleted)
+                .allMatch(shard -> shard.getOwner() == null);
+    }
+
+    @Test
+    void shouldTakeOverExpiredLeaseAndSkipLiveLease_whenResumingReports() {
+        List<User> users = createUsers(20);
+        long checkpointUserId = users.get(4).getId();
+        long boundaryUserId = users.get(9).getId();
+        WeeklyReportShardRepository shardRepository = firstNode.getBean(WeeklyReportShardRepository.class);
+        Instant now = Instant.now();
+        firstNode.getBean(TransactionTemplate.class).executeWithoutResult(status -> {
+            shardRepository.saveAll(List.of(new WeeklyReportShard(new WeeklyReportShardId(WEEK_START, 0), 0, boundaryUserId),
+                                            new WeeklyReportShard(new WeeklyReportShardId(WEEK_START, 1), boundaryUserId, Long.MAX_VALUE)));
+            Instant crashedAt = now.minus(10, ChronoUnit.MINUTES);
+            shardRepository.claim(WEEK_START, 0, "crashed-node", crashedAt, crashedAt.plus(2, ChronoUnit.MINUTES));
+            shardRepository.advance(WEEK_START, 0, "crashed-node", checkpointUserId, crashedAt);
+            shardRepository.claim(WEEK_START, 1, "live-node", now, now.plus(1, ChronoUnit.HOURS));
+        });
+
+        secondNode.getBean(WeeklyReportJob.class).sendReports(WEEK_START);
+
+        assertThat(queuedRecipients()).containsExactlyInAnyOrderElementsOf(users.subList(5, 10).stream().map(User::getEmail).toList());
+        List<WeeklyReportShard> shards = shardRepository.findByIdWeekStartOrderByIdShard(WEEK_START);
+        assertThat(shards.get(0).isCompleted()).isTrue();
+        assertThat(shards.get(0).getLastUserId()).isEqualTo(boundaryUserId);
+        assertThat(shards.get(1).isCompleted()).isFalse();
+        assertThat(shards.get(1).getOwner()).isEqualTo("live-node");
+    }
+
+    @Test
+    void shouldGiveUpReportAndCompleteShard_whenReportFailsToRenderInEveryAttempt() {
+        List<User> users = createUsers(10);
+        User failing = users.get(3);
+        doThrow(new IllegalStateException("Report cannot be rendered"))
+                .when(firstNode.getBean(WeeklyReportRenderer.class))
+                .render(argThat(user -> user.getId().equals(failing.getId())), any(), any());
+        WeeklyReportJob job = firstNode.getBean(WeeklyReportJob.class);
+        WeeklyReportShardRepository shardRepository = firstNode.getBean(WeeklyReportShardRepository.class);
+        double abandonedBefore = abandonedReports();
+
+        job.sendReports(WEEK_START);
+        job.sendReports(WEEK_START);
+
+        WeeklyReportShard failingShard = shardRepository.findByIdWeekStartOrderByIdShard(WEEK_START)
+                                                        .stream()
+                                                        .filter(shard -> failing.getId().equals(shard.getFailingUserId()))
+                                                        .findFirst()
+                                                        .orElseThrow();
+        assertThat(failingShard.isCompleted()).isFalse();
+        assertThat(failingShard.getFailedAttempts()).isEqualTo(2);
+        assertThat(failingShard.getLastUserId()).isEqualTo(failing.getId() - 1);
+        assertThat(abandonedReports()).isEqualTo(abandonedBefore);
+
+        job.sendReports(WEEK_START);
+
+        assertThat(queuedRecipients()).containsExactlyInAnyOrderElementsOf(
+                users.stream().filter(user -> user != failing).map(User::getEmail).toList());
+        assertThat(shardRepository.findByIdWeekStartOrderByIdShard(WEEK_START))
+                .allMatch(WeeklyReportShard::isCompleted)
+                .extracting(WeeklyReportShard::getAbandonedReports)
+                .containsOnly(0, 1)
+                .containsOnlyOnce(1);
+        assertThat(abandonedReports() - abandonedBefore).isEqualTo(1);
+    }
+
+    private static ConfigurableApplicationContext startNode() {
+        return new SpringApplicationBuilder(FitnessTracker.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.datasource.url=" + DATABASE_URL,
+                            "spring.jpa.hibernate.ddl-auto=update",
+                            "notification.weekly-report.cron=-",
+                            "notification.weekly-report.takeover-interval=PT1H",
+                            "notification.weekly-report.shards=8",
+                            "notification.weekly-report.chunk-size=5",
+                            "mail.outbox.poll-interval=PT1H")
+                // lets the tests make the rendering of chosen reports fail
+                .initializers(context -> context.getBeanFactory().addBeanPostProcessor(new BeanPostProcessor() {
+                    @Override
+                    public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+                        return bean instanceof WeeklyReportRenderer ? Mockito.spy(bean) : bean;
+                    }
+                }))
+                .run();
+    }
+
+    private static JpaRepository<User, Long> userRepository() {
+        return firstNode.<JpaRepository<User, Long>>getBeanProvider(
+                ResolvableType.forClassWithGenerics(JpaRepository.class, User.class, Long.class)).getObject();
+    }
+
+    private static List<User> createUsers(final int count) {
+        return userRepository().saveAll(IntStream.range(0, count)
+                                                 .mapToObj(i -> new User("First" + i, "Last" + i, LocalDate.of(1990, 1, 1), "user" + i + "@example.com"))
+                                                 .toList());
+    }
+
+    private static double abandonedReports() {
+        return firstNode.getBean(MeterRegistry.class).counter("notification.weekly-report.abandoned").count();
+    }
+
+    private static List<String> queuedRecipients() {
+        return firstNode.getBean(JdbcTemplate.class).queryForList("select to_address from email_outbox", String.class);
+    }
+
+}
@@ -0,0 +1,68 @@
+package com.capgemini.wsb.fitnesstracker.notification;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@IntegrationTest
+class WeeklyReportFingerprintIntegrationTest extends IntegrationTestBase {
+
+    private static final LocalDate FIRST_WEEK = LocalDate.of(2024, 1, 1);
+
+    @Autowired
+    private WeeklyReportJob weeklyReportJob;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void cleanUpReports() {
+        jdbcTemplate.update("delete from email_outbox");
+        jdbcTemplate.update("delete from weekly_report_shards");
+        jdbcTemplate.update("delete from weekly_report_fingerprints");
+    }
+
+    @Test
+    void shouldSkipReport_whenSummaryIsUnchangedSincePreviousReport() {
+        User user = existingUser(new User("Emma", "Johnson", LocalDate.of(1996, 7, 15), "emma.johnson@domain.com"));
+        double skippedBefore = skippedUnchanged();
+
+        weeklyReportJob.sendReports(FIRST_WEEK);
+        weeklyReportJob.sendReports(FIRST_WEEK.plusWeeks(1));
+
+        assertThat(queuedReports()).isEqualTo(1);
+        assertThat(skippedUnchanged() - skippedBefore).isEqualTo(1);
+
+        Date start = Date.from(FIRST_WEEK.plusWeeks(2).atTime(10, 0).atZone(ZoneId.systemDefault()).toInstant());
+        persistTraining(new Training(user, start, new Date(start.getTime() + 3_600_000), ActivityType.RUNNING, 10.5, 10.5));
+        weeklyReportJob.sendReports(FIRST_WEEK.plusWeeks(2));
+
+        assertThat(queuedReports()).isEqualTo(2);
+        assertThat(skippedUnchanged() - skippedBefore).isEqualTo(1);
+    }
+
+    private int queuedReports() {
+        return jdbcTemplate.queryForObject("select count(*) from email_outbox", Integer.class);
+    }
+
+    private double skippedUnchanged() {
+        return meterRegistry.counter("notification.weekly-report.skipped", "reason", "unchanged").count();
+    }
+
+}
@@ -0,0 +1,91 @@
+package com.capgemini.wsb.fitnesstracker.notification;
+
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailDto;
+import com.capgemini.wsb.fitnesstracker.training.api.UserActivitySummary;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the compiled report templates of {@link WeeklyReportRenderer} with rendering the same report through
+ * {@link String#format}.
+ * Run the {@link #main} method from the IDE or the test classpath; the {@code gc.alloc.rate.norm} column reported by
+ * the GC profiler shows the bytes allocated per render.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WeeklyReportRendererBenchmark {
+
+    private final WeeklyReportRenderer renderer = new WeeklyReportRenderer();
+
+    private User user;
+
+    private LocalDate weekStart;
+
+    private List<UserActivitySummary> summaries;
+
+    @Setup
+    public void setUp() {
+        user = new User("Emma", "Johnson", LocalDate.of(1996, 7, 15), "emma.johnson@domain.com");
+        weekStart = LocalDate.of(2024, 1, 1);
+        summaries = List.of(new UserActivitySummary(1L, ActivityType.RUNNING, 3L, 24.5, 11.25),
+                            new UserActivitySummary(1L, ActivityType.CYCLING, 2L, 61.0, 24.8),
+                            new UserActivitySummary(1L, ActivityType.SWIMMING, 1L, 1.5, 2.1));
+    }
+
+    @Benchmark
+    public EmailDto compiledTemplate() {
+        return renderer.render(user, weekStart, summaries);
+    }
+
+    @Benchmark
+    public EmailDto stringFormat() {
+        StringBuilder content = new StringBuilder();
+        content.append(String.format("Hi %s,%n%n", user.getFirstName()));
+        content.append(String.format("here is the summary of your trainings in the week starting %s:%n%n", weekStart));
+        long trainings = 0;
+        double distance = 0;
+        for (UserActivitySummary summary : summaries) {
+            content.append(String.format("- %s: %d trainings, %.2f km, average speed %.2f km/h%n",
+                                         summary.activityType().getDisplayName(),
+                                         summary.trainings(),
+                                         summary.totalDistance(),
+                                         summary.averageSpeed()));
+            trainings += summary.trainings();
+            distance += summary.totalDistance();
+        }
+        content.append(String.format("%nIn total %d trainings and %.2f km.%n", trainings, distance));
+        content.append(String.format("%nKeep it up!%nFitness Tracker%n"));
+        return new EmailDto(user.getEmail(), String.format("Your training report for the week of %s", weekStart), content.toString());
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        Options options = new OptionsBuilder().include(WeeklyReportRendererBenchmark.class.getSimpleName())
+                                              .addProfiler(GCProfiler.class)
+                                              .build();
+        new Runner(options).run();
+    }
+
+}
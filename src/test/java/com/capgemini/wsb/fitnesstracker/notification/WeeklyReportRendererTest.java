@@ -0,0 +1,61 @@
+package com.capgemini.wsb.fitnesstracker.notification;
+
+import com.capgemini.wsb.fitnesstracker.mail.api.EmailDto;
+import com.capgemini.wsb.fitnesstracker.training.api.UserActivitySummary;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WeeklyReportRendererTest {
+
+    private static final LocalDate WEEK_START = LocalDate.of(2024, 1, 1);
+
+    private final WeeklyReportRenderer renderer = new WeeklyReportRenderer();
+
+    private final User user = new User("Emma", "Johnson", LocalDate.of(1996, 7, 15), "emma.johnson@domain.com");
+
+    @Test
+    void shouldRenderSummaryOfEveryActivity_whenUserHasTrainings() {
+        List<UserActivitySummary> summaries = List.of(new UserActivitySummary(1L, ActivityType.RUNNING, 3L, 24.5, 11.25),
+                                                      new UserActivitySummary(1L, ActivityType.CYCLING, 2L, 61.005, 24.8));
+
+        EmailDto email = renderer.render(user, WEEK_START, summaries);
+
+        assertThat(email.toAddress()).isEqualTo("emma.johnson@domain.com");
+        assertThat(email.subject()).isEqualTo("Your training report for the week of 2024-01-01");
+        assertThat(email.content()).isEqualTo("""
+                                              Hi Emma,
+
+                                              here is the summary of your trainings in the week starting 2024-01-01:
+
+                                              - %s: 3 trainings, 24.50 km, average speed 11.25 km/h
+                                              - %s: 2 trainings, 61.01 km, average speed 24.80 km/h
+
+                                              In total 5 trainings and 85.51 km.
+
+                                              Keep it up!
+                                              Fitness Tracker
+                                              """.formatted(ActivityType.RUNNING.getDisplayName(), ActivityType.CYCLING.getDisplayName()));
+    }
+
+    @Test
+    void shouldRenderEmptyReport_whenUserHasNoTrainings() {
+        EmailDto email = renderer.render(user, WEEK_START, List.of());
+
+        assertThat(email.subject()).isEqualTo("Your training report for the week of 2024-01-01");
+        assertThat(email.content()).isEqualTo("""
+                                              Hi Emma,
+
+                                              you have not recorded any training in the week starting 2024-01-01.
+
+                                              Keep it up!
+                                              Fitness Tracker
+                                              """);
+    }
+
+}
@@ -0,0 +1,96 @@
+package com.capgemini.wsb.fitnesstracker.notification;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+@IntegrationTest
+@TestPropertySource(properties = "spring.task.scheduling.pool.size=1")
+class WeeklyReportSchedulingIntegrationTest extends IntegrationTestBase {
+
+    @SpyBean
+    private WeeklyReportRenderer weeklyReportRenderer;
+
+    @Autowired
+    private WeeklyReportJob weeklyReportJob;
+
+    @Autowired
+    private TaskScheduler taskScheduler;
+
+    @Autowired
+    private SchedulerProbe schedulerProbe;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUpReports() {
+        jdbcTemplate.update("delete from email_outbox");
+        jdbcTemplate.update("delete from weekly_report_shards");
+        jdbcTemplate.update("delete from weekly_report_fingerprints");
+    }
+
+    @Test
+    void shouldKeepRunningOtherScheduledTasks_whenReportsAreBeingSent() throws Exception {
+        existingUser(new User("Emma", "Johnson", LocalDate.of(1996, 7, 15), "emma.johnson@domain.com"));
+        CountDownLatch renderingStarted = new CountDownLatch(1);
+        CountDownLatch renderingReleased = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            renderingStarted.countDown();
+            renderingReleased.await(10, SECONDS);
+            return invocation.callRealMethod();
+        }).when(weeklyReportRenderer).render(any(), any(), any());
+
+        // triggered on the only scheduler thread, as by the cron expression of the job
+        taskScheduler.schedule(weeklyReportJob::sendPreviousWeekReports, Instant.now());
+        try {
+            assertThat(renderingStarted.await(10, SECONDS)).isTrue();
+            int ticks = schedulerProbe.ticks.get();
+
+            await().atMost(5, SECONDS).until(() -> schedulerProbe.ticks.get() >= ticks + 3);
+        } finally {
+            renderingReleased.countDown();
+        }
+
+        await().atMost(10, SECONDS).until(this::allShardsCompleted);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from email_outbox", Integer.class)).isEqualTo(1);
+    }
+
+    private boolean allShardsCompleted() {
+        return jdbcTemplate.queryForObject("select count(*) from weekly_report_shards where not completed", Integer.class) == 0
+                && jdbcTemplate.queryForObject("select count(*) from weekly_report_shards", Integer.class) > 0;
+    }
+
+    @TestConfiguration(proxyBeanMethods = false)
+    static class SchedulerProbe {
+
+        private final AtomicInteger ticks = new AtomicInteger();
+
+        @Scheduled(fixedDelay = 50)
+        void tick() {
+            ticks.incrementAndGet();
+        }
+
+    }
+
+}
@@ -0,0 +1,159 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
+import com.capgemini.wsb.fitnesstracker.exception.api.BusinessException;
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingsCreatedEvent;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.training.internal.TrainingServiceImpl;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Every test uses its own days, the sketches of past days are only dropped from memory once flushed.
+ */
+@IntegrationTest
+@TestPropertySource(properties = "statistics.active-users.flush-interval=PT1H")
+class ActiveUserSketchServiceIntegrationTest extends IntegrationTestBase {
+
+    @Autowired
+    private ActiveUserSketchService activeUserSketchService;
+
+    @Autowired
+    private ActiveUserSketchRepository activeUserSketchRepository;
+
+    @Autowired
+    private TrainingServiceImpl trainingService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void cleanUpSketches() {
+        activeUserSketchService.flush();
+        jdbcTemplate.update("delete from active_user_sketches");
+    }
+
+    @Test
+    void shouldCountDistinctUsers_whenSketchesAreNotFlushedYet() {
+        User first = existingUser(generateUser(1));
+        User second = existingUser(generateUser(2));
+        createTraining(first, LocalDateTime.of(2023, 3, 6, 10, 0), ActivityType.RUNNING);
+        createTraining(first, LocalDateTime.of(2023, 3, 7, 10, 0), ActivityType.RUNNING);
+        createTraining(second, LocalDateTime.of(2023, 3, 7, 18, 0), ActivityType.CYCLING);
+
+        ActiveUsersDto activeUsers = activeUserSketchService.countActiveUsers(LocalDate.of(2023, 3, 6), LocalDate.of(2023, 3, 12), null, RollupPeriod.DAY);
+
+        assertThat(activeUsers.activeUsers()).isEqualTo(2);
+        assertThat(activeUsers.periods()).containsExactly(new ActiveUsersDto.Period(LocalDate.of(2023, 3, 6), 1),
+                                                          new ActiveUsersDto.Period(LocalDate.of(2023, 3, 7), 2));
+        assertThat(activeUserSketchService.countActiveUsers(LocalDate.of(2023, 3, 6), LocalDate.of(2023, 3, 12), ActivityType.CYCLING, null)
+                                          .activeUsers()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldCountFromPersistedSketches_whenSketchesAreFlushed() {
+        User first = existingUser(generateUser(1));
+        User second = existingUser(generateUser(2));
+        createTraining(first, LocalDateTime.of(2023, 4, 3, 10, 0), ActivityType.RUNNING);
+        createTraining(second, LocalDateTime.of(2023, 4, 4, 10, 0), ActivityType.RUNNING);
+
+        activeUserSketchService.flush();
+
+        assertThat(activeUserSketchRepository.findByIdDayBetween(LocalDate.of(2023, 4, 3), LocalDate.of(2023, 4, 9))).hasSize(2);
+        ActiveUsersDto activeUsers = activeUserSketchService.countActiveUsers(LocalDate.of(2023, 4, 3), LocalDate.of(2023, 4, 9), ActivityType.RUNNING, RollupPeriod.WEEK);
+        assertThat(activeUsers.activeUsers()).isEqualTo(2);
+        assertThat(activeUsers.periods()).containsExactly(new ActiveUsersDto.Period(LocalDate.of(2023, 4, 3), 2));
+    }
+
+    @Test
+    void shouldMergeWithPersistedSketch_whenDayIsFlushedAgain() {
+        User first = existingUser(generateUser(1));
+        User second = existingUser(generateUser(2));
+        User third = existingUser(generateUser(3));
+        createTraining(first, LocalDateTime.of(2023, 5, 8, 8, 0), ActivityType.WALKING);
+        createTraining(second, LocalDateTime.of(2023, 5, 8, 9, 0), ActivityType.WALKING);
+        activeUserSketchService.flush();
+
+        createTraining(second, LocalDateTime.of(2023, 5, 8, 17, 0), ActivityType.WALKING);
+        createTraining(third, LocalDateTime.of(2023, 5, 8, 18, 0), ActivityType.WALKING);
+        activeUserSketchService.flush();
+
+        assertThat(activeUserSketchRepository.findByIdDayBetween(LocalDate.of(2023, 5, 8), LocalDate.of(2023, 5, 8))).hasSize(1);
+        assertThat(activeUserSketchService.countActiveUsers(LocalDate.of(2023, 5, 8), LocalDate.of(2023, 5, 8), null, null)
+                                          .activeUsers()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldKeepUsersOfBothNodes_whenNodesFlushSameSketchConcurrently() throws Exception {
+        User first = existingUser(generateUser(1));
+        User second = existingUser(generateUser(2));
+        User third = existingUser(generateUser(3));
+        LocalDateTime day = LocalDateTime.of(2023, 7, 3, 8, 0);
+        createTraining(first, day, ActivityType.RUNNING);
+        activeUserSketchService.flush();
+        ActiveUserSketchService otherNode = new ActiveUserSketchService(activeUserSketchRepository, trainingService, transactionTemplate);
+        createTraining(second, day.plusHours(1), ActivityType.RUNNING);
+        Date otherNodeStart = Date.from(day.plusHours(2).atZone(ZoneId.systemDefault()).toInstant());
+        Training otherNodeTraining = persistTraining(new Training(third, otherNodeStart, new Date(otherNodeStart.getTime() + 3_600_000),
+                                                                  ActivityType.RUNNING, 10.0, 10.0));
+        otherNode.onTrainingsCreated(new TrainingsCreatedEvent(List.of(otherNodeTraining)));
+
+        AtomicReference<CompletableFuture<Void>> otherFlush = new AtomicReference<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            activeUserSketchService.flush();
+            // the other node flushes while the merge of this node is not committed yet
+            otherFlush.set(CompletableFuture.runAsync(otherNode::flush));
+            sleep(300);
+        });
+        otherFlush.get().get(10, SECONDS);
+
+        ActiveUserSketch persisted = activeUserSketchRepository.findById(new ActiveUserSketchId(day.toLocalDate(), ActivityType.RUNNING)).orElseThrow();
+        assertThat(HyperLogLog.fromBytes(persisted.getRegisters()).estimate()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldThrowException_whenRangeIsNotOrdered() {
+        assertThatThrownBy(() -> activeUserSketchService.countActiveUsers(LocalDate.of(2023, 6, 2), LocalDate.of(2023, 6, 1), null, null))
+                .isInstanceOf(BusinessException.class);
+    }
+
+    private Training createTraining(final User user, final LocalDateTime start, final ActivityType activityType) {
+        Date startTime = Date.from(start.atZone(ZoneId.systemDefault()).toInstant());
+        return trainingService.createTraining(new Training(user, startTime, new Date(startTime.getTime() + 3_600_000), activityType, 10.0, 10.0));
+    }
+
+    private static void sleep(final long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static User generateUser(final int number) {
+        return new User("First" + number, "Last" + number, LocalDate.of(1990, 1, 1), "user" + number + "@domain.com");
+    }
+
+}
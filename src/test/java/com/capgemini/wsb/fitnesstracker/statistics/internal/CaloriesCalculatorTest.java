@@ -0,0 +1,43 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CaloriesCalculatorTest {
+
+    private final CaloriesCalculator caloriesCalculator = new CaloriesCalculator();
+
+    @Test
+    void shouldMultiplyMetByReferenceWeightAndHours() {
+        assertThat(caloriesCalculator.caloriesBurned(ActivityType.RUNNING, 3_600_000)).isEqualTo(686);
+        assertThat(caloriesCalculator.caloriesBurned(ActivityType.CYCLING, 7_200_000)).isEqualTo(1050);
+    }
+
+    @Test
+    void shouldRoundToNearestKilocalorie() {
+        assertThat(caloriesCalculator.caloriesBurned(ActivityType.WALKING, 1_800_000)).isEqualTo(123);
+    }
+
+    @Test
+    void shouldReturnZero_whenDurationIsNotPositive() {
+        assertThat(caloriesCalculator.caloriesBurned(ActivityType.SWIMMING, 0)).isZero();
+        assertThat(caloriesCalculator.caloriesBurned(ActivityType.TENNIS, -1_000)).isZero();
+    }
+
+    @Test
+    void shouldUseDurationOfTraining() {
+        User user = new User("Emma", "Johnson", LocalDate.of(1996, 7, 15), "emma.johnson@domain.com");
+        Date start = new Date(1_704_096_000_000L);
+        Training training = new Training(user, start, new Date(start.getTime() + 3_600_000), ActivityType.SWIMMING, 2.0, 2.0);
+
+        assertThat(caloriesCalculator.caloriesBurned(training)).isEqualTo(560);
+    }
+
+}
@@ -0,0 +1,77 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.withinPercentage;
+
+class HyperLogLogTest {
+
+    @Test
+    void shouldEstimateZero_whenSketchIsEmpty() {
+        assertThat(new HyperLogLog().estimate()).isZero();
+    }
+
+    @Test
+    void shouldCountSmallCardinalitiesExactly_whenIdsAreRepeated() {
+        HyperLogLog sketch = new HyperLogLog();
+
+        for (int round = 0; round < 3; round++) {
+            LongStream.rangeClosed(1, 10).forEach(sketch::add);
+        }
+
+        assertThat(sketch.estimate()).isEqualTo(10);
+    }
+
+    @Test
+    void shouldEstimateWithinFivePercent_whenManyDistinctIdsAreAdded() {
+        HyperLogLog sketch = new HyperLogLog();
+
+        LongStream.range(0, 100_000).forEach(sketch::add);
+
+        assertThat(sketch.estimate()).isCloseTo(100_000, withinPercentage(5));
+    }
+
+    @Test
+    void shouldEstimateUnion_whenSketchesAreMerged() {
+        HyperLogLog first = new HyperLogLog();
+        HyperLogLog second = new HyperLogLog();
+        LongStream.range(0, 30_000).forEach(first::add);
+        LongStream.range(20_000, 50_000).forEach(second::add);
+
+        first.merge(second);
+
+        assertThat(first.estimate()).isCloseTo(50_000, withinPercentage(5));
+    }
+
+    @Test
+    void shouldKeepEstimate_whenSketchIsMergedWithItself() {
+        HyperLogLog sketch = new HyperLogLog();
+        LongStream.range(0, 5_000).forEach(sketch::add);
+        long estimate = sketch.estimate();
+
+        sketch.merge(HyperLogLog.fromBytes(sketch.toBytes()));
+
+        assertThat(sketch.estimate()).isEqualTo(estimate);
+    }
+
+    @Test
+    void shouldRestoreRegisters_whenRoundTrippedThroughBytes() {
+        HyperLogLog sketch = new HyperLogLog();
+        LongStream.range(0, 1_000).forEach(sketch::add);
+
+        HyperLogLog restored = HyperLogLog.fromBytes(sketch.toBytes());
+
+        assertThat(restored.toBytes()).isEqualTo(sketch.toBytes());
+        assertThat(restored.estimate()).isEqualTo(sketch.estimate());
+    }
+
+    @Test
+    void shouldRejectRegisters_whenLengthDoesNotMatch() {
+        assertThatThrownBy(() -> HyperLogLog.fromBytes(new byte[16])).isInstanceOf(IllegalArgumentException.class);
+    }
+
+}
@@ -0,0 +1,116 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
+import com.capgemini.wsb.fitnesstracker.statistics.api.Statistics;
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.training.internal.TrainingServiceImpl;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.awaitility.Awaitility.await;
+
+@IntegrationTest
+@TestPropertySource(properties = {"statistics.mode=in-memory", "statistics.in-memory.flush-interval=PT1H"})
+class InMemoryStatisticsAggregatorIntegrationTest extends IntegrationTestBase {
+
+    private static final long HOUR_MILLIS = 3_600_000;
+
+    @Autowired
+    private InMemoryStatisticsAggregator aggregator;
+
+    @Autowired
+    private TrainingServiceImpl trainingService;
+
+    @Autowired
+    private StatisticsRepository statisticsRepository;
+
+    @Autowired
+    private StatisticsRebuildJob statisticsRebuildJob;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void shouldServeTotalsFromMemory_andWriteThemOnFlush() {
+        User user = existingUser(generateUser());
+
+        trainingService.createTraining(generateTraining(user, 10.0));
+        trainingService.createTraining(generateTraining(user, 5.0));
+
+        assertThat(aggregator.getStatistics(user.getId())).hasValueSatisfying(statistics -> assertTotals(statistics, 2, 15.0, 2 * 686));
+        assertThat(statisticsRepository.findById(user.getId())).isEmpty();
+
+        aggregator.flush();
+
+        assertThat(statisticsRepository.findById(user.getId())).hasValueSatisfying(statistics -> assertTotals(statistics, 2, 15.0, 2 * 686));
+    }
+
+    @Test
+    void shouldAddOnlyNewDeltas_whenFlushingRepeatedly() {
+        User user = existingUser(generateUser());
+        trainingService.createTraining(generateTraining(user, 10.0));
+        aggregator.flush();
+
+        trainingService.createTraining(generateTraining(user, 5.0));
+        aggregator.flush();
+        aggregator.flush();
+
+        assertThat(statisticsRepository.findById(user.getId())).hasValueSatisfying(statistics -> assertTotals(statistics, 2, 15.0, 2 * 686));
+    }
+
+    @Test
+    void shouldNeitherLoseNorDoubleCountDeltas_whenPartitionIsRebuilt() {
+        User user = existingUser(generateUser());
+        trainingService.createTraining(generateTraining(user, 10.0));
+
+        // the pending delta of the first training is included in the rebuilt totals
+        statisticsRebuildJob.start();
+        await().atMost(Duration.ofSeconds(30))
+               .until(() -> statisticsRebuildJob.status().state() != StatisticsRebuildJob.State.RUNNING);
+        assertThat(statisticsRebuildJob.status().state()).isEqualTo(StatisticsRebuildJob.State.COMPLETED);
+
+        trainingService.createTraining(generateTraining(user, 5.0));
+        aggregator.flush();
+
+        assertThat(aggregator.getStatistics(user.getId())).hasValueSatisfying(statistics -> assertTotals(statistics, 2, 15.0, 2 * 686));
+        assertThat(statisticsRepository.findById(user.getId())).hasValueSatisfying(statistics -> assertTotals(statistics, 2, 15.0, 2 * 686));
+    }
+
+    @Test
+    void shouldLoadPersistedTotals_whenStarting() {
+        User user = existingUser(generateUser());
+        jdbcTemplate.update("insert into statistics (user_id, total_trainings, total_distance, total_calories_burned) values (?, ?, ?, ?)",
+                            user.getId(), 3, 21.0, 900);
+
+        aggregator.loadTotals();
+
+        assertThat(aggregator.getStatistics(user.getId())).hasValueSatisfying(statistics -> assertTotals(statistics, 3, 21.0, 900));
+    }
+
+    private static void assertTotals(final Statistics statistics, final int trainings, final double distance, final int calories) {
+        assertThat(statistics.getTotalTrainings()).isEqualTo(trainings);
+        assertThat(statistics.getTotalDistance()).isCloseTo(distance, within(1e-9));
+        assertThat(statistics.getTotalCaloriesBurned()).isEqualTo(calories);
+    }
+
+    private static User generateUser() {
+        return new User("Emma", "Johnson", LocalDate.of(1996, 7, 15), "emma.johnson@domain.com");
+    }
+
+    private static Training generateTraining(final User user, final double distance) {
+        Date start = new Date(1_704_096_000_000L);
+        return new Training(user, start, new Date(start.getTime() + HOUR_MILLIS), ActivityType.RUNNING, distance, distance);
+    }
+
+}
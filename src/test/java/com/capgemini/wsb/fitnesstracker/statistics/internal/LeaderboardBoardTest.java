@@ -0,0 +1,82 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.statistics.internal.LeaderboardService.Board;
+import com.capgemini.wsb.fitnesstracker.statistics.internal.LeaderboardService.Session;
+import com.capgemini.wsb.fitnesstracker.statistics.internal.LeaderboardService.UserDistance;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Uses weeks far in the future, the board starts at the real current week and only rolls over forward.
+ */
+class LeaderboardBoardTest {
+
+    private static final LocalDate WEEK_START = LocalDate.of(2099, 1, 5);
+
+    private static final LocalDate NEXT_WEEK_START = WEEK_START.plusWeeks(1);
+
+    private final Board board = new Board();
+
+    @Test
+    void shouldRankUsersByTotalDistance_whenDistancesAreAdded() {
+        board.addDistance(1L, WEEK_START, 10.0, WEEK_START);
+        board.addDistance(2L, WEEK_START, 15.0, WEEK_START);
+        board.addDistance(1L, WEEK_START, 7.5, WEEK_START);
+
+        assertThat(board.topDistances(10, WEEK_START)).containsExactly(new UserDistance(1L, 17.5), new UserDistance(2L, 15.0));
+        assertThat(board.distanceRank(2L, WEEK_START)).hasValue(new DistanceLeaderboardEntryDto(2, 2L, 15.0));
+        assertThat(board.distanceRank(3L, WEEK_START)).isEmpty();
+    }
+
+    @Test
+    void shouldBreakTiesByUserId_whenDistancesAreEqual() {
+        board.addDistance(7L, WEEK_START, 5.0, WEEK_START);
+        board.addDistance(3L, WEEK_START, 5.0, WEEK_START);
+
+        assertThat(board.topDistances(10, WEEK_START)).containsExactly(new UserDistance(3L, 5.0), new UserDistance(7L, 5.0));
+    }
+
+    @Test
+    void shouldIgnoreDistance_whenTrainingIsFromAnotherWeek() {
+        board.addDistance(1L, WEEK_START, 10.0, WEEK_START);
+
+        board.addDistance(2L, WEEK_START.minusWeeks(1), 20.0, WEEK_START);
+
+        assertThat(board.topDistances(10, WEEK_START)).containsExactly(new UserDistance(1L, 10.0));
+    }
+
+    @Test
+    void shouldClearDistances_whenWeekRollsOverOnRead() {
+        board.addDistance(1L, WEEK_START, 10.0, WEEK_START);
+
+        assertThat(board.topDistances(10, NEXT_WEEK_START)).isEmpty();
+        assertThat(board.distanceRank(1L, NEXT_WEEK_START)).isEmpty();
+    }
+
+    @Test
+    void shouldStartNewWeek_whenWeekRollsOverOnWrite() {
+        board.addDistance(1L, WEEK_START, 10.0, WEEK_START);
+
+        board.addDistance(2L, NEXT_WEEK_START, 3.0, NEXT_WEEK_START);
+        board.addDistance(1L, WEEK_START, 5.0, NEXT_WEEK_START);
+
+        assertThat(board.topDistances(10, NEXT_WEEK_START)).containsExactly(new UserDistance(2L, 3.0));
+        assertThat(board.distanceRank(2L, NEXT_WEEK_START)).hasValue(new DistanceLeaderboardEntryDto(1, 2L, 3.0));
+    }
+
+    @Test
+    void shouldKeepFastestSessions_whenMoreThanMaxLimitAreOffered() {
+        IntStream.range(0, LeaderboardService.MAX_LIMIT + 20)
+                 .forEach(i -> board.offer(new Session(i, 1L, i)));
+
+        assertThat(board.topSpeeds(LeaderboardService.MAX_LIMIT + 20)).hasSize(LeaderboardService.MAX_LIMIT)
+                                                                      .first()
+                                                                      .isEqualTo(new Session(LeaderboardService.MAX_LIMIT + 19, 1L, LeaderboardService.MAX_LIMIT + 19));
+        assertThat(board.topSpeeds(LeaderboardService.MAX_LIMIT + 20)).last().isEqualTo(new Session(20, 1L, 20));
+    }
+
+}
@@ -0,0 +1,62 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class LogHistogramTest {
+
+    private final LogHistogram histogram = new LogHistogram();
+
+    @Test
+    void shouldReturnZero_whenHistogramIsEmpty() {
+        assertThat(histogram.count()).isZero();
+        assertThat(histogram.valueAtPercentile(50)).isZero();
+    }
+
+    @Test
+    void shouldReportPercentilesWithinRelativeError_whenValuesAreRecorded() {
+        IntStream.rangeClosed(1, 1_000).forEach(histogram::record);
+
+        assertThat(histogram.count()).isEqualTo(1_000);
+        assertThat(histogram.valueAtPercentile(50)).isCloseTo(500, within(500 / 64.0));
+        assertThat(histogram.valueAtPercentile(90)).isCloseTo(900, within(900 / 64.0));
+        assertThat(histogram.valueAtPercentile(99)).isCloseTo(990, within(990 / 64.0));
+        assertThat(histogram.valueAtPercentile(100)).isCloseTo(1_000, within(1_000 / 64.0));
+    }
+
+    @Test
+    void shouldReportSingleValue_whenOnlyOneValueIsRecorded() {
+        histogram.record(12.5);
+
+        assertThat(histogram.valueAtPercentile(1)).isCloseTo(12.5, within(12.5 / 64));
+        assertThat(histogram.valueAtPercentile(100)).isCloseTo(12.5, within(12.5 / 64));
+    }
+
+    @Test
+    void shouldForgetValue_whenValueIsRemoved() {
+        histogram.record(10);
+        histogram.record(1_000);
+
+        histogram.remove(1_000);
+
+        assertThat(histogram.count()).isEqualTo(1);
+        assertThat(histogram.valueAtPercentile(100)).isCloseTo(10, within(10 / 64.0));
+    }
+
+    @Test
+    void shouldClampToFirstAndLastBucket_whenValuesAreOutOfRange() {
+        histogram.record(0);
+        histogram.record(-5);
+        histogram.record(Double.NaN);
+        histogram.record(1e300);
+
+        assertThat(histogram.count()).isEqualTo(4);
+        assertThat(histogram.valueAtPercentile(75)).isLessThan(Math.scalb(1.0, -9));
+        assertThat(histogram.valueAtPercentile(100)).isGreaterThan(Math.scalb(1.0, 40));
+    }
+
+}
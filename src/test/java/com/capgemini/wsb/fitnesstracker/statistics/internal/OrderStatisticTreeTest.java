@@ -0,0 +1,94 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderStatisticTreeTest {
+
+    private final OrderStatisticTree<Integer> tree = new OrderStatisticTree<>(Comparator.naturalOrder());
+
+    @Test
+    void shouldReturnEmptyResults_whenTreeIsEmpty() {
+        assertThat(tree.size()).isZero();
+        assertThat(tree.last()).isNull();
+        assertThat(tree.head(10)).isEmpty();
+        assertThat(tree.rank(1)).isEqualTo(-1);
+    }
+
+    @Test
+    void shouldIgnoreDuplicates_whenAddingEqualElement() {
+        tree.add(5);
+        tree.add(5);
+
+        assertThat(tree.size()).isEqualTo(1);
+        assertThat(tree.head(10)).containsExactly(5);
+    }
+
+    @Test
+    void shouldIgnoreRemoval_whenElementIsAbsent() {
+        tree.add(5);
+
+        tree.remove(7);
+
+        assertThat(tree.size()).isEqualTo(1);
+        assertThat(tree.rank(5)).isZero();
+    }
+
+    @Test
+    void shouldRankElements_whenElementsAreAddedInReverseOrder() {
+        for (int i = 99; i >= 0; i--) {
+            tree.add(i);
+        }
+
+        assertThat(tree.size()).isEqualTo(100);
+        assertThat(tree.rank(0)).isZero();
+        assertThat(tree.rank(42)).isEqualTo(42);
+        assertThat(tree.rank(100)).isEqualTo(-1);
+        assertThat(tree.last()).isEqualTo(99);
+        assertThat(tree.head(3)).containsExactly(0, 1, 2);
+    }
+
+    @Test
+    void shouldMatchTreeSet_whenRandomElementsAreAddedAndRemoved() {
+        SplittableRandom random = new SplittableRandom(42);
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int i = 0; i < 5_000; i++) {
+            int element = random.nextInt(500);
+            if (random.nextInt(3) == 0) {
+                tree.remove(element);
+                expected.remove(element);
+            } else {
+                tree.add(element);
+                expected.add(element);
+            }
+        }
+
+        assertThat(tree.size()).isEqualTo(expected.size());
+        assertThat(tree.last()).isEqualTo(expected.last());
+        assertThat(tree.head(expected.size() + 1)).containsExactlyElementsOf(expected);
+        assertThat(tree.head(10)).containsExactlyElementsOf(new ArrayList<>(expected).subList(0, 10));
+        List<Integer> ordered = new ArrayList<>(expected);
+        for (int element = 0; element < 500; element++) {
+            assertThat(tree.rank(element)).as("rank of %s", element).isEqualTo(ordered.indexOf(element));
+        }
+    }
+
+    @Test
+    void shouldBeEmpty_whenCleared() {
+        tree.add(1);
+        tree.add(2);
+
+        tree.clear();
+
+        assertThat(tree.size()).isZero();
+        assertThat(tree.last()).isNull();
+    }
+
+}
@@ -0,0 +1,127 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
+import com.capgemini.wsb.fitnesstracker.statistics.api.Statistics;
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.concurrent.CountDownLatch;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+
+@IntegrationTest
+class StatisticsRebuildJobIntegrationTest extends IntegrationTestBase {
+
+    private static final long HOUR_MILLIS = 3_600_000;
+
+    @SpyBean
+    private CaloriesCalculator caloriesCalculator;
+
+    @Autowired
+    private StatisticsRebuildJob statisticsRebuildJob;
+
+    @Autowired
+    private StatisticsRepository statisticsRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void shouldReportProgressAndMetrics_whenRebuildCompletes() {
+        User first = existingUser(new User("Emma", "Johnson", LocalDate.of(1996, 7, 15), "emma.johnson@domain.com"));
+        User second = existingUser(new User("Ethan", "Taylor", LocalDate.of(1990, 3, 2), "ethan.taylor@domain.com"));
+        existingUser(new User("Olivia", "Davis", LocalDate.of(1985, 11, 20), "olivia.davis@domain.com"));
+        persistTraining(generateTraining(first, 10.0));
+        persistTraining(generateTraining(first, 5.0));
+        persistTraining(generateTraining(second, 7.5));
+        insertStatistics(first, 1, 1.0, 1);
+        double usersBefore = meterRegistry.counter("statistics.rebuild.users").count();
+        double trainingsBefore = meterRegistry.counter("statistics.rebuild.trainings").count();
+        long runsBefore = meterRegistry.timer("statistics.rebuild.duration").count();
+
+        StatisticsRebuildStatusDto started = statisticsRebuildJob.start();
+        StatisticsRebuildStatusDto status = awaitFinished();
+
+        assertThat(status.state()).isEqualTo(StatisticsRebuildJob.State.COMPLETED);
+        assertThat(status.completedPartitions()).isEqualTo(started.totalPartitions()).isPositive();
+        assertThat(status.users()).isEqualTo(2);
+        assertThat(status.trainings()).isEqualTo(3);
+        assertThat(status.finishedAt()).isNotNull();
+        assertThat(meterRegistry.counter("statistics.rebuild.users").count() - usersBefore).isEqualTo(2);
+        assertThat(meterRegistry.counter("statistics.rebuild.trainings").count() - trainingsBefore).isEqualTo(3);
+        assertThat(meterRegistry.timer("statistics.rebuild.duration").count() - runsBefore).isEqualTo(1);
+        assertThat(statisticsRepository.findById(first.getId())).hasValueSatisfying(statistics -> assertTotals(statistics, 2, 15.0, 2 * 686));
+        assertThat(statisticsRepository.findById(second.getId())).hasValueSatisfying(statistics -> assertTotals(statistics, 1, 7.5, 686));
+    }
+
+    @Test
+    void shouldKeepPreviousStatisticsOfPartition_whenRebuildIsCancelledHalfway() throws Exception {
+        User user = existingUser(new User("Emma", "Johnson", LocalDate.of(1996, 7, 15), "emma.johnson@domain.com"));
+        persistTraining(generateTraining(user, 10.0));
+        persistTraining(generateTraining(user, 5.0));
+        insertStatistics(user, 1, 1.0, 1);
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch released = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            reading.countDown();
+            released.await(10, SECONDS);
+            return invocation.callRealMethod();
+        }).when(caloriesCalculator).caloriesBurned(any(ActivityType.class), anyLong());
+
+        statisticsRebuildJob.start();
+        try {
+            assertThat(reading.await(10, SECONDS)).isTrue();
+            assertThat(statisticsRebuildJob.cancel().state()).isEqualTo(StatisticsRebuildJob.State.RUNNING);
+        } finally {
+            released.countDown();
+        }
+        StatisticsRebuildStatusDto status = awaitFinished();
+
+        assertThat(status.state()).isEqualTo(StatisticsRebuildJob.State.CANCELLED);
+        assertThat(status.completedPartitions()).isZero();
+        assertThat(status.users()).isZero();
+        assertThat(statisticsRepository.findById(user.getId())).hasValueSatisfying(statistics -> assertTotals(statistics, 1, 1.0, 1));
+    }
+
+    private StatisticsRebuildStatusDto awaitFinished() {
+        await().atMost(Duration.ofSeconds(10))
+               .until(() -> statisticsRebuildJob.status().state() != StatisticsRebuildJob.State.RUNNING);
+        return statisticsRebuildJob.status();
+    }
+
+    private void insertStatistics(final User user, final int trainings, final double distance, final int calories) {
+        jdbcTemplate.update("insert into statistics (user_id, total_trainings, total_distance, total_calories_burned) values (?, ?, ?, ?)",
+                            user.getId(), trainings, distance, calories);
+    }
+
+    private static void assertTotals(final Statistics statistics, final int trainings, final double distance, final int calories) {
+        assertThat(statistics.getTotalTrainings()).isEqualTo(trainings);
+        assertThat(statistics.getTotalDistance()).isCloseTo(distance, within(1e-9));
+        assertThat(statistics.getTotalCaloriesBurned()).isEqualTo(calories);
+    }
+
+    private static Training generateTraining(final User user, final double distance) {
+        Date start = new Date(1_700_000_000_000L);
+        return new Training(user, start, new Date(start.getTime() + HOUR_MILLIS), ActivityType.RUNNING, distance, 10.0);
+    }
+
+}
@@ -0,0 +1,115 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
+import com.capgemini.wsb.fitnesstracker.statistics.api.Statistics;
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.training.internal.TrainingServiceImpl;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@IntegrationTest
+class StatisticsUpdaterIntegrationTest extends IntegrationTestBase {
+
+    private static final long HOUR_MILLIS = 3_600_000;
+
+    @Autowired
+    private TrainingServiceImpl trainingService;
+
+    @Autowired
+    private StatisticsStore statisticsStore;
+
+    @Autowired
+    private StatisticsRepository statisticsRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void shouldInsertAndAccumulateStatistics_whenTrainingsAreCreated() {
+        User user = existingUser(generateUser("emma.johnson@domain.com"));
+
+        trainingService.createTraining(generateTraining(user, ActivityType.RUNNING, HOUR_MILLIS, 10.0));
+        trainingService.createTraining(generateTraining(user, ActivityType.WALKING, HOUR_MILLIS / 2, 2.5));
+
+        Statistics statistics = statisticsRepository.findById(user.getId()).orElseThrow();
+        assertThat(statistics.getTotalTrainings()).isEqualTo(2);
+        assertThat(statistics.getTotalDistance()).isCloseTo(12.5, within(1e-9));
+        assertThat(statistics.getTotalCaloriesBurned()).isEqualTo(686 + 123);
+    }
+
+    @Test
+    void shouldApplyDistanceDelta_whenTrainingDistanceIsUpdated() {
+        User user = existingUser(generateUser("emma.johnson@domain.com"));
+        Training training = trainingService.createTraining(generateTraining(user, ActivityType.CYCLING, HOUR_MILLIS, 30.0));
+
+        trainingService.updateTrainingDistance(training.getId(), 42.0);
+
+        Statistics statistics = statisticsRepository.findById(user.getId()).orElseThrow();
+        assertThat(statistics.getTotalTrainings()).isEqualTo(1);
+        assertThat(statistics.getTotalDistance()).isCloseTo(42.0, within(1e-9));
+        assertThat(statistics.getTotalCaloriesBurned()).isEqualTo(525);
+    }
+
+    @Test
+    void shouldMergeBothDeltas_whenFirstStatisticsOfUserAreInsertedConcurrently() throws Exception {
+        User user = existingUser(generateUser("emma.johnson@domain.com"));
+        StatisticsDelta delta = new StatisticsDelta(1, 5.0, 100);
+        CountDownLatch firstApplied = new CountDownLatch(1);
+
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            statisticsStore.apply(user.getId(), delta);
+            firstApplied.countDown();
+            // keeps the inserted row uncommitted while the second transaction tries to insert it too
+            sleep(500);
+        }));
+        CompletableFuture<Void> second = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            await(firstApplied);
+            statisticsStore.apply(user.getId(), delta);
+        }));
+        CompletableFuture.allOf(first, second).get(30, SECONDS);
+
+        Statistics statistics = statisticsRepository.findById(user.getId()).orElseThrow();
+        assertThat(statistics.getTotalTrainings()).isEqualTo(2);
+        assertThat(statistics.getTotalDistance()).isCloseTo(10.0, within(1e-9));
+        assertThat(statistics.getTotalCaloriesBurned()).isEqualTo(200);
+    }
+
+    private static User generateUser(final String email) {
+        return new User("Emma", "Johnson", LocalDate.of(1996, 7, 15), email);
+    }
+
+    private static Training generateTraining(final User user, final ActivityType activityType, final long durationMillis, final double distance) {
+        Date start = new Date(1_704_096_000_000L);
+        return new Training(user, start, new Date(start.getTime() + durationMillis), activityType, distance, distance * HOUR_MILLIS / durationMillis);
+    }
+
+    private static void sleep(final long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,141 @@
+package com.capgemini.wsb.fitnesstracker.statistics.internal;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.training.internal.TrainingServiceImpl;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.log;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@IntegrationTest
+@AutoConfigureMockMvc(addFilters = false)
+class TrainingRollupIntegrationTest extends IntegrationTestBase {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TrainingServiceImpl trainingService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUpRollups() {
+        jdbcTemplate.update("delete from training_rollups");
+    }
+
+    @Test
+    void shouldSumTrainingsIntoDailyBuckets_whenGettingDailyRollups() throws Exception {
+        User user = existingUser(generateUser());
+        trainingService.createTraining(generateTraining(user, LocalDateTime.of(2024, 1, 1, 10, 0), Duration.ofHours(1), ActivityType.RUNNING, 10.0, 10.0));
+        trainingService.createTraining(generateTraining(user, LocalDateTime.of(2024, 1, 1, 18, 0), Duration.ofMinutes(30), ActivityType.RUNNING, 6.0, 12.0));
+        trainingService.createTraining(generateTraining(user, LocalDateTime.of(2024, 1, 3, 7, 0), Duration.ofHours(1), ActivityType.CYCLING, 20.0, 20.0));
+        trainingService.createTraining(generateTraining(user, LocalDateTime.of(2024, 1, 4, 7, 0), Duration.ofHours(1), ActivityType.CYCLING, 25.0, 25.0));
+
+        mockMvc.perform(get("/v1/statistics/user/{userId}/rollups", user.getId())
+                                .param("period", "DAY")
+                                .param("from", "2024-01-01")
+                                .param("to", "2024-01-03")
+                                .contentType(MediaType.APPLICATION_JSON))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].activityType").value("RUNNING"))
+                .andExpect(jsonPath("$[0].period").value("DAY"))
+                .andExpect(jsonPath("$[0].periodStart").value("2024-01-01"))
+                .andExpect(jsonPath("$[0].trainingCount").value(2))
+                .andExpect(jsonPath("$[0].totalDistance").value(16.0))
+                .andExpect(jsonPath("$[0].totalDurationMillis").value(5_400_000))
+                .andExpect(jsonPath("$[0].maxAverageSpeed").value(12.0))
+                .andExpect(jsonPath("$[1].activityType").value("CYCLING"))
+                .andExpect(jsonPath("$[1].periodStart").value("2024-01-03"))
+                .andExpect(jsonPath("$[1].trainingCount").value(1))
+                .andExpect(jsonPath("$[1].totalDistance").value(20.0));
+    }
+
+    @Test
+    void shouldSumTrainingsIntoIsoWeeks_whenGettingWeeklyRollups() throws Exception {
+        User user = existingUser(generateUser());
+        trainingService.createTraining(generateTraining(user, LocalDateTime.of(2024, 1, 1, 10, 0), Duration.ofHours(1), ActivityType.RUNNING, 10.0, 10.0));
+        trainingService.createTraining(generateTraining(user, LocalDateTime.of(2024, 1, 3, 7, 0), Duration.ofHours(1), ActivityType.CYCLING, 20.0, 20.0));
+        trainingService.createTraining(generateTraining(user, LocalDateTime.of(2024, 1, 7, 23, 0), Duration.ofMinutes(45), ActivityType.RUNNING, 8.0, 10.7));
+        trainingService.createTraining(generateTraining(user, LocalDateTime.of(2024, 1, 8, 6, 0), Duration.ofHours(1), ActivityType.RUNNING, 5.0, 5.0));
+
+        // the range starting on Wednesday includes the whole week starting on Monday
+        mockMvc.perform(get("/v1/statistics/user/{userId}/rollups", user.getId())
+                                .param("period", "WEEK")
+                                .param("from", "2024-01-03")
+                                .param("to", "2024-01-08")
+                                .contentType(MediaType.APPLICATION_JSON))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].activityType").value("RUNNING"))
+                .andExpect(jsonPath("$[0].periodStart").value("2024-01-01"))
+                .andExpect(jsonPath("$[0].trainingCount").value(2))
+                .andExpect(jsonPath("$[0].totalDistance").value(18.0))
+                .andExpect(jsonPath("$[0].totalDurationMillis").value(6_300_000))
+                .andExpect(jsonPath("$[0].maxAverageSpeed").value(10.7))
+                .andExpect(jsonPath("$[1].activityType").value("CYCLING"))
+                .andExpect(jsonPath("$[1].periodStart").value("2024-01-01"))
+                .andExpect(jsonPath("$[2].activityType").value("RUNNING"))
+                .andExpect(jsonPath("$[2].periodStart").value("2024-01-08"))
+                .andExpect(jsonPath("$[2].trainingCount").value(1));
+    }
+
+    @Test
+    void shouldApplyDistanceDeltaToBuckets_whenTrainingDistanceIsUpdated() throws Exception {
+        User user = existingUser(generateUser());
+        Training training = trainingService.createTraining(generateTraining(user, LocalDateTime.of(2024, 1, 2, 10, 0), Duration.ofHours(1), ActivityType.RUNNING, 10.0, 10.0));
+
+        trainingService.updateTrainingDistance(training.getId(), 12.5);
+
+        for (String period : new String[]{"DAY", "WEEK"}) {
+            mockMvc.perform(get("/v1/statistics/user/{userId}/rollups", user.getId())
+                                    .param("period", period)
+                                    .param("from", "2024-01-01")
+                                    .param("to", "2024-01-07")
+                                    .contentType(MediaType.APPLICATION_JSON))
+                    .andDo(log())
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(1)))
+                    .andExpect(jsonPath("$[0].trainingCount").value(1))
+                    .andExpect(jsonPath("$[0].totalDistance").value(12.5));
+        }
+    }
+
+    private static User generateUser() {
+        return new User("Emma", "Johnson", LocalDate.of(1996, 7, 15), "emma.johnson@domain.com");
+    }
+
+    private static Training generateTraining(final User user,
+                                             final LocalDateTime start,
+                                             final Duration duration,
+                                             final ActivityType activityType,
+                                             final double distance,
+                                             final double averageSpeed) {
+        Date startTime = Date.from(start.atZone(ZoneId.systemDefault()).toInstant());
+        return new Training(user, startTime, new Date(startTime.getTime() + duration.toMillis()), activityType, distance, averageSpeed);
+    }
+
+}
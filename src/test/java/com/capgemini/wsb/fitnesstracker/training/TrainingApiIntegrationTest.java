@@ -18,6 +18,8 @@ import java.text.SimpleDateFormat;
 
 import static java.time.LocalDate.now;
 import static java.util.UUID.randomUUID;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.log;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -41,19 +43,19 @@ class TrainingApiIntegrationTest extends IntegrationTestBase {
         mockMvc.perform(get("/v1/trainings").contentType(MediaType.APPLICATION_JSON))
                 .andDo(log())
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$").isArray())
-                .andExpect(jsonPath("$[0].user.id").value(user1.getId()))
-                .andExpect(jsonPath("$[0].user.firstName").value(user1.getFirstName()))
-                .andExpect(jsonPath("$[0].user.lastName").value(user1.getLastName()))
-                .andExpect(jsonPath("$[0].user.email").value(user1.getEmail()))
+                .andExpect(jsonPath("$.items").isArray())
+                .andExpect(jsonPath("$.items[0].user.id").value(user1.getId()))
+                .andExpect(jsonPath("$.items[0].user.firstName").value(user1.getFirstName()))
+                .andExpect(jsonPath("$.items[0].user.lastName").value(user1.getLastName()))
+                .andExpect(jsonPath("$.items[0].user.email").value(user1.getEmail()))
 
 
-                .andExpect(jsonPath("$[0].startTime").value(sdf.format(training1.getStartTime())))
-                .andExpect(jsonPath("$[0].endTime").value(sdf.format(training1.getEndTime())))
-                .andExpect(jsonPath("$[0].distance").value((training1.getDistance())))
-                .andExpect(jsonPath("$[0].averageSpeed").value(training1.getAverageSpeed()))
+                .andExpect(jsonPath("$.items[0].startTime").value(sdf.format(training1.getStartTime())))
+                .andExpect(jsonPath("$.items[0].endTime").value(sdf.format(training1.getEndTime())))
+                .andExpect(jsonPath("$.items[0].distance").value((training1.getDistance())))
+                .andExpect(jsonPath("$.items[0].averageSpeed").value(training1.getAverageSpeed()))
 
-                .andExpect(jsonPath("$[1]").doesNotExist());
+                .andExpect(jsonPath("$.items[1]").doesNotExist());
     }
 
     @Test
@@ -156,6 +158,83 @@ class TrainingApiIntegrationTest extends IntegrationTestBase {
 
     }
 
+    @Test
+    void shouldReturnBadRequest_whenCreatingTrainingWithoutUser() throws Exception {
+
+        String requestBody = """
+                {
+                    "startTime": "2024-04-01T10:00:00",
+                    "endTime": "2024-04-01T11:00:00",
+                    "activityType": "RUNNING",
+                    "distance": 10.52,
+                    "averageSpeed": 8.2
+                }
+                """;
+        mockMvc.perform(post("/v1/trainings").contentType(MediaType.APPLICATION_JSON).content(requestBody))
+                .andDo(log())
+                .andExpect(status().isBadRequest());
+
+        assertThat(getAllTrainings()).isEmpty();
+    }
+
+    @Test
+    void shouldReturnNotFound_whenCreatingTrainingOfUnknownUser() throws Exception {
+
+        User user1 = existingUser(generateClient());
+
+        String requestBody = """
+                {
+                    "user": {"id": %s},
+                    "startTime": "2024-04-01T10:00:00",
+                    "endTime": "2024-04-01T11:00:00",
+                    "activityType": "RUNNING",
+                    "distance": 10.52,
+                    "averageSpeed": 8.2
+                }
+                """.formatted(user1.getId() + 1000);
+        mockMvc.perform(post("/v1/trainings").contentType(MediaType.APPLICATION_JSON).content(requestBody))
+                .andDo(log())
+                .andExpect(status().isNotFound());
+
+        assertThat(getAllTrainings()).isEmpty();
+    }
+
+    @Test
+    void shouldPersistValidTrainingsAndReportFailures_whenCreatingTrainingsInBatch() throws Exception {
+
+        User user1 = existingUser(generateClient());
+
+        String requestBody = """
+                [
+                    {
+                        "user": {"id": %s},
+                        "startTime": "2024-04-01T10:00:00",
+                        "endTime": "2024-04-01T11:00:00",
+                        "activityType": "RUNNING",
+                        "distance": 10.52,
+                        "averageSpeed": 8.2
+                    },
+                    {
+                        "user": {"id": %s},
+                        "startTime": "2024-04-01T10:00:00",
+                        "endTime": "2024-04-01T11:00:00",
+                        "activityType": "RUNNING",
+                        "distance": 10.52,
+                        "averageSpeed": 8.2
+                    }
+                ]
+                """.formatted(user1.getId(), user1.getId() + 1000);
+        mockMvc.perform(post("/v1/trainings/batch").contentType(MediaType.APPLICATION_JSON).content(requestBody))
+                .andDo(log())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created", hasSize(1)))
+                .andExpect(jsonPath("$.created[0].index").value(0))
+                .andExpect(jsonPath("$.failures", hasSize(1)))
+                .andExpect(jsonPath("$.failures[0].index").value(1));
+
+        assertThat(getAllTrainings()).hasSize(1);
+    }
+
     @Test
     void shouldUpdateTraining_whenUpdatingTraining() throws Exception {
 
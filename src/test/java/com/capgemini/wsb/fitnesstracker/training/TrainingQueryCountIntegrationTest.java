@@ -0,0 +1,86 @@
+package com.capgemini.wsb.fitnesstracker.training;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
+import com.capgemini.wsb.fitnesstracker.QueryCounter;
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+
+import static java.time.LocalDate.now;
+import static java.util.UUID.randomUUID;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@IntegrationTest
+@Transactional
+@AutoConfigureMockMvc(addFilters = false)
+class TrainingQueryCountIntegrationTest extends IntegrationTestBase {
+
+    private static final int USERS = 5;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User firstUser;
+
+    @BeforeEach
+    void createTrainingsOfDistinctUsers() {
+        for (int i = 0; i < USERS; i++) {
+            User user = existingUser(new User(randomUUID().toString(), randomUUID().toString(), now(), randomUUID().toString()));
+            persistTraining(new Training(user, new Date(1_000L), new Date(2_000L), ActivityType.RUNNING, 10.5, 8.2));
+            persistTraining(new Training(user, new Date(1_000L), new Date(2_000L), ActivityType.RUNNING, 5.0, 7.0));
+            if (firstUser == null) {
+                firstUser = user;
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void shouldRunSingleStatement_whenGettingAllTrainings() throws Exception {
+        assertThat(countStatements(get("/v1/trainings"))).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRunSingleStatement_whenGettingTrainingsByActivity() throws Exception {
+        assertThat(countStatements(get("/v1/trainings/activity").param("activityType", "RUNNING"))).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRunSingleStatement_whenGettingTrainingsCompletedAfterDate() throws Exception {
+        assertThat(countStatements(get("/v1/trainings/completed").param("date", "1970-01-01"))).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRunSingleStatement_whenGettingTrainingSummaries() throws Exception {
+        assertThat(countStatements(get("/v1/trainings/summaries"))).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRunSingleStatement_whenGettingTrainingsOfUser() throws Exception {
+        assertThat(countStatements(get("/v1/trainings/user/{userId}", firstUser.getId()))).isEqualTo(1);
+    }
+
+    private long countStatements(RequestBuilder request) throws Exception {
+        QueryCounter.reset();
+        mockMvc.perform(request).andExpect(status().isOk());
+        return QueryCounter.count();
+    }
+
+}
@@ -0,0 +1,77 @@
+package com.capgemini.wsb.fitnesstracker.training;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.internal.ActivityType;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@IntegrationTest
+@AutoConfigureMockMvc(addFilters = false)
+class TrainingStreamIntegrationTest extends IntegrationTestBase {
+
+    // more than two flush intervals of the export, and not a multiple of them
+    private static final int TRAININGS = 1_201;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void shouldWriteOneJsonObjectPerLine_whenExportingAllTrainings() throws Exception {
+        User first = existingUser(new User("Emma", "Johnson", LocalDate.of(1996, 7, 15), "emma.johnson@domain.com"));
+        User second = existingUser(new User("Ethan", "Taylor", LocalDate.of(1990, 3, 2), "ethan.taylor@domain.com"));
+        List<Training> trainings = createAllTrainings(IntStream.range(0, TRAININGS)
+                                                               .mapToObj(i -> generateTraining(i % 2 == 0 ? first : second, i))
+                                                               .toList());
+
+        MvcResult result = mockMvc.perform(get("/v1/trainings/stream"))
+                                  .andExpect(request().asyncStarted())
+                                  .andReturn();
+        String body = mockMvc.perform(asyncDispatch(result))
+                             .andExpect(status().isOk())
+                             .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                             .andReturn().getResponse().getContentAsString();
+
+        assertThat(body).endsWith("\n");
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        assertThat(lines).hasSize(TRAININGS).allSatisfy(line -> {
+            assertThat(line.isObject()).isTrue();
+            assertThat(line.get("user").get("id").asLong()).isIn(first.getId(), second.getId());
+        });
+        assertThat(lines).extracting(line -> line.get("id").asLong())
+                         .containsExactlyInAnyOrderElementsOf(trainings.stream().map(Training::getId).toList());
+    }
+
+    private static Training generateTraining(final User user, final int index) {
+        Date start = new Date(1_700_000_000_000L + index * 60_000L);
+        return new Training(user, start, new Date(start.getTime() + 3_600_000), ActivityType.RUNNING, 10.0, 10.0);
+    }
+
+}
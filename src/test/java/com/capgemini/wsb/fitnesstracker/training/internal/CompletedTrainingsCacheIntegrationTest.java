@@ -0,0 +1,119 @@
+package com.capgemini.wsb.fitnesstracker.training.internal;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
+import com.capgemini.wsb.fitnesstracker.training.api.Training;
+import com.capgemini.wsb.fitnesstracker.training.api.TrainingsCreatedEvent;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@IntegrationTest
+@TestPropertySource(properties = "training.completed-cache.max-result-trainings=3")
+class CompletedTrainingsCacheIntegrationTest extends IntegrationTestBase {
+
+    private static final Date DATE = new Date(1_700_000_000_000L);
+
+    @Autowired
+    private CompletedTrainingsCache completedTrainingsCache;
+
+    @Autowired
+    private TrainingServiceImpl trainingService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Test
+    void shouldServeCopiesFromCache_whenTrainingDistanceChanges() {
+        User user = existingUser(new User("Emma", "Johnson", LocalDate.of(1996, 7, 15), "emma.johnson@domain.com"));
+        List<Training> trainings = persistTrainings(user, 2);
+        CacheStats statsBefore = nativeCache().stats();
+
+        TrainingDto loaded = completedTrainingsCache.findPage(DATE, 0, 3).orElseThrow().get(0);
+        trainingService.updateTrainingDistance(trainings.get(0).getId(), 42.0);
+        List<TrainingDto> page = completedTrainingsCache.findPage(DATE, 0, 3).orElseThrow();
+
+        assertThat(page).extracting(TrainingDto::getId).containsExactly(trainings.get(0).getId(), trainings.get(1).getId());
+        assertThat(page.get(0).getDistance()).isEqualTo(42.0);
+        assertThat(loaded.getDistance()).isEqualTo(10.0);
+        // the first lookup has loaded the result, the second one has been served by the updated entry
+        CacheStats stats = nativeCache().stats().minus(statsBefore);
+        assertThat(stats.missCount()).isEqualTo(1);
+        assertThat(stats.hitCount()).isEqualTo(1);
+        assertThat(meterRegistry.get("training.completed-cache.hit-ratio").gauge().value()).isEqualTo(nativeCache().stats().hitRate());
+    }
+
+    @Test
+    void shouldInsertCreatedTraining_whenItsIdIsBelowTheLastIdOfFullPrefix() {
+        User user = existingUser(new User("Emma", "Johnson", LocalDate.of(1996, 7, 15), "emma.johnson@domain.com"));
+        List<Training> trainings = persistTrainings(user, 5);
+        Training late = trainings.get(1);
+        // the training is not completed after the date yet when the prefix is loaded
+        setEndTime(late, new Date(DATE.getTime() - 1));
+        assertThat(completedTrainingsCache.findPage(DATE, 0, 3).orElseThrow()).extracting(TrainingDto::getId)
+                .containsExactly(trainings.get(0).getId(), trainings.get(2).getId(), trainings.get(3).getId());
+
+        // committed by another node, which allocated its ID from an earlier block
+        setEndTime(late, new Date(DATE.getTime() + 3_600_000));
+        eventPublisher.publishEvent(new TrainingsCreatedEvent(List.of(late)));
+
+        assertThat(completedTrainingsCache.findPage(DATE, 0, 3).orElseThrow()).extracting(TrainingDto::getId)
+                .containsExactly(trainings.get(0).getId(), late.getId(), trainings.get(2).getId());
+        assertThat(completedTrainingsCache.findPage(DATE, trainings.get(2).getId(), 3)).isEmpty();
+    }
+
+    @Test
+    void shouldMarkPrefixIncomplete_whenCreatedTrainingDoesNotFitIntoFullPrefix() {
+        User user = existingUser(new User("Emma", "Johnson", LocalDate.of(1996, 7, 15), "emma.johnson@domain.com"));
+        List<Training> trainings = persistTrainings(user, 3);
+        assertThat(completedTrainingsCache.findPage(DATE, 0, 4).orElseThrow()).hasSize(3);
+
+        Training created = trainingService.createTraining(new Training(user, new Date(DATE.getTime() + 60_000), new Date(DATE.getTime() + 3_600_000),
+                                                                       ActivityType.RUNNING, 5.0, 10.0));
+
+        assertThat(created.getId()).isGreaterThan(trainings.get(2).getId());
+        assertThat(completedTrainingsCache.findPage(DATE, 0, 3).orElseThrow()).extracting(TrainingDto::getId)
+                .containsExactlyElementsOf(trainings.stream().map(Training::getId).toList());
+        assertThat(completedTrainingsCache.findPage(DATE, 0, 4)).isEmpty();
+    }
+
+    private List<Training> persistTrainings(final User user, final int count) {
+        return IntStream.range(0, count)
+                        .mapToObj(i -> persistTraining(new Training(user, DATE, new Date(DATE.getTime() + 3_600_000 + i),
+                                                                    ActivityType.RUNNING, 10.0, 10.0)))
+                        .toList();
+    }
+
+    private void setEndTime(final Training training, final Date endTime) {
+        jdbcTemplate.update("update trainings set end_time = ? where id = ?", new Timestamp(endTime.getTime()), training.getId());
+    }
+
+    private Cache<?, ?> nativeCache() {
+        return (Cache<?, ?>) cacheManager.getCache(CompletedTrainingsCacheConfig.COMPLETED_TRAININGS_CACHE).getNativeCache();
+    }
+
+}
@@ -0,0 +1,86 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@IntegrationTest
+@AutoConfigureMockMvc(addFilters = false)
+class UserCacheIntegrationTest extends IntegrationTestBase {
+
+    @Autowired
+    private UserServiceImpl userService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Test
+    void shouldServeUserFromCache_whenUserIsReadAgain() throws Exception {
+        User user = existingUser(new User("Emma", "Johnson", LocalDate.of(1996, 7, 15), "emma.johnson@domain.com"));
+        CacheStats statsBefore = nativeCache().stats();
+        assertThat(userService.getUser(user.getId())).isPresent();
+
+        // removed behind the back of the service, so only the cache still knows the user
+        jdbcTemplate.update("delete from users where id = ?", user.getId());
+
+        assertThat(userService.getUser(user.getId())).hasValueSatisfying(cachedUser -> {
+            assertThat(cachedUser.getId()).isEqualTo(user.getId());
+            assertThat(cachedUser.getEmail()).isEqualTo(user.getEmail());
+        });
+        assertThat(userService.userExists(user.getId())).isTrue();
+        mockMvc.perform(get("/v1/trainings/user/{userId}", user.getId()))
+               .andExpect(status().isOk());
+        CacheStats stats = nativeCache().stats().minus(statsBefore);
+        assertThat(stats.missCount()).isEqualTo(1);
+        assertThat(stats.hitCount()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldServeUpdatedUser_whenEmailIsUpdated() {
+        User user = existingUser(new User("Emma", "Johnson", LocalDate.of(1996, 7, 15), "emma.johnson@domain.com"));
+        assertThat(userService.getUser(user.getId())).hasValueSatisfying(cachedUser -> assertThat(cachedUser.getEmail()).isEqualTo("emma.johnson@domain.com"));
+
+        userService.updateUserEmail(user.getId(), "emma.taylor@domain.com");
+
+        assertThat(userService.getUser(user.getId())).hasValueSatisfying(cachedUser -> assertThat(cachedUser.getEmail()).isEqualTo("emma.taylor@domain.com"));
+        assertThat(userService.findUserDto(user.getId())).hasValueSatisfying(userDto -> assertThat(userDto.email()).isEqualTo("emma.taylor@domain.com"));
+    }
+
+    @Test
+    void shouldReportMissingUser_whenCachedUserIsDeleted() throws Exception {
+        User user = existingUser(new User("Emma", "Johnson", LocalDate.of(1996, 7, 15), "emma.johnson@domain.com"));
+        assertThat(userService.userExists(user.getId())).isTrue();
+
+        userService.deleteUser(user.getId());
+
+        assertThat(userService.userExists(user.getId())).isFalse();
+        assertThat(userService.getUser(user.getId())).isEmpty();
+        mockMvc.perform(get("/v1/trainings/user/{userId}", user.getId()))
+               .andExpect(status().isNotFound());
+    }
+
+    private Cache<?, ?> nativeCache() {
+        return (Cache<?, ?>) cacheManager.getCache(UserCacheConfig.USERS_CACHE).getNativeCache();
+    }
+
+}
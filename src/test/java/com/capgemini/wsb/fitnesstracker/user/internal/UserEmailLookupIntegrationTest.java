@@ -0,0 +1,67 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@IntegrationTest
+class UserEmailLookupIntegrationTest extends IntegrationTestBase {
+
+    @Autowired
+    private UserServiceImpl userService;
+
+    @Autowired
+    private UserEmailCache userEmailCache;
+
+    @Test
+    void shouldFindUser_whenEmailDiffersOnlyInCase() {
+        User user = existingUser(new User("Emma", "Johnson", LocalDate.of(1996, 7, 15), "Emma.Johnson@Domain.com"));
+
+        assertThat(userService.getUserByEmail("emma.johnson@domain.com")).hasValueSatisfying(found -> assertThat(found.getId()).isEqualTo(user.getId()));
+        assertThat(userService.getUserByEmail("  EMMA.JOHNSON@DOMAIN.COM ")).hasValueSatisfying(found -> assertThat(found.getId()).isEqualTo(user.getId()));
+        assertThat(userEmailCache.getUserId("emma.johnson@domain.com")).contains(user.getId());
+    }
+
+    @Test
+    void shouldFindUserByNewEmailOnly_whenEmailIsUpdated() {
+        User user = existingUser(new User("Emma", "Johnson", LocalDate.of(1996, 7, 15), "emma.johnson@domain.com"));
+        assertThat(userService.getUserByEmail("emma.johnson@domain.com")).isPresent();
+
+        userService.updateUserEmail(user.getId(), "Emma.Taylor@domain.com");
+
+        assertThat(userEmailCache.getUserId("emma.johnson@domain.com")).isEmpty();
+        assertThat(userService.getUserByEmail("emma.johnson@domain.com")).isEmpty();
+        assertThat(userService.getUserByEmail("emma.taylor@domain.com")).hasValueSatisfying(found -> assertThat(found.getId()).isEqualTo(user.getId()));
+    }
+
+    @Test
+    void shouldFindNewOwnerOfEmail_whenUserWithEmailIsDeleted() {
+        User user = existingUser(new User("Emma", "Johnson", LocalDate.of(1996, 7, 15), "emma.johnson@domain.com"));
+        assertThat(userService.getUserByEmail("emma.johnson@domain.com")).isPresent();
+
+        userService.deleteUser(user.getId());
+
+        assertThat(userEmailCache.getUserId("emma.johnson@domain.com")).isEmpty();
+        assertThat(userService.getUserByEmail("emma.johnson@domain.com")).isEmpty();
+        User newOwner = existingUser(new User("Emma", "Davis", LocalDate.of(1990, 3, 2), "EMMA.JOHNSON@domain.com"));
+        assertThat(userService.getUserByEmail("emma.johnson@domain.com")).hasValueSatisfying(found -> assertThat(found.getId()).isEqualTo(newOwner.getId()));
+    }
+
+    @Test
+    void shouldRejectUser_whenEmailDiffersOnlyInCaseFromExistingOne() {
+        existingUser(new User("Emma", "Johnson", LocalDate.of(1996, 7, 15), "emma.johnson@domain.com"));
+
+        assertThatThrownBy(() -> existingUser(new User("Emma", "Davis", LocalDate.of(1990, 3, 2), "Emma.Johnson@Domain.com")))
+                .isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(getAllUsers()).hasSize(1);
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserEmailTrigramIndexTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+
+    private final UserEmailTrigramIndex index = new UserEmailTrigramIndex(userRepository);
+
+    @Test
+    void shouldFindUsersByFragment_whenIndexIsRebuilt() {
+        when(userRepository.findAllUserEmailInfo()).thenReturn(List.of(new UserEmailInfo(1L, "Emma.Johnson@domain.com"),
+                                                                       new UserEmailInfo(2L, "ethan.taylor@domain.com"),
+                                                                       new UserEmailInfo(3L, "olivia.davis@other.com")));
+
+        index.rebuild();
+
+        assertThat(index.search("JOHN", 0, 10)).containsExactly(new UserEmailInfo(1L, "Emma.Johnson@domain.com"));
+        assertThat(index.search("domain.com", 0, 10)).extracting(UserEmailInfo::id).containsExactly(1L, 2L);
+        assertThat(index.search("domain.com", 1, 10)).extracting(UserEmailInfo::id).containsExactly(2L);
+        assertThat(index.search("a", 0, 2)).extracting(UserEmailInfo::id).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void shouldKeepChangesMadeWhileUsersAreRead_whenIndexIsRebuilt() {
+        index.put(user(1L, "emma.johnson@domain.com"));
+        index.put(user(2L, "ethan.taylor@domain.com"));
+        when(userRepository.findAllUserEmailInfo()).thenAnswer(invocation -> {
+            // the snapshot read misses the concurrent creation, removal and email change
+            List<UserEmailInfo> snapshot = List.of(new UserEmailInfo(1L, "emma.johnson@domain.com"),
+                                                   new UserEmailInfo(2L, "ethan.taylor@domain.com"));
+            index.put(user(3L, "olivia.davis@domain.com"));
+            index.remove(2L);
+            index.put(user(1L, "emma.brown@domain.com"));
+            return snapshot;
+        });
+
+        index.rebuild();
+
+        assertThat(index.search("domain.com", 0, 10)).containsExactly(new UserEmailInfo(1L, "emma.brown@domain.com"),
+                                                                       new UserEmailInfo(3L, "olivia.davis@domain.com"));
+        assertThat(index.search("johnson", 0, 10)).isEmpty();
+    }
+
+    @Test
+    void shouldThrowException_whenFragmentIsNull() {
+        assertThatThrownBy(() -> index.search(null, 0, 10)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static User user(final Long id, final String email) {
+        User user = new User("First", "Last", LocalDate.of(1990, 1, 1), email);
+        ReflectionTestUtils.setField(user, "id", id);
+        return user;
+    }
+
+}
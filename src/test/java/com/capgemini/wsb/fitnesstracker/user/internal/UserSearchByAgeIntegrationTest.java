@@ -0,0 +1,96 @@
+package com.capgemini.wsb.fitnesstracker.user.internal;
+
+import com.capgemini.wsb.fitnesstracker.IntegrationTest;
+import com.capgemini.wsb.fitnesstracker.IntegrationTestBase;
+import com.capgemini.wsb.fitnesstracker.user.api.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@IntegrationTest
+@AutoConfigureMockMvc(addFilters = false)
+class UserSearchByAgeIntegrationTest extends IntegrationTestBase {
+
+    private static final int USERS_PER_BIRTHDATE = 600;
+
+    private static final LocalDate FIRST_BIRTHDATE = LocalDate.of(1970, 1, 1);
+
+    private static final LocalDate SECOND_BIRTHDATE = LocalDate.of(1980, 6, 15);
+
+    @Autowired
+    private UserServiceImpl userService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private List<User> expectedUsers;
+
+    @BeforeEach
+    void createUsersSharingBirthdates() {
+        // inserted alternately, so the IDs of users sharing a birthdate are interleaved and a chunk ends within a birthdate
+        List<Object[]> rows = new ArrayList<>();
+        IntStream.range(0, 2 * USERS_PER_BIRTHDATE)
+                 .forEach(i -> rows.add(userRow(i, i % 2 == 0 ? SECOND_BIRTHDATE : FIRST_BIRTHDATE)));
+        IntStream.range(0, 10)
+                 .forEach(i -> rows.add(userRow(2 * USERS_PER_BIRTHDATE + i, LocalDate.now().minusYears(10))));
+        jdbcTemplate.batchUpdate("insert into users (first_name, last_name, birthdate, email, normalized_email) values (?, ?, ?, ?, ?)", rows);
+        expectedUsers = getAllUsers().stream()
+                                     .filter(user -> user.getBirthdate().isBefore(LocalDate.now().minusYears(30)))
+                                     .sorted(Comparator.comparing(User::getBirthdate).thenComparing(User::getId))
+                                     .toList();
+    }
+
+    @Test
+    void shouldReturnEveryUserOnceInKeyOrder_whenUsersSpanSeveralChunks() {
+        List<UserDto> users = new ArrayList<>();
+
+        userService.searchUsersOlderThan(30, users::add);
+
+        assertThat(expectedUsers).hasSize(2 * USERS_PER_BIRTHDATE);
+        assertThat(users).extracting(UserDto::Id).containsExactlyElementsOf(expectedUsers.stream().map(User::getId).toList());
+    }
+
+    @Test
+    void shouldStreamAllUsers_whenSearchingByAgeOverSeveralChunks() throws Exception {
+        MvcResult result = mockMvc.perform(get("/v1/users/searchByAge").param("age", "30"))
+                                  .andExpect(request().asyncStarted())
+                                  .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+               .andExpect(status().isOk())
+               .andExpect(content().contentTypeCompatibleWith("application/json"))
+               .andExpect(jsonPath("$", hasSize(2 * USERS_PER_BIRTHDATE)))
+               .andExpect(jsonPath("$[0].email").value(expectedUsers.get(0).getEmail()))
+               .andExpect(jsonPath("$[500].email").value(expectedUsers.get(500).getEmail()))
+               .andExpect(jsonPath("$[%d].email".formatted(expectedUsers.size() - 1)).value(expectedUsers.get(expectedUsers.size() - 1).getEmail()));
+    }
+
+    private static Object[] userRow(final int index, final LocalDate birthdate) {
+        String email = "user%d@domain.com".formatted(index);
+        return new Object[]{"First" + index, "Last" + index, Date.valueOf(birthdate), email, email};
+    }
+
+}